@@ -2,16 +2,32 @@ package chatterbox;
 
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
 
 import chatterboxexceptions.ChatterboxExceptions;
+import command.ByeCommand;
 import command.Command;
+import command.InvalidCommand;
+import command.Response;
 import gui.GuiResponses;
 import parser.Parser;
 import storage.Storage;
 import tags.TagList;
+import tasks.ChangeFeed;
 import tasks.Task;
 import tasks.TaskList;
+import tasks.TaskSnapshot;
+import tasks.TaskSummary;
+import tasks.UndoLog;
 
 /**
  * Main class that encapsulates all gui chatbot functionality.
@@ -24,6 +40,20 @@ public class ChatterboxGui {
     private final TaskList tasks;
     private final TagList userTags;
 
+    private final AtomicLong commandsProcessed = new AtomicLong();
+    private final AtomicLong commandErrors = new AtomicLong();
+    private final ConcurrentHashMap<String, LongAdder> commandCounts = new ConcurrentHashMap<>();
+    private volatile long savedVersion;
+
+    /**
+     * Guards tasks and tags: commands hold the write lock, read-only views hold the read lock.
+     * Code that only needs the tasks can skip the lock entirely by reading a TaskSnapshot.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** The only path through which commands are applied, whichever thread they come from. Set by start. */
+    private volatile CommandPipeline pipeline;
+
     /**
      * Initiates ChatterboxGui with a prior history filepath.
      *
@@ -35,7 +65,6 @@ public class ChatterboxGui {
         this.guiResponses = new GuiResponses();
         this.parser = new Parser();
         this.storage = new Storage(filepath);
-        this.userTags = new TagList();
         ArrayList<Task> loadedTask = new ArrayList<>();
         TagList loadedTags = new TagList();
         try {
@@ -46,8 +75,9 @@ public class ChatterboxGui {
 
 
         this.tasks = new TaskList(loadedTask);
-
-
+        this.userTags = loadedTags;
+        userTags.setChangeFeed(tasks.getChangeFeed());
+        this.savedVersion = currentVersion();
     }
 
     /**
@@ -69,7 +99,29 @@ public class ChatterboxGui {
 
         this.tasks = new TaskList(loaded);
         this.userTags = loadedTags;
+        userTags.setChangeFeed(tasks.getChangeFeed());
+        this.savedVersion = currentVersion();
+    }
+
+    /**
+     * Starts the writer thread that applies commands. It is not started by the constructors, so the thread
+     * never sees an instance that is still being built, including one of a subclass.
+     *
+     * @return this instance, ready for commands.
+     */
+    public synchronized ChatterboxGui start() {
+        if (pipeline == null) {
+            pipeline = new CommandPipeline(this, CommandPipeline.DEFAULT_CAPACITY);
+        }
+        return this;
+    }
 
+    private CommandPipeline getPipeline() {
+        CommandPipeline started = pipeline;
+        if (started == null) {
+            throw new IllegalStateException("Chatterbox has not been started");
+        }
+        return started;
     }
 
 
@@ -88,26 +140,319 @@ public class ChatterboxGui {
 
     /**
      * Processes the user input to return the appropriate response.
+     * Read-only commands run on the calling thread under the read lock, so interrupting the caller cancels
+     * a long scan. Other commands are applied by the writer thread and this call waits until they have been saved.
+     */
+    public Response processInput(String input) {
+        String trimmed = input.trim();
+        Command command = parser.parseCommandType(trimmed);
+        if (command.isReadOnly() && !parser.isMultiCommand(trimmed)) {
+            lock.readLock().lock();
+            try {
+                return executeCommand(command, trimmed);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        CommandPipeline started = getPipeline();
+        if (started.isWriterThread()) {
+            CommandPipeline.PendingCommand pending = new CommandPipeline.PendingCommand(input);
+            applyBatch(List.of(pending));
+            return pending.response;
+        }
+        try {
+            return started.submit(input).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes the user input to the command pipeline without waiting for it.
+     *
+     * @param input the raw command text.
+     * @return future completed with the response once the command has been applied and saved.
+     */
+    public CompletableFuture<Response> submit(String input) {
+        return getPipeline().submit(input);
+    }
+
+    /**
+     * Applies a batch of commands in order and saves once for the whole batch.
+     * The changes each command makes are delivered to change listeners together as the command finishes.
+     * The history is written from a snapshot after the lock is released, so readers are not held up by the save.
+     * Statuses are saved as they were in the snapshot, but tags are read from the tasks while saving, so a tag
+     * change made meanwhile can be in the file early, it is saved again along with its own batch.
+     *
+     * @param batch commands to apply, their responses or failures are filled in.
+     */
+    void applyBatch(List<CommandPipeline.PendingCommand> batch) {
+        TaskSnapshot snapshot;
+        long version;
+        lock.writeLock().lock();
+        try {
+            ChangeFeed changes = tasks.getChangeFeed();
+            for (CommandPipeline.PendingCommand command : batch) {
+                changes.beginBatch();
+                try {
+                    command.response = executeInput(command.input);
+                } catch (RuntimeException e) {
+                    command.failure = e;
+                } finally {
+                    changes.endBatch();
+                }
+            }
+            snapshot = tasks.snapshot();
+            version = currentVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        save(snapshot, version);
+    }
+
+    /**
+     * Checks if the user input is a command that only reads tasks and tags.
+     *
+     * @param input the raw command text.
+     * @return true if the command can be cancelled without losing changes.
      */
-    public HashMap<String, String> processInput(String input) {
+    public boolean isReadOnly(String input) {
+        String trimmed = input.trim();
+        return !parser.isMultiCommand(trimmed) && parser.parseCommandType(trimmed).isReadOnly();
+    }
+
+    private Response executeInput(String input) {
         input = input.trim();
-        Command currCommand = parser.parseCommandType(input);
+        if (parser.isMultiCommand(input)) {
+            return executeTransaction(parser.splitCommands(input));
+        }
+        return executeCommand(parser.parseCommandType(input), input);
+    }
+
+    private Response runCommand(Command currCommand, String input) throws ChatterboxExceptions.ChatterBoxError {
+        commandsProcessed.incrementAndGet();
+        commandCounts.computeIfAbsent(currCommand.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        return currCommand.run(input, guiResponses, userTags, tasks, parser);
+    }
 
-        HashMap<String, String> response = new HashMap<String, String>();
-        String result;
+    /**
+     * Runs a single command. Its reply is rendered later, from the rows the command captured, only if asked for.
+     */
+    private Response executeCommand(Command currCommand, String input) {
         try {
-            result = currCommand.execute(input, guiResponses, userTags, tasks, parser);
-            response.put("type", "OK");
+            return runCommand(currCommand, input);
         } catch (ChatterboxExceptions.ChatterBoxError e) {
+            commandErrors.incrementAndGet();
+            return Response.error(guiResponses.getErrorMessage(e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs several commands as one transaction: either all of them are applied or none are.
+     * Every command is parsed before any is run, and the first error rolls back the changes made so far.
+     * The caller saves once for the whole transaction.
+     *
+     * @param inputs the commands in the order given.
+     * @return one response covering every command.
+     */
+    private Response executeTransaction(List<String> inputs) {
+        Command[] commands = new Command[inputs.size()];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = parser.parseCommandType(inputs.get(i));
+            if (commands[i] instanceof InvalidCommand || commands[i] instanceof ByeCommand) {
+                commandErrors.incrementAndGet();
+                return Response.error(guiResponses.transactionFailedMsg(i + 1, inputs.get(i),
+                        commands[i] instanceof ByeCommand
+                                ? "bye has to be sent on its own"
+                                : "Unknown command", inputs.size()));
+            }
+        }
+
+        UndoLog undoLog = new UndoLog();
+        List<Response> replies = new ArrayList<>(commands.length);
+        tasks.beginTransaction(undoLog);
+        userTags.beginTransaction(undoLog);
+        try {
+            for (int i = 0; i < commands.length; i++) {
+                try {
+                    // each reply captures its rows now, so a list or find shows the tasks as they are at its step
+                    replies.add(runCommand(commands[i], inputs.get(i)));
+                } catch (ChatterboxExceptions.ChatterBoxError e) {
+                    undoLog.rollback();
+                    commandErrors.incrementAndGet();
+                    return Response.error(guiResponses.transactionFailedMsg(i + 1, inputs.get(i),
+                            e.getMessage(), inputs.size()));
+                }
+            }
+        } catch (RuntimeException e) {
+            undoLog.rollback();
+            throw e;
+        } finally {
+            tasks.endTransaction();
+            userTags.endTransaction();
+        }
+        return Response.lazy(() -> guiResponses.transactionMsg(inputs,
+                replies.stream().map(Response::getText).toList()));
+    }
+
+    /**
+     * Saves the task history immediately.
+     */
+    public void forceSave() {
+        TaskSnapshot snapshot;
+        long version;
+        lock.readLock().lock();
+        try {
+            snapshot = tasks.snapshot();
+            version = currentVersion();
+        } finally {
+            lock.readLock().unlock();
+        }
+        save(snapshot, version, true);
+    }
+
+    /**
+     * Drops tags without tasks, reclaims the slots of deleted tasks and rewrites the history file.
+     *
+     * @return number of empty tags removed.
+     */
+    public int compact() {
+        int removed;
+        TaskSnapshot snapshot;
+        long version;
+        lock.writeLock().lock();
+        try {
+            removed = userTags.removeEmptyTags();
+            tasks.compact();
+            snapshot = tasks.snapshot();
+            version = currentVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        save(snapshot, version);
+        return removed;
+    }
+
+    /**
+     * Runs a read-only view over the tasks and tags, concurrently with other readers but never with a command.
+     *
+     * @param reader function reading from the task list and tag list, must not modify them.
+     * @param <T> type of the result.
+     * @return the result of the reader.
+     */
+    public <T> T read(BiFunction<TaskList, TagList, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(tasks, userTags);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the running counts of the tasks and tags, without scanning either.
+     *
+     * @return the counts as they are now.
+     */
+    public TaskSummary getSummary() {
+        return read((taskList, tagList) -> taskList.getSummary(tagList));
+    }
+
+    /**
+     * Writes a snapshot to the history file unless it or a newer one has already been written, such as after a
+     * batch that changed nothing.
+     */
+    private void save(TaskSnapshot snapshot, long version) {
+        save(snapshot, version, false);
+    }
 
-            result = guiResponses.getErrorMessage(e.getMessage());
-            response.put("type", "ERROR");
+    private void save(TaskSnapshot snapshot, long version, boolean isForced) {
+        synchronized (storage) {
+            if (version <= savedVersion && !isForced) {
+                return;
+            }
+            storage.saveHistory(snapshot);
+            savedVersion = version;
         }
-        response.put("response", result);
+    }
+
+    private long currentVersion() {
+        return tasks.getVersion() + userTags.getVersion();
+    }
+
+    /**
+     * Gets the number of changes made to tasks and tags since the last save.
+     *
+     * @return number of unsaved changes.
+     */
+    public long getPendingChanges() {
+        return currentVersion() - savedVersion;
+    }
+
+    /**
+     * Gets the number of commands processed so far.
+     *
+     * @return number of commands processed.
+     */
+    public long getCommandsProcessed() {
+        return commandsProcessed.get();
+    }
+
+    /**
+     * Gets the number of commands that ended in an error.
+     *
+     * @return number of failed commands.
+     */
+    public long getCommandErrors() {
+        return commandErrors.get();
+    }
+
+    /**
+     * Gets the number of times each command type has been processed.
+     *
+     * @return map of command class name to count, sorted by name.
+     */
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        commandCounts.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Gets the feed that every change to the tasks and tags is emitted on, one batch per command.
+     *
+     * @return the change feed shared by the task list and tag list.
+     */
+    public ChangeFeed getChangeFeed() {
+        return tasks.getChangeFeed();
+    }
+
+    public TaskList getTaskList() {
+        return tasks;
+    }
+
+    public TagList getTagList() {
+        return userTags;
+    }
 
-        storage.saveHistory(tasks.getTasks());
+    public Storage getStorage() {
+        return storage;
+    }
 
-        return response;
+    /**
+     * Stops the command pipeline after applying every command already submitted.
+     */
+    public void shutdown() {
+        CommandPipeline started = pipeline;
+        if (started != null) {
+            started.shutdown();
+        }
     }
 
 
@@ -125,6 +470,20 @@ public class ChatterboxGui {
     public String getGoodbye() {
         return guiResponses.goodbye();
     }
+
+    public String getCancelledMessage() {
+        return guiResponses.getCancelledMessage();
+    }
+
+    /**
+     * Gets the message shown when a command could not be completed.
+     *
+     * @param cause what stopped the command.
+     * @return error message String.
+     */
+    public String getFailureMessage(Throwable cause) {
+        return guiResponses.getErrorMessage(cause.getMessage() == null ? cause.toString() : cause.getMessage());
+    }
     /**
      * Gets the name of the chatbot.
      *
@@ -0,0 +1,136 @@
+package chatterbox;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import tags.Tag;
+
+/**
+ * JMX view of a running ChatterboxGui.
+ * Every attribute reads a counter that is maintained as tasks and tags change, so polling does not scan the lists.
+ */
+public class ChatterboxMetrics implements ChatterboxMetricsMBean {
+    public static final String OBJECT_NAME = "chatterbox:type=Metrics";
+
+    private static final int LARGEST_TAGS_SHOWN = 10;
+
+    private final ChatterboxGui chatterbox;
+
+    public ChatterboxMetrics(ChatterboxGui chatterbox) {
+        this.chatterbox = chatterbox;
+    }
+
+    /**
+     * Registers metrics for the chatterbox with the platform MBean server.
+     * An existing registration under the same name is replaced.
+     *
+     * @param chatterbox the instance to expose.
+     * @return the registered metrics object.
+     * @throws JMException if the MBean could not be registered.
+     */
+    public static ChatterboxMetrics register(ChatterboxGui chatterbox) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        ChatterboxMetrics metrics = new ChatterboxMetrics(chatterbox);
+        server.registerMBean(metrics, name);
+        return metrics;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return chatterbox.getTaskList().size();
+    }
+
+    @Override
+    public int getRemainingTaskCount() {
+        return chatterbox.getTaskList().getRemainingCount();
+    }
+
+    @Override
+    public int getTagCount() {
+        return chatterbox.getTagList().size();
+    }
+
+    @Override
+    public int getDeletedTaskSlots() {
+        return chatterbox.getTaskList().getDeletedSlots();
+    }
+
+    @Override
+    public String[] getLargestTags() {
+        List<Tag> largest = chatterbox.read((tasks, tags) -> tags.getLargestTags(LARGEST_TAGS_SHOWN));
+        String[] entries = new String[largest.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = largest.get(i).getTagName() + "=" + largest.get(i).size();
+        }
+        return entries;
+    }
+
+    @Override
+    public long getHistoryFileSize() {
+        return chatterbox.getStorage().getHistoryFileSize();
+    }
+
+    @Override
+    public long getLastSaveDurationMillis() {
+        return chatterbox.getStorage().getLastSaveDurationNanos() / 1_000_000;
+    }
+
+    @Override
+    public long getPendingChanges() {
+        return chatterbox.getPendingChanges();
+    }
+
+    @Override
+    public long getCommandsProcessed() {
+        return chatterbox.getCommandsProcessed();
+    }
+
+    @Override
+    public long getCommandErrors() {
+        return chatterbox.getCommandErrors();
+    }
+
+    @Override
+    public String[] getCommandCounts() {
+        Map<String, Long> counts = chatterbox.getCommandCounts();
+        return counts.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public long getSearchCacheHits() {
+        return chatterbox.getTaskList().getSearchCacheHits();
+    }
+
+    @Override
+    public long getSearchCacheMisses() {
+        return chatterbox.getTaskList().getSearchCacheMisses();
+    }
+
+    @Override
+    public double getSearchCacheHitRatio() {
+        long hits = getSearchCacheHits();
+        long searches = hits + getSearchCacheMisses();
+        return searches == 0 ? 0 : (double) hits / searches;
+    }
+
+    @Override
+    public void forceSave() {
+        chatterbox.forceSave();
+    }
+
+    @Override
+    public int compact() {
+        return chatterbox.compact();
+    }
+}
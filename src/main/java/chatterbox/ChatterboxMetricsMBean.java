@@ -0,0 +1,72 @@
+package chatterbox;
+
+/**
+ * Management interface exposing live Chatterbox metrics over JMX.
+ */
+public interface ChatterboxMetricsMBean {
+
+    int getTaskCount();
+
+    /**
+     * Gets the number of tasks not yet done.
+     *
+     * @return number of undone tasks.
+     */
+    int getRemainingTaskCount();
+
+    int getTagCount();
+
+    /**
+     * Gets the number of task slots left empty by deletes and not yet compacted.
+     *
+     * @return number of empty task slots.
+     */
+    int getDeletedTaskSlots();
+
+    /**
+     * Gets the largest tags as "name=count" entries, largest first.
+     *
+     * @return array of the largest tags.
+     */
+    String[] getLargestTags();
+
+    long getHistoryFileSize();
+
+    long getLastSaveDurationMillis();
+
+    long getPendingChanges();
+
+    long getCommandsProcessed();
+
+    long getCommandErrors();
+
+    /**
+     * Gets the per command type counters as "CommandName=count" entries.
+     *
+     * @return array of command counters.
+     */
+    String[] getCommandCounts();
+
+    long getSearchCacheHits();
+
+    long getSearchCacheMisses();
+
+    /**
+     * Gets the share of find and findtag searches answered from the search cache.
+     *
+     * @return hits over all searches, 0 before the first search.
+     */
+    double getSearchCacheHitRatio();
+
+    /**
+     * Saves the task history immediately.
+     */
+    void forceSave();
+
+    /**
+     * Removes empty tags, reclaims empty task slots and rewrites the history file.
+     *
+     * @return number of tags removed.
+     */
+    int compact();
+}
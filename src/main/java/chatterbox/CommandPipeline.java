@@ -0,0 +1,201 @@
+package chatterbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+import command.Response;
+
+/**
+ * Single-writer pipeline that applies commands from any thread in publication order.
+ * Producers publish into a bounded ring buffer and block when it is full; one writer thread drains
+ * whatever has accumulated, applies it as one batch, saves once for the batch and then completes
+ * each command's future.
+ */
+public class CommandPipeline {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MAX_BATCH = 256;
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    private final ChatterboxGui chatterbox;
+    private final RingBuffer<PendingCommand> ring;
+    private final Thread writer;
+
+    private volatile boolean isRunning = true;
+    private volatile boolean isWriterParked;
+
+    /** Held while taking the commands left in the ring once the writer has stopped. */
+    private final Object leftoverLock = new Object();
+
+    /**
+     * A command waiting to be applied, along with the future its result is delivered to.
+     */
+    static class PendingCommand {
+        final String input;
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        Response response;
+        Throwable failure;
+
+        PendingCommand(String input) {
+            this.input = input;
+        }
+
+        void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(response);
+            }
+        }
+    }
+
+    /**
+     * Creates the pipeline and starts its writer thread.
+     *
+     * @param chatterbox the engine commands are applied to.
+     * @param capacity maximum number of commands waiting before producers block.
+     */
+    public CommandPipeline(ChatterboxGui chatterbox, int capacity) {
+        this.chatterbox = chatterbox;
+        this.ring = new RingBuffer<>(capacity);
+        this.writer = new Thread(this::runWriter, "chatterbox-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publishes a command, blocking while the buffer is full.
+     *
+     * @param input the raw command text.
+     * @return future completed with the command's response once it has been applied and saved.
+     * @throws RejectedExecutionException if the pipeline has been shut down.
+     */
+    public CompletableFuture<Response> submit(String input) {
+        if (!isRunning) {
+            throw new RejectedExecutionException("Command pipeline is shut down");
+        }
+        PendingCommand command = new PendingCommand(input);
+        int attempts = 0;
+        while (!ring.offer(command)) {
+            if (!isRunning) {
+                throw new RejectedExecutionException("Command pipeline is shut down");
+            }
+            if (attempts++ < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        published();
+        return command.result;
+    }
+
+    /**
+     * Publishes a command only if there is space for it.
+     *
+     * @param input the raw command text.
+     * @return future for the response, or null if the buffer is full.
+     */
+    public CompletableFuture<Response> trySubmit(String input) {
+        if (!isRunning) {
+            throw new RejectedExecutionException("Command pipeline is shut down");
+        }
+        PendingCommand command = new PendingCommand(input);
+        if (!ring.offer(command)) {
+            return null;
+        }
+        published();
+        return command.result;
+    }
+
+    /**
+     * Wakes the writer for a command just published. If the pipeline shut down meanwhile the writer may already
+     * have stopped, so the commands it left behind are rejected rather than left waiting forever.
+     */
+    private void published() {
+        if (isWriterParked) {
+            LockSupport.unpark(writer);
+        }
+        if (!isRunning) {
+            rejectLeftovers();
+        }
+    }
+
+    /**
+     * Checks if the current thread is the writer thread.
+     *
+     * @return true if called from the writer.
+     */
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * Stops accepting new commands and waits for already published ones to be applied.
+     * A command published while the writer was stopping is rejected.
+     */
+    public void shutdown() {
+        isRunning = false;
+        LockSupport.unpark(writer);
+        rejectLeftovers();
+    }
+
+    /**
+     * Waits for the writer to stop, then fails every command still in the ring. The ring has a single consumer,
+     * so it is only drained here once the writer is gone, and by one thread at a time.
+     */
+    private void rejectLeftovers() {
+        if (isWriterThread()) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<PendingCommand> leftovers = new ArrayList<>();
+        synchronized (leftoverLock) {
+            ring.drainTo(leftovers, ring.capacity());
+        }
+        for (PendingCommand command : leftovers) {
+            command.result.completeExceptionally(new RejectedExecutionException("Command pipeline is shut down"));
+        }
+    }
+
+    private void runWriter() {
+        List<PendingCommand> batch = new ArrayList<>(MAX_BATCH);
+        while (isRunning || !ring.isEmpty()) {
+            batch.clear();
+            if (ring.drainTo(batch, MAX_BATCH) == 0) {
+                parkUntilPublished();
+                continue;
+            }
+            try {
+                chatterbox.applyBatch(batch);
+            } catch (Throwable e) {
+                // even an Error must not stop the writer, or every later command would wait forever
+                for (PendingCommand command : batch) {
+                    if (command.response == null && command.failure == null) {
+                        command.failure = e;
+                    }
+                }
+            }
+            for (PendingCommand command : batch) {
+                command.complete();
+            }
+        }
+    }
+
+    private void parkUntilPublished() {
+        isWriterParked = true;
+        if (isRunning && ring.isEmpty()) {
+            LockSupport.park(this);
+        }
+        isWriterParked = false;
+    }
+}
@@ -0,0 +1,121 @@
+package chatterbox;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * Producers claim a slot with a CAS on the tail and publish it by advancing the slot's sequence,
+ * the consumer only ever reads slots whose sequence shows they have been published.
+ *
+ * @param <E> type of element held.
+ */
+public class RingBuffer<E> {
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next position to read, only touched by the consumer thread. */
+    private long head;
+
+    /**
+     * Creates a ring buffer holding at least the given number of elements.
+     *
+     * @param capacity minimum capacity, rounded up to a power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is space, safe to call from any thread.
+     *
+     * @param element the element to add.
+     * @return true if added, false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element, must only be called from the consumer thread.
+     *
+     * @return the element, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = (E) slots[index];
+        slots[index] = null;
+        sequences.set(index, head + slots.length);
+        head++;
+        return element;
+    }
+
+    /**
+     * Moves up to max published elements into the list, must only be called from the consumer thread.
+     *
+     * @param out list to add the elements to.
+     * @param max maximum number of elements to move.
+     * @return number of elements moved.
+     */
+    public int drainTo(List<E> out, int max) {
+        int drained = 0;
+        while (drained < max) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            out.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Checks whether the next slot has been published, must only be called from the consumer thread.
+     *
+     * @return true if there is nothing to read.
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
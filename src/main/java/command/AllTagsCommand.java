@@ -30,7 +30,12 @@ public class AllTagsCommand extends Command {
                            TagList tagList,
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        return guiResponses.displayAllTags(tagList.getAllTags());
+        return guiResponses.displayAllTags(tagList.getTagsWithPrefix(""));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
     @Override
@@ -32,7 +32,13 @@ public class ByeCommand extends Command {
                           TagList tagList, TaskList taskList, Parser parser)
             throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        return null;
+        return guiResponses.goodbye();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser) {
+        return Response.exit(guiResponses.goodbye());
     }
 
     @Override
@@ -28,4 +28,32 @@ public abstract class Command {
                                    TagList tagList, TaskList taskList, Parser parser)
             throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput;
+
+    /**
+     * Runs the command and returns its result.
+     * Commands that produce tasks or act on list positions override this to attach them to the response,
+     * and may leave the reply text to be rendered only if it is shown.
+     *
+     * @param input the input from the user.
+     * @param guiResponses the gui responses object used to output the response.
+     * @param tagList the TagList object.
+     * @param taskList the TaskList object.
+     * @param parser Parser Object.
+     * @return the response after executing the command.
+     */
+    public Response run(String input, GuiResponses guiResponses, TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        return Response.ok(execute(input, guiResponses, tagList, taskList, parser));
+    }
+
+    /**
+     * Checks if the command only reads tasks and tags.
+     * Read-only commands can run alongside other readers and be cancelled part way without losing anything.
+     *
+     * @return true if executing the command never modifies the task list or tag list.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
 }
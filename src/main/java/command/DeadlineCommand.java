@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.ArgumentTokenizer;
+import parser.ArgumentTokenizer.Flag;
 import parser.Parser;
 import tags.TagList;
 import tasks.TaskList;
@@ -32,19 +34,20 @@ public class DeadlineCommand extends Command {
                                    TagList tagList,
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        String[] parsed = parser.parseDeadline(input);
+        ArgumentTokenizer args = parser.tokenizeDeadline(input);
+        String description = args.body();
+        String by = args.value(Flag.BY);
 
-
-        LocalDateTime deadlineDate = parser.parseDateTime(parsed[1]);
+        LocalDateTime deadlineDate = parser.parseDateTime(by);
 
 
         if (deadlineDate == null) {
 
-            taskList.addDeadline(parsed[0], parsed[1]);
+            taskList.addDeadline(description, by);
 
         } else {
 
-            taskList.addDeadline(parsed[0], deadlineDate);
+            taskList.addDeadline(description, deadlineDate);
         }
 
         return guiResponses.addTaskMsg("Deadline", taskList.size());
@@ -2,8 +2,10 @@ package command;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.IndexRanges;
 import parser.Parser;
 import tags.TagList;
+import tasks.Task;
 import tasks.TaskList;
 
 /**
@@ -30,11 +32,29 @@ public class DeleteCommand extends Command {
                            TagList tagList,
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        int index = parser.extractNum(input) - 1;
-        if (index < 0 || index >= taskList.size()) {
-            return guiResponses.getInvalidIndexMessage();
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        IndexRanges numbers = parser.extractIndices(input);
+        if (numbers.first() < 1 || numbers.last() > taskList.size()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput(guiResponses.getInvalidIndexMessage());
+        }
+        // deleted tasks are untagged, and a tag left without tasks goes too, as removetag does
+        if (numbers.isSingle()) {
+            int index = numbers.first() - 1;
+            Task deleted = taskList.deleteTask(index);
+            tagList.removeIfEmpty(deleted.getTagSet());
+            return Response.ok(new int[] {index}, guiResponses.delTaskMsg(deleted, taskList.size()));
+        }
+        int[] indices = numbers.toZeroBasedArray();
+        for (Task deleted : taskList.deleteTasks(indices)) {
+            tagList.removeIfEmpty(deleted.getTagSet());
         }
-        return guiResponses.delTaskMsg(taskList.deleteTask(index), taskList.size());
+        return Response.ok(indices, guiResponses.delManyMsg(indices.length, taskList.size()));
     }
 
     @Override
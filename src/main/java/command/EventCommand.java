@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.ArgumentTokenizer;
+import parser.ArgumentTokenizer.Flag;
 import parser.Parser;
 import tags.TagList;
 import tasks.TaskList;
@@ -32,16 +34,19 @@ public class EventCommand extends Command {
                            TagList tagList,
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        String[] eventParsed = parser.parseEvent(input);
+        ArgumentTokenizer args = parser.tokenizeEvent(input);
+        String description = args.body();
+        String from = args.value(Flag.FROM);
+        String to = args.value(Flag.TO);
 
-        LocalDateTime startDate = parser.parseDateTime(eventParsed[1]); //from 4
-        LocalDateTime endDate = parser.parseDateTime(eventParsed[2]);
+        LocalDateTime startDate = parser.parseDateTime(from);
+        LocalDateTime endDate = parser.parseDateTime(to);
         if (startDate == null || endDate == null) {
 
-            taskList.addEvent(eventParsed[0].trim(), eventParsed[1], eventParsed[2]);
+            taskList.addEvent(description, from, to);
 
         } else {
-            taskList.addEvent(eventParsed[0].trim(), startDate, endDate);
+            taskList.addEvent(description, startDate, endDate);
         }
 
         return guiResponses.addTaskMsg("Event", taskList.size());
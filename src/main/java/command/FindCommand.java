@@ -1,13 +1,12 @@
 package command;
 
-import java.util.ArrayList;
-
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
 import parser.Parser;
 import tags.TagList;
-import tasks.Task;
+import tasks.ListOptions;
 import tasks.TaskList;
+import tasks.TaskPage;
 
 
 /**
@@ -22,10 +21,24 @@ public class FindCommand extends Command {
                            TagList tagList,
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        String keywords = parser.parseFind(input).trim();
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        String keywords = parser.parseFind(input);
+        ListOptions page = parser.parseSearchPage(input, "find");
 
-        ArrayList<Task> matches = taskList.findTasks(keywords);
-        return guiResponses.getSearchList(matches);
+        // read and captured here, under the lock, only as far as the page asked for
+        TaskPage found = taskList.find(keywords, tagList).readPage(page.getOffset(), page.getLimit());
+        return Response.ok(found.getRows(), () -> guiResponses.getSearchList(found));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
     @Override
@@ -3,11 +3,15 @@ package command;
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
 import parser.Parser;
+import tags.Tag;
 import tags.TagList;
+import tasks.ListOptions;
 import tasks.TaskList;
+import tasks.TaskMatches;
+import tasks.TaskPage;
 
 /**
- * Represents the command to find all task under a tag.
+ * Represents the command to find all task under a tag, including the tasks of every tag below it.
  */
 public class FindTagCommand extends Command {
     public FindTagCommand() {
@@ -19,21 +23,34 @@ public class FindTagCommand extends Command {
                           TagList tagList,
                           TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
         // input will be in format "findtag <tag>"
-        String tagName = parser.findTagParseTagName(input).trim().toLowerCase();
+        String tagName = Tag.normalise(parser.findTagParseTagName(input));
         if (tagName.isEmpty()) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag name missing");
         }
         if (tagName.contains(" ")) {
             throw new ChatterboxExceptions.ChatterBoxInvalidInput("Tags cannot have whitespace");
         }
-        if (!tagList.containsTag(tagName)) {
-            return guiResponses.tagNotFoundMsg(tagName);
+        ListOptions page = parser.parseSearchPage(input, "findtag");
+        TaskMatches found = taskList.findTagged(tagName, tagList);
+        if (found == null) {
+            return Response.ok(guiResponses.tagNotFoundMsg(tagName));
         }
-        return guiResponses.getTaggedTasks(tagList.getTag(tagName)
-                .getTaggedTasks());
-
+        // read and captured here, the tags keep changing after the lock is released
+        TaskPage tagged = found.readPage(page.getOffset(), page.getLimit());
+        return Response.ok(tagged.getRows(), () -> guiResponses.getTaggedTasks(tagged));
+    }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
     @Override
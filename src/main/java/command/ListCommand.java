@@ -1,10 +1,15 @@
 package command;
 
+import java.util.List;
+
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
 import parser.Parser;
 import tags.TagList;
+import tasks.ListOptions;
+import tasks.ListView;
 import tasks.TaskList;
+import tasks.TaskRow;
 
 /**
  * Represents a list command that can be executed by the user
@@ -29,7 +34,26 @@ public class ListCommand extends Command {
                           TagList tagList, TaskList taskList, Parser parser)
             throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        return guiResponses.listTaskMsg(taskList);
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        ListOptions options = parser.parseListOptions(input);
+        if (options.isAll()) {
+            // captured here, under the lock, so the reply shows the list as it was when listed
+            List<TaskRow> rows = TaskRow.rowsOf(taskList.snapshot());
+            return Response.ok(rows, () -> guiResponses.listTaskMsg(rows));
+        }
+        ListView view = taskList.view(options);
+        return Response.ok(view.getRows(), () -> guiResponses.listViewMsg(view));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
     @Override
@@ -2,6 +2,7 @@ package command;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.IndexRanges;
 import parser.Parser;
 import tags.TagList;
 import tasks.TaskList;
@@ -28,11 +29,24 @@ public class MarkCommand extends Command {
                           TagList tagList, TaskList taskList, Parser parser)
             throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
-        int index = parser.extractNum(input) - 1;
-        if (index < 0 || index >= taskList.size()) {
-            return guiResponses.getInvalidIndexMessage();
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        IndexRanges numbers = parser.extractIndices(input);
+        if (numbers.first() < 1 || numbers.last() > taskList.size()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput(guiResponses.getInvalidIndexMessage());
+        }
+        if (numbers.isSingle()) {
+            int index = numbers.first() - 1;
+            return Response.ok(new int[] {index}, guiResponses.markMsg(taskList.markTask(index)));
         }
-        return guiResponses.markMsg(taskList.markTask(index));
+        int[] indices = numbers.toZeroBasedArray();
+        taskList.markTasks(indices);
+        return Response.ok(indices, guiResponses.markManyMsg(indices.length));
     }
 
     @Override
@@ -0,0 +1,55 @@
+package command;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import gui.GuiResponses;
+import parser.Parser;
+import tags.Tag;
+import tags.TagList;
+import tasks.TaskList;
+
+/**
+ * Represents the command to merge one tag into another, so every task under either is under the second.
+ */
+public class MergeTagsCommand extends Command {
+    public MergeTagsCommand() {
+    }
+
+    /**
+     * Executes the command to merge a tag into another and remove it. Only the tasks of the smaller tag move.
+     *
+     * @param input        The input string, of format mergetags {tag} {into tag}.
+     * @param guiResponses The GUI response object.
+     * @param tagList      The tag list object.
+     * @param taskList     The task list object.
+     * @param parser       The parser object.
+     * @return The response string.
+     */
+    @Override
+    public String execute(String input, GuiResponses guiResponses,
+                          TagList tagList,
+                          TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        String[] names = parser.parseTagPair(input, "mergetags");
+        String tagName = Tag.normalise(names[0]);
+        String intoName = Tag.normalise(names[1]);
+        if (tagName.isEmpty() || intoName.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag missing");
+        }
+        if (tagName.equals(intoName)) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("A tag cannot be merged into itself");
+        }
+        if (!tagList.containsTag(tagName)) {
+            return guiResponses.tagNotFoundMsg(tagName);
+        }
+        if (!tagList.containsTag(intoName)) {
+            return guiResponses.tagNotFoundMsg(intoName);
+        }
+        int moved = tagList.mergeTags(tagName, intoName);
+        return guiResponses.mergeTagsMsg(tagName, intoName, moved, tagList.getTag(intoName).size());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof MergeTagsCommand;
+    }
+}
@@ -0,0 +1,53 @@
+package command;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import gui.GuiResponses;
+import parser.Parser;
+import tags.Tag;
+import tags.TagList;
+import tasks.TaskList;
+
+/**
+ * Represents the command to move a tag and every tag under it to a new name, such as work/proja to archive/proja.
+ */
+public class MoveTagCommand extends Command {
+    public MoveTagCommand() {
+    }
+
+    /**
+     * Executes the command to move a tag and the tags under it. The tasks keep their tags, only the names change.
+     *
+     * @param input        The input string, of format movetag {from} {to}.
+     * @param guiResponses The GUI response object.
+     * @param tagList      The tag list object.
+     * @param taskList     The task list object.
+     * @param parser       The parser object.
+     * @return The response string.
+     */
+    @Override
+    public String execute(String input, GuiResponses guiResponses,
+                          TagList tagList,
+                          TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        String[] names = parser.parseTagPair(input, "movetag");
+        String from = Tag.normalise(names[0]);
+        String to = Tag.normalise(names[1]);
+        if (from.isEmpty() || to.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag missing");
+        }
+        if (tagList.getSubtree(from).isEmpty()) {
+            return guiResponses.tagNotFoundMsg(from);
+        }
+        String conflict = tagList.getMoveConflict(from, to);
+        if (conflict != null) {
+            return guiResponses.tagMoveConflictMsg(conflict);
+        }
+        int moved = from.equals(to) ? 0 : tagList.moveTags(from, to);
+        return guiResponses.moveTagsMsg(from, to, moved);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof MoveTagCommand;
+    }
+}
@@ -0,0 +1,49 @@
+package command;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import gui.GuiResponses;
+import parser.Parser;
+import tags.TagList;
+import tasks.Query;
+import tasks.QueryResult;
+import tasks.TaskList;
+
+/**
+ * Represents a query command, finding the tasks that meet several conditions at once, such as
+ * query undone deadline tag:work due<2025-01-01 text:"report" order by due limit 20.
+ * With the word explain, the reply also shows how the tasks were found.
+ */
+public class QueryCommand extends Command {
+    public QueryCommand() {
+    }
+
+    @Override
+    public String execute(String input, GuiResponses guiResponses,
+                          TagList tagList,
+                          TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        return run(input, guiResponses, tagList, taskList, parser).getText();
+    }
+
+    @Override
+    public Response run(String input, GuiResponses guiResponses,
+                        TagList tagList, TaskList taskList, Parser parser)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        Query query = parser.parseQuery(input);
+        QueryResult result = taskList.query(query, tagList);
+        if (query.isExplain()) {
+            return Response.ok(result.getRows(), () -> guiResponses.explainQuery(result));
+        }
+        return Response.ok(result.getRows(), () -> guiResponses.getQueryResult(result));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof QueryCommand;
+    }
+}
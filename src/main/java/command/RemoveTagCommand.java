@@ -2,7 +2,10 @@ package command;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.ArgumentTokenizer;
+import parser.ArgumentTokenizer.Flag;
 import parser.Parser;
+import tags.Tag;
 import tags.TagList;
 import tasks.Task;
 import tasks.TaskList;
@@ -21,21 +24,22 @@ public class RemoveTagCommand extends Command {
                           TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
         // input will be in format "removeTag /i <index> /t <tag>"
-        int index = parser.parseRemoveTagIndex(input) - 1;
+        ArgumentTokenizer args = parser.tokenizeRemoveTag(input);
+        int index = parser.parseRemoveTagIndex(args) - 1;
         if (index < 0 || index >= taskList.size()) {
-            return guiResponses.getInvalidIndexMessage();
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput(guiResponses.getInvalidIndexMessage());
         }
-        String tagName = parser.parseRemoveTagName(input).trim().toLowerCase();
+        String tagName = Tag.normalise(args.value(Flag.TAG));
         //remove tag from both taglist and task
         Task taggedTask = taskList.getTask(index);
         if (!tagList.containsTag(tagName)) {
             return guiResponses.tagNotFoundMsg(tagName);
         }
-        tagList.getTag(tagName).untagTask(taggedTask);
-        if (tagList.getTag(tagName).getTaggedTasks().isEmpty()) {
+        Tag tag = tagList.getTag(tagName);
+        taskList.untagTask(index, tag);
+        if (tag.getTaggedTasks().isEmpty()) {
             tagList.removeTag(tagName);
         }
-        taggedTask.removeTag(tagList.getTag(tagName));
         return guiResponses.untagTagMsg(taggedTask, tagName);
     }
 
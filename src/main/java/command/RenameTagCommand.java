@@ -0,0 +1,55 @@
+package command;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import gui.GuiResponses;
+import parser.Parser;
+import tags.Tag;
+import tags.TagList;
+import tasks.TaskList;
+
+/**
+ * Represents the command to give a single tag a new name, leaving the tags under it where they are.
+ */
+public class RenameTagCommand extends Command {
+    public RenameTagCommand() {
+    }
+
+    /**
+     * Executes the command to rename a tag. The tasks under it are not touched, they show the new name at once.
+     *
+     * @param input        The input string, of format renametag {tag} {new name}.
+     * @param guiResponses The GUI response object.
+     * @param tagList      The tag list object.
+     * @param taskList     The task list object.
+     * @param parser       The parser object.
+     * @return The response string.
+     */
+    @Override
+    public String execute(String input, GuiResponses guiResponses,
+                          TagList tagList,
+                          TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        String[] names = parser.parseTagPair(input, "renametag");
+        String tagName = Tag.normalise(names[0]);
+        String newName = Tag.normalise(names[1]);
+        if (tagName.isEmpty() || newName.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag missing");
+        }
+        if (!tagList.containsTag(tagName)) {
+            return guiResponses.tagNotFoundMsg(tagName);
+        }
+        if (tagName.equals(newName)) {
+            return guiResponses.renameTagMsg(tagName, newName);
+        }
+        if (tagList.containsTag(newName)) {
+            return guiResponses.tagMoveConflictMsg(newName);
+        }
+        tagList.renameTag(tagName, newName);
+        return guiResponses.renameTagMsg(tagName, newName);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof RenameTagCommand;
+    }
+}
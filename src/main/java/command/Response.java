@@ -0,0 +1,165 @@
+package command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import tasks.TaskRow;
+
+/**
+ * Immutable result of running a command.
+ * Carries a status, optionally the tasks or list positions the command produced, and the reply text.
+ * The text is only rendered the first time it is asked for, so a front-end that shows the tasks some other
+ * way never pays for building it. Tasks are carried as rows captured when the command ran, and a renderer only
+ * reads those, so the text can be rendered after the lock is released and still shows the tasks as they were.
+ */
+public final class Response {
+
+    /**
+     * Outcome of a command.
+     */
+    public enum Status {
+        /** The command ran, the text is a normal reply. */
+        OK,
+        /** The command failed, the text explains why. */
+        ERROR,
+        /** The user asked to leave, the text is the goodbye message. */
+        EXIT
+    }
+
+    private static final int[] NO_INDICES = new int[0];
+
+    private final Status status;
+    private final List<TaskRow> tasks;
+    private final int[] indices;
+    private final Supplier<String> renderer;
+    private volatile String text;
+
+    private Response(Status status, List<TaskRow> tasks, int[] indices, Supplier<String> renderer, String text) {
+        this.status = status;
+        this.tasks = tasks;
+        this.indices = indices;
+        this.renderer = renderer;
+        this.text = text;
+    }
+
+    /**
+     * Creates a successful response with a ready reply.
+     *
+     * @param text the reply.
+     * @return the response.
+     */
+    public static Response ok(String text) {
+        return new Response(Status.OK, null, NO_INDICES, null, text);
+    }
+
+    /**
+     * Creates a successful response carrying tasks, with the reply rendered on demand.
+     *
+     * @param tasks rows of the tasks the command produced, must not change afterwards.
+     * @param renderer builds the reply from the rows and other captured values when it is first asked for.
+     * @return the response.
+     */
+    public static Response ok(List<TaskRow> tasks, Supplier<String> renderer) {
+        return new Response(Status.OK, Collections.unmodifiableList(tasks), NO_INDICES, renderer, null);
+    }
+
+    /**
+     * Creates a successful response carrying the zero-based list positions the command acted on.
+     *
+     * @param indices positions acted on, must not change afterwards.
+     * @param text the reply.
+     * @return the response.
+     */
+    public static Response ok(int[] indices, String text) {
+        return new Response(Status.OK, null, indices, null, text);
+    }
+
+    /**
+     * Creates a successful response whose reply is rendered on demand.
+     *
+     * @param renderer builds the reply from values captured by the command when it is first asked for.
+     * @return the response.
+     */
+    public static Response lazy(Supplier<String> renderer) {
+        return new Response(Status.OK, null, NO_INDICES, renderer, null);
+    }
+
+    /**
+     * Creates a failed response.
+     *
+     * @param text the error message shown to the user.
+     * @return the response.
+     */
+    public static Response error(String text) {
+        return new Response(Status.ERROR, null, NO_INDICES, null, text);
+    }
+
+    /**
+     * Creates the response to the user leaving.
+     *
+     * @param goodbye the goodbye message.
+     * @return the response.
+     */
+    public static Response exit(String goodbye) {
+        return new Response(Status.EXIT, null, NO_INDICES, null, goodbye);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isError() {
+        return status == Status.ERROR;
+    }
+
+    public boolean isExit() {
+        return status == Status.EXIT;
+    }
+
+    /**
+     * Checks if the response carries tasks.
+     *
+     * @return true if getTasks returns the command's tasks.
+     */
+    public boolean hasTasks() {
+        return tasks != null;
+    }
+
+    /**
+     * Gets the tasks the command produced, such as the matches of a search, as they were when it ran.
+     *
+     * @return unmodifiable list of rows, empty if the command produced none.
+     */
+    public List<TaskRow> getTasks() {
+        return tasks == null ? List.of() : tasks;
+    }
+
+    /**
+     * Gets the zero-based list positions the command acted on.
+     *
+     * @return copy of the positions, empty if the command did not act on any.
+     */
+    public int[] getIndices() {
+        return indices.clone();
+    }
+
+    /**
+     * Gets the reply text, rendering it on first use.
+     *
+     * @return the reply text.
+     */
+    public String getText() {
+        String rendered = text;
+        if (rendered == null) {
+            rendered = renderer.get();
+            text = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public String toString() {
+        return status + ": " + getText();
+    }
+}
@@ -2,6 +2,9 @@ package command;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import gui.GuiResponses;
+import parser.ArgumentTokenizer;
+import parser.ArgumentTokenizer.Flag;
+import parser.IndexRanges;
 import parser.Parser;
 import tags.Tag;
 import tags.TagList;
@@ -31,25 +34,33 @@ public class TagCommand extends Command {
                            TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
             ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
         String result;
-        String tagText = parser.tagCommandParseTagName(input);
-        if (tagText.isEmpty()) {
+        ArgumentTokenizer args = parser.tokenizeTag(input);
+        if (args.isBlank(Flag.TAG)) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag missing");
         }
-        if (tagText.contains(" ")) {
+        if (args.hasWhitespace(Flag.TAG)) {
             throw new ChatterboxExceptions.ChatterBoxInvalidInput("Tags cannot have whitespace");
         }
-        int tagIndex = parser.tagCommandParseTaskIndex(input);
-        if (tagIndex < 1 || tagIndex > taskList.size()) {
-            return guiResponses.getInvalidIndexMessage();
+        String tagText = Tag.normalise(args.value(Flag.TAG));
+        if (tagText.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag missing");
+        }
+        IndexRanges numbers = parser.parseTaskIndices(args);
+        if (numbers.first() < 1 || numbers.last() > taskList.size()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput(guiResponses.getInvalidIndexMessage());
         }
-        tagIndex = tagIndex - 1;
         Tag tag;
         tag = getTag(tagList, tagText);
+        if (!numbers.isSingle()) {
+            int[] indices = numbers.toZeroBasedArray();
+            int tagged = taskList.tagTasks(indices, tag);
+            return guiResponses.tagManyMsg(tagged, indices.length, tagText);
+        }
+        int tagIndex = numbers.first() - 1;
         if (tag.isTagged(taskList.getTask(tagIndex))) {
             return guiResponses.alreadyTaggedMsg(taskList.getTask(tagIndex), tagText);
         }
-        tag.tagTask(taskList.getTask(tagIndex));
-        taskList.getTask(tagIndex).addTag(tag);
+        taskList.tagTask(tagIndex, tag);
         result = guiResponses.tagTaskMsg(taskList.getTask(tagIndex), tagText);
 
 
@@ -0,0 +1,51 @@
+package command;
+
+import java.util.List;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import gui.GuiResponses;
+import parser.Parser;
+import tags.Tag;
+import tags.TagList;
+import tasks.TaskList;
+
+/**
+ * Represents a command to display the tags starting with a prefix, with the number of tasks under each.
+ */
+public class TagsCommand extends Command {
+    public TagsCommand() {
+    }
+
+    /**
+     * Executes the command to display the tags starting with a prefix, or every tag if none is given.
+     *
+     * @param input        The input string, of format tags {prefix}.
+     * @param guiResponses The GUI response object.
+     * @param tagList      The tag list object.
+     * @param taskList     The task list object.
+     * @param parser       The parser object.
+     * @return The response string.
+     */
+    @Override
+    public String execute(String input, GuiResponses guiResponses,
+                          TagList tagList,
+                          TaskList taskList, Parser parser) throws ChatterboxExceptions.ChatterBoxNoInput,
+            ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        String prefix = parser.parseTagsPrefix(input);
+        List<Tag> tags = tagList.getTagsWithPrefix(prefix);
+        if (prefix.isEmpty()) {
+            return guiResponses.displayAllTags(tags);
+        }
+        return guiResponses.tagsWithPrefixMsg(prefix, tags, TagList.countTasksUnder(tags));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof TagsCommand;
+    }
+}
@@ -0,0 +1,103 @@
+package gui;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * Measures what one chat bubble costs to build, the old way from FXML and the new way through DialogBubbles.
+ * No window is shown, bubbles are built on the JavaFX thread into a container that is never displayed.
+ * On a machine without a display, run it under a virtual one such as xvfb-run.
+ */
+public class DialogBenchmark {
+    private static final int WARMUP = 2_000;
+    private static final int BUBBLES = 10_000;
+
+    /** Bubbles kept in the container at once, about what a long chat holds. */
+    private static final int KEPT = 200;
+
+    private interface Factory {
+        Node make(String text, boolean isReply) throws IOException;
+    }
+
+    /**
+     * Runs the benchmark and prints the average time per bubble of each way.
+     *
+     * @param args optional number of bubbles to build each way.
+     */
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : BUBBLES;
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        CountDownLatch finished = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                DialogBubbles bubbles = DialogBubbles.load();
+                Image face = new Image(DialogBenchmark.class.getResourceAsStream("/images/user_image.png"));
+                Factory fxml = (text, isReply) -> fromFxml(text, isReply, face);
+                Factory programmatic = (text, isReply) -> isReply ? bubbles.reply(text) : bubbles.user(text);
+                run(fxml, WARMUP);
+                run(programmatic, WARMUP);
+                double fxmlMicros = run(fxml, count);
+                double programmaticMicros = run(programmatic, count);
+                System.out.printf("FXML per bubble:         %8.1f us%n", fxmlMicros);
+                System.out.printf("Programmatic per bubble: %8.1f us%n", programmaticMicros);
+                System.out.printf("Speed-up:                %8.1fx%n", fxmlMicros / programmaticMicros);
+            } catch (IOException e) {
+                System.out.println("Error loading dialog box: " + e.getMessage());
+            } finally {
+                finished.countDown();
+            }
+        });
+        finished.await();
+        Platform.exit();
+    }
+
+    private static double run(Factory factory, int count) throws IOException {
+        VBox container = new VBox();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (container.getChildren().size() == KEPT) {
+                container.getChildren().clear();
+            }
+            container.getChildren().add(factory.make("message " + i, (i & 1) == 1));
+        }
+        return (System.nanoTime() - start) / 1_000.0 / count;
+    }
+
+    /**
+     * Builds a bubble the way DialogBox used to: parsing the FXML for every bubble and flipping replies.
+     */
+    private static Node fromFxml(String text, boolean isReply, Image face) throws IOException {
+        HBox box = new HBox();
+        FXMLLoader fxmlLoader = new FXMLLoader(DialogBenchmark.class.getResource("/view/DialogBox.fxml"));
+        fxmlLoader.setRoot(box);
+        fxmlLoader.load();
+        Label dialog = (Label) fxmlLoader.getNamespace().get("dialog");
+        ImageView picture = (ImageView) fxmlLoader.getNamespace().get("displayPicture");
+        dialog.setText(text);
+        picture.setImage(face);
+        if (isReply) {
+            ObservableList<Node> tmp = FXCollections.observableArrayList(box.getChildren());
+            Collections.reverse(tmp);
+            box.getChildren().setAll(tmp);
+            box.setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add("reply-label");
+        }
+        return box;
+    }
+}
@@ -1,61 +1,70 @@
 package gui;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * The box is built in code rather than loaded from FXML, and a reply is laid out left-aligned from the start
+ * instead of being built right-aligned and flipped, so a new box costs only its few nodes.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.getMessage();
-        }
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final Insets BOX_PADDING = new Insets(15, 5, 15, 5);
+    private static final Insets LABEL_PADDING = new Insets(6);
+    private static final Insets LABEL_MARGIN = new Insets(0, 7, 0, 7);
+    /** Width and height the speakers' pictures are shown at. */
+    static final double PICTURE_SIZE = 99;
+    private static final double PREF_WIDTH = 400;
+
+    private final Label dialog;
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+    private DialogBox(String text, Image img, boolean isReply) {
+        dialog = new Label(text);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setWrapText(true);
+        dialog.setPadding(LABEL_PADDING);
+        HBox.setMargin(dialog, LABEL_MARGIN);
+
+        ImageView displayPicture = new ImageView(img);
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
+
+        setPadding(BOX_PADDING);
+        setPrefWidth(PREF_WIDTH);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        getStylesheets().add(STYLESHEET);
+        if (isReply) {
+            setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add("reply-label");
+            getChildren().addAll(displayPicture, dialog);
+        } else {
+            setAlignment(Pos.TOP_RIGHT);
+            getChildren().addAll(dialog, displayPicture);
+        }
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the right and text on the left.
+     * Shows the box as an error, with the label highlighted.
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("reply-label");
+    void markError() {
+        dialog.getStyleClass().add("error-label");
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        return new DialogBox(text, img, false);
     }
 
     public static DialogBox getChatterboxDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
+        return new DialogBox(text, img, true);
     }
 }
@@ -0,0 +1,89 @@
+package gui;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javafx.scene.image.Image;
+
+/**
+ * Makes the dialog boxes of the chat, sharing one decoded Image per speaker between every box.
+ * The pictures are decoded straight to the size they are shown at, rather than at full size and scaled down
+ * on every frame.
+ */
+public class DialogBubbles {
+    private static final String USER_IMAGE = "/images/user_image.png";
+    private static final String CHATTER_IMAGE = "/images/Chatterbox_image.jpg";
+
+    private final Image userImage;
+    private final Image chatterImage;
+
+    /**
+     * Creates a factory using the given pictures.
+     *
+     * @param userImage picture shown next to the user's messages.
+     * @param chatterImage picture shown next to Chatterbox's replies.
+     */
+    public DialogBubbles(Image userImage, Image chatterImage) {
+        this.userImage = userImage;
+        this.chatterImage = chatterImage;
+    }
+
+    /**
+     * Creates a factory using the pictures bundled with the application, decoding each once.
+     *
+     * @return the factory.
+     */
+    public static DialogBubbles load() {
+        return new DialogBubbles(image(USER_IMAGE), image(CHATTER_IMAGE));
+    }
+
+    /**
+     * Creates a factory using the pictures bundled with the application, decoding them in parallel.
+     *
+     * @param executor runs the decoding, each picture as a separate task.
+     * @return future completed with the factory once both pictures are decoded.
+     */
+    public static CompletableFuture<DialogBubbles> loadAsync(Executor executor) {
+        CompletableFuture<Image> user = CompletableFuture.supplyAsync(() -> image(USER_IMAGE), executor);
+        CompletableFuture<Image> chatter = CompletableFuture.supplyAsync(() -> image(CHATTER_IMAGE), executor);
+        return user.thenCombine(chatter, DialogBubbles::new);
+    }
+
+    private static Image image(String path) {
+        return new Image(Objects.requireNonNull(DialogBubbles.class.getResourceAsStream(path)),
+                DialogBox.PICTURE_SIZE, DialogBox.PICTURE_SIZE, true, true);
+    }
+
+    /**
+     * Makes a right-aligned box for a message from the user.
+     *
+     * @param text the message.
+     * @return the dialog box.
+     */
+    public DialogBox user(String text) {
+        return DialogBox.getUserDialog(text, userImage);
+    }
+
+    /**
+     * Makes a left-aligned box for a reply from Chatterbox.
+     *
+     * @param text the reply.
+     * @return the dialog box.
+     */
+    public DialogBox reply(String text) {
+        return DialogBox.getChatterboxDialog(text, chatterImage);
+    }
+
+    /**
+     * Makes a left-aligned box for a reply reporting an error.
+     *
+     * @param text the error message.
+     * @return the dialog box.
+     */
+    public DialogBox error(String text) {
+        DialogBox box = reply(text);
+        box.markError();
+        return box;
+    }
+}
@@ -0,0 +1,57 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Collects updates from any thread and hands them to the JavaFX thread in batches.
+ * At most one drain is scheduled at a time, so however many updates arrive while the JavaFX thread is busy
+ * rendering a frame, they are all applied together by a single Platform.runLater.
+ *
+ * @param <T> type of update.
+ */
+final class FrameBatcher<T> {
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private final Consumer<Runnable> scheduler;
+    private final Consumer<List<T>> sink;
+
+    /**
+     * Creates a batcher.
+     *
+     * @param scheduler runs a drain on the JavaFX thread, normally Platform::runLater.
+     * @param sink applies a batch of updates in the order they were added.
+     */
+    FrameBatcher(Consumer<Runnable> scheduler, Consumer<List<T>> sink) {
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    /**
+     * Queues an update, scheduling a drain unless one is already waiting.
+     *
+     * @param update the update.
+     */
+    void add(T update) {
+        queue.add(update);
+        if (isScheduled.compareAndSet(false, true)) {
+            scheduler.accept(this::drain);
+        }
+    }
+
+    private void drain() {
+        // cleared first, so an update added while draining schedules another drain rather than being missed
+        isScheduled.set(false);
+        List<T> batch = new ArrayList<>();
+        T update;
+        while ((update = queue.poll()) != null) {
+            batch.add(update);
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package gui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Set;
+import java.util.List;
 
+import tags.Tag;
+import tasks.ListOptions;
+import tasks.ListView;
+import tasks.QueryResult;
 import tasks.Task;
 import tasks.TaskList;
+import tasks.TaskPage;
+import tasks.TaskRow;
 
 /**
  * Handles the string formatting of chatterbox responses for the gui
+ * Replies that list tasks can also be written straight into any Appendable, one row at a time,
+ * so a long listing can go to a file or socket without being built up as a String first.
  */
 public class GuiResponses {
     private static final String LINE_SEPARATOR = "____________________________________________________________";
@@ -16,6 +25,29 @@ public class GuiResponses {
 
     private static final DateTimeFormatter PRINTDATEFORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, HH:mm");
 
+    /** Pieces of a task row, "1. [T][X] description", appended in order instead of formatted per row. */
+    private static final String ROW_NUMBER_END = ". ";
+    private static final String ROW_DONE = "[X] ";
+    private static final String ROW_UNDONE = "[ ] ";
+
+    private static final String SEARCH_HEADER = "Here are the tasks that align with your search:\n";
+    private static final String SEARCH_EMPTY =
+            "...It seems there are no tasks that match your criteria at this moment. "
+            + "Sometimes, the answers we seek remain hidden.";
+    private static final String SEARCH_PAST_END =
+            "Your search does not reach that far. There is nothing beyond the last match.";
+    private static final String TAGGED_HEADER = "Here are the tasks that have been tagged:\n";
+    private static final String TAGGED_EMPTY =
+            "...It seems there are no tasks that have been tagged at this moment. "
+            + "Sometimes, the answers we seek remain hidden.";
+
+    /**
+     * Writes a reply into an Appendable.
+     */
+    private interface Renderer {
+        void writeTo(Appendable out) throws IOException;
+    }
+
 
     public GuiResponses() {
 
@@ -50,31 +82,114 @@ public class GuiResponses {
      * @return String representation of tasks in list along with additional remarks.
      */
     public String listTaskMsg(TaskList tasks) {
-        ArrayList<Task> userList = tasks.getTasks();
-        StringBuilder toReturn = new StringBuilder(
-                String.format("You have %d Tasks in List: \n", userList.size()));
-        for (int i = 0; i < userList.size(); i++) {
-            toReturn.append(String.format(i + 1 + ". " + "[%s][%s] %s",
-                    userList.get(i).getTaskSymbol(),
-                    userList.get(i).getStatus() ? "X" : " ",
-                    userList.get(i).getDescription()) + "\n");
+        return listTaskMsg(TaskRow.rowsOf(tasks.getTasks()));
+    }
+
+    /**
+     * Returns message string for a list of tasks, along with additional comments.
+     *
+     * @param rows the tasks in list order, as they were when listed.
+     * @return String representation of tasks in list along with additional remarks.
+     */
+    public String listTaskMsg(List<TaskRow> rows) {
+        return render(out -> writeTaskList(rows.size(), rows, out));
+    }
+
+    /**
+     * Writes the list of tasks, along with additional comments, one row at a time.
+     *
+     * @param size number of tasks in the list.
+     * @param rows the tasks in list order, read once.
+     * @param out where the reply is written.
+     * @throws IOException if out cannot be written to.
+     */
+    public void writeTaskList(int size, Iterable<TaskRow> rows, Appendable out) throws IOException {
+        out.append("You have ").append(Integer.toString(size)).append(" Tasks in List: \n");
+        int i = 0;
+        for (TaskRow row : rows) {
+            TaskList.checkCancelled(i);
+            writeTaskRow(out, ++i, row);
         }
-        if (userList.size() == 0) {
-            toReturn.append("Your task list is empty, a rare moment of calmness.");
+        if (size == 0) {
+            out.append("Your task list is empty, a rare moment of calmness.");
         }
-        if (userList.size() > 0 && userList.size() < 5) {
-            toReturn.append("You have fewer than 5 tasks. It seems the load is manageable for now."
+        if (size > 0 && size < 5) {
+            out.append("You have fewer than 5 tasks. It seems the load is manageable for now."
                     + "\nKeep going!");
         }
-        if (userList.size() > 5 && userList.size() <= 10) {
-            toReturn.append("You have between 5 and 10 tasks. "
+        if (size > 5 && size <= 10) {
+            out.append("You have between 5 and 10 tasks. "
                     + "Though the workload is noticeable, it remains within a manageable range. "
                     + "The path ahead is clearer, but the journey still requires your attention.");
         }
-        if (userList.size() > 10) {
-            toReturn.append("The list has grown beyond 10 tasks... sometimes it feels like the journey is endless.");
+        if (size > 10) {
+            out.append("The list has grown beyond 10 tasks... sometimes it feels like the journey is endless.");
         }
-        return toReturn.toString();
+    }
+
+    /**
+     * Returns message string for a filtered, sorted or paged list of tasks.
+     *
+     * @param view the tasks picked out by the list options.
+     * @return String representation of the page, each task numbered by its place in the full list.
+     */
+    public String listViewMsg(ListView view) {
+        return render(out -> writeListView(view, out));
+    }
+
+    /**
+     * Writes a filtered, sorted or paged list of tasks one row at a time.
+     *
+     * @param view the tasks picked out by the list options.
+     * @param out where the reply is written.
+     * @throws IOException if out cannot be written to.
+     */
+    public void writeListView(ListView view, Appendable out) throws IOException {
+        List<TaskRow> page = view.getRows();
+        if (view.getMatching() == 0) {
+            out.append("No tasks fit what you asked for. Perhaps the list is lighter than it seems.");
+            return;
+        }
+        if (page.isEmpty()) {
+            out.append("Only ").append(Integer.toString(view.getMatching()))
+                    .append(" tasks fit what you asked for, so there is nothing that far along.");
+            return;
+        }
+        out.append("Showing ").append(Integer.toString(view.getOffset() + 1))
+                .append(" to ").append(Integer.toString(view.getOffset() + page.size()))
+                .append(" of the ").append(Integer.toString(view.getMatching())).append(" matching tasks:\n");
+        for (int i = 0; i < page.size(); i++) {
+            TaskList.checkCancelled(i);
+            writeTaskRow(out, view.getPosition(i) + 1, page.get(i));
+        }
+    }
+
+    /**
+     * Writes one task as "number. [symbol][status] description" followed by a new line.
+     *
+     * @param out where the row is written.
+     * @param number one-based number shown before the task, or 0 to leave it out.
+     * @param row the task as it was captured.
+     * @throws IOException if out cannot be written to.
+     */
+    private static void writeTaskRow(Appendable out, int number, TaskRow row) throws IOException {
+        if (number > 0) {
+            out.append(Integer.toString(number)).append(ROW_NUMBER_END);
+        }
+        out.append('[').append(row.getTaskSymbol()).append(']')
+                .append(row.isDone() ? ROW_DONE : ROW_UNDONE)
+                .append(row.getText()).append('\n');
+    }
+
+    private static String render(Renderer renderer) {
+        StringBuilder out = new StringBuilder();
+        try {
+            renderer.writeTo(out);
+        } catch (IOException e) {
+            // A StringBuilder never fails to append.
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
     /**
@@ -99,6 +214,28 @@ public class GuiResponses {
                 + "though the journey may still feel long...";
     }
 
+    /**
+     * Gets message response indicating several tasks have been marked.
+     *
+     * @param count number of tasks marked.
+     * @return msg A message confirming tasks marked.
+     */
+    public String markManyMsg(int count) {
+        return String.format("You've completed %d tasks at once.", count) + "\n"
+                + "A great many steps taken together, yet the road still stretches on...";
+    }
+
+    /**
+     * Gets message response indicating several tasks have been unmarked.
+     *
+     * @param count number of tasks unmarked.
+     * @return msg A message confirming tasks unmarked.
+     */
+    public String unmarkManyMsg(int count) {
+        return String.format("%d tasks have been marked as undone.", count)
+                + " It seems the ground we thought we had covered must be walked again.";
+    }
+
     /**
      * Gets message response indicating a task has been unmarked.
      *
@@ -146,46 +283,138 @@ public class GuiResponses {
     }
 
     /**
-     * Gets String representation of tasks matching search criteria.
+     * Returns message for deleting several tasks at once.
+     *
+     * @param count number of tasks deleted.
+     * @param size Size of the TaskList object after the tasks were removed.
+     * @return Deleted tasks message.
+     */
+    public String delManyMsg(int count, int size) {
+        return String.format("%d tasks have been removed.", count) + "\n"
+                + String.format("You now have %d tasks remaining. "
+                + "Letting go of so much at once can feel strangely light.", size);
+    }
+
+    /**
+     * Gets String representation of a page of tasks matching search criteria.
      *
-     * @param matches Tasklist of searches that match criteria.
+     * @param matches the page of tasks that match criteria, as they were when found.
      * @return String representation of matching search.
      */
-    public String getSearchList(ArrayList<Task> matches) {
-        StringBuilder toReturn = new StringBuilder("Here are the tasks that align with your search:\n");
-        if (matches.isEmpty()) {
-            toReturn.append("...It seems there are no tasks that match your criteria at this moment. "
-                    + "Sometimes, the answers we seek remain hidden.");
+    public String getSearchList(TaskPage matches) {
+        return render(out -> writeSearchList(matches, out));
+    }
+
+    /**
+     * Writes a page of tasks matching search criteria one row at a time, numbered by their place in the matches.
+     *
+     * @param matches the page of tasks that match the criteria.
+     * @param out where the reply is written.
+     * @throws IOException if out cannot be written to.
+     */
+    public void writeSearchList(TaskPage matches, Appendable out) throws IOException {
+        out.append(SEARCH_HEADER);
+        List<TaskRow> rows = matches.getRows();
+        for (int i = 0; i < rows.size(); i++) {
+            TaskList.checkCancelled(i);
+            writeTaskRow(out, matches.getOffset() + i + 1, rows.get(i));
         }
-        for (int i = 0; i < matches.size(); i++) {
-            toReturn.append(String.format(i + 1 + ". " + "[%s][%s] %s",
-                    matches.get(i).getTaskSymbol(),
-                    matches.get(i).getStatus() ? "X" : " ",
-                    matches.get(i).getDescription()) + "\n");
+        if (rows.isEmpty()) {
+            out.append(matches.getOffset() == 0 ? SEARCH_EMPTY : SEARCH_PAST_END);
         }
-        return toReturn.toString();
+        writeMoreMatches(matches, out);
+    }
+
+    /**
+     * Writes how to see the next page, if the page is not the last.
+     */
+    private static void writeMoreMatches(TaskPage page, Appendable out) throws IOException {
+        if (page.hasMore()) {
+            int next = (page.getOffset() + page.getRows().size()) / ListOptions.PAGE_SIZE + 1;
+            out.append("There are more matches, add /page ").append(Integer.toString(next))
+                    .append(" to see them.\n");
+        }
+    }
 
+    /**
+     * Gets String representation of the page of tasks found by a query.
+     *
+     * @param result the result of the query.
+     * @return String representation of the tasks found.
+     */
+    public String getQueryResult(QueryResult result) {
+        return render(out -> writeQueryResult(result, out));
     }
 
     /**
-     * Gets String representation of tagged tasks.
+     * Writes the page of tasks found by a query one row at a time, numbered by their place in the results.
      *
-     * @param tasks Set of tasks that are tagged.
+     * @param result the result of the query.
+     * @param out where the reply is written.
+     * @throws IOException if out cannot be written to.
+     */
+    public void writeQueryResult(QueryResult result, Appendable out) throws IOException {
+        List<TaskRow> page = result.getRows();
+        if (page.isEmpty()) {
+            out.append(result.getOffset() == 0
+                    ? "No tasks fit your query. Perhaps the list is lighter than it seems."
+                    : "Your query does not reach that far. There is nothing beyond the last result.");
+            return;
+        }
+        out.append("Showing results ").append(Integer.toString(result.getOffset() + 1))
+                .append(" to ").append(Integer.toString(result.getOffset() + page.size()))
+                .append(result.hasMore() ? ", with more beyond:\n" : ":\n");
+        for (int i = 0; i < page.size(); i++) {
+            TaskList.checkCancelled(i);
+            writeTaskRow(out, result.getOffset() + i + 1, page.get(i));
+        }
+    }
+
+    /**
+     * Gets String representation of how a query was run, followed by its results.
+     *
+     * @param result the result of the query.
+     * @return String representation of the plan and the tasks found.
+     */
+    public String explainQuery(QueryResult result) {
+        return render(out -> {
+            out.append("Plan: ").append(result.getPlan()).append(", then every condition is checked.\n");
+            if (!result.getAlternatives().isEmpty()) {
+                out.append("Also considered: ").append(String.join("; ", result.getAlternatives())).append('\n');
+            }
+            out.append("Examined ").append(Integer.toString(result.getExamined())).append(" tasks.\n");
+            writeQueryResult(result, out);
+        });
+    }
+
+    /**
+     * Gets String representation of a page of tagged tasks.
+     *
+     * @param tasks the page of tasks that are tagged, as they were when found.
      * @return String representation of tagged tasks.
      */
-    public String getTaggedTasks(Set<Task> tasks) {
-        StringBuilder toReturn = new StringBuilder("Here are the tasks that have been tagged:\n");
-        if (tasks.isEmpty()) {
-            toReturn.append("...It seems there are no tasks that have been tagged at this moment. "
-                    + "Sometimes, the answers we seek remain hidden.");
+    public String getTaggedTasks(TaskPage tasks) {
+        return render(out -> writeTaggedTasks(tasks, out));
+    }
+
+    /**
+     * Writes a page of tagged tasks one row at a time.
+     *
+     * @param tasks the page of tasks that are tagged.
+     * @param out where the reply is written.
+     * @throws IOException if out cannot be written to.
+     */
+    public void writeTaggedTasks(TaskPage tasks, Appendable out) throws IOException {
+        out.append(TAGGED_HEADER);
+        List<TaskRow> rows = tasks.getRows();
+        for (int i = 0; i < rows.size(); i++) {
+            TaskList.checkCancelled(i);
+            writeTaskRow(out, 0, rows.get(i));
         }
-        for (Task task : tasks) {
-            toReturn.append(String.format("[%s][%s] %s",
-                    task.getTaskSymbol(),
-                    task.getStatus() ? "X" : " ",
-                    task.getDescription()) + "\n");
+        if (rows.isEmpty()) {
+            out.append(tasks.getOffset() == 0 ? TAGGED_EMPTY : SEARCH_PAST_END);
         }
-        return toReturn.toString();
+        writeMoreMatches(tasks, out);
     }
 
     /**
@@ -215,6 +444,19 @@ public class GuiResponses {
                 + "%s", tagName.toLowerCase(), task.descNoTags());
     }
 
+    /**
+     * Gets message response indicating several tasks have been tagged.
+     *
+     * @param tagged number of tasks that newly received the tag.
+     * @param count number of tasks the tag was applied to.
+     * @param tagName name of tag.
+     * @return String representation of tagged tasks.
+     */
+    public String tagManyMsg(int tagged, int count, String tagName) {
+        return String.format("%d of the %d tasks have been tagged with '%s'.", tagged, count, tagName.toLowerCase())
+                + (tagged < count ? "\nThe rest already bore it, as some things are simply meant to be." : "");
+    }
+
     /**
      * Gets String representation of already tagged task message.
      *
@@ -232,22 +474,101 @@ public class GuiResponses {
     /**
      * Gets String representation of all tags message.
      *
-     * @param tagKeys Set of strings of tags.
-     * @return String representation of all tags.
+     * @param tags every tag, in the order to list them.
+     * @return String representation of all tags with the number of tasks under each.
      */
-    public String displayAllTags(Set<String> tagKeys) {
-        if (tagKeys.isEmpty()) {
+    public String displayAllTags(List<Tag> tags) {
+        if (tags.isEmpty()) {
             return "It appears there are no tags at the moment. Sometimes, our organization tools can feel sparse.";
 
         }
         StringBuilder tagsString = new StringBuilder(
-                String.format("You currently have %d Tags: \n", tagKeys.size()));
-        for (String tag : tagKeys) {
-            tagsString.append(tag).append("\n");
+                String.format("You currently have %d Tags: \n", tags.size()));
+        appendTagCounts(tags, tagsString);
+        return tagsString.toString();
+    }
+
+    /**
+     * Gets String representation of the tags starting with a prefix.
+     *
+     * @param prefix the start of the tag names.
+     * @param tags the matching tags, in the order to list them.
+     * @param taskCount number of distinct tasks under the matching tags.
+     * @return String representation of the matching tags with the number of tasks under each.
+     */
+    public String tagsWithPrefixMsg(String prefix, List<Tag> tags, int taskCount) {
+        if (tags.isEmpty()) {
+            return String.format("No tag begins with \"%s\". Perhaps it is a beginning yet to be written.", prefix);
         }
+        StringBuilder tagsString = new StringBuilder(String.format(
+                "%d Tags begin with \"%s\", holding %d tasks between them: \n", tags.size(), prefix, taskCount));
+        appendTagCounts(tags, tagsString);
         return tagsString.toString();
     }
 
+    private static void appendTagCounts(List<Tag> tags, StringBuilder out) {
+        for (Tag tag : tags) {
+            out.append(tag.getTagName()).append(" (").append(tag.size()).append(")\n");
+        }
+    }
+
+    /**
+     * Gets message response indicating tags have been moved.
+     *
+     * @param from name of the tag at the top of the moved tags.
+     * @param to name they were moved to.
+     * @param moved number of tags moved.
+     * @return String message listing the move.
+     */
+    public String moveTagsMsg(String from, String to, int moved) {
+        if (moved == 0) {
+            return String.format("'%s' is already where it is. Some journeys end where they began.", from);
+        }
+        return String.format("'%s' now lives at '%s', along with everything beneath it: %d %s moved.\n"
+                + "The tasks remain as they were, only the names around them have changed.",
+                from, to, moved, moved == 1 ? "tag" : "tags");
+    }
+
+    /**
+     * Gets message response indicating a tag has been renamed.
+     *
+     * @param tagName name the tag had.
+     * @param newName name the tag has now.
+     * @return String message confirming the rename.
+     */
+    public String renameTagMsg(String tagName, String newName) {
+        if (tagName.equals(newName)) {
+            return String.format("'%s' already goes by that name. A rose by any other name, after all.", tagName);
+        }
+        return String.format("The tag '%s' shall henceforth be known as '%s'. "
+                + "Every task that bore it now bears the new name.", tagName, newName);
+    }
+
+    /**
+     * Gets message response indicating a tag has been merged into another.
+     *
+     * @param tagName name of the tag that was merged and removed.
+     * @param intoName name of the tag it was merged into.
+     * @param moved number of tasks newly under intoName.
+     * @param total number of tasks under intoName after the merge.
+     * @return String message confirming the merge.
+     */
+    public String mergeTagsMsg(String tagName, String intoName, int moved, int total) {
+        return String.format("'%s' has been folded into '%s', which now holds %d tasks, %d of them newly.\n"
+                + "Two paths, it seems, were always leading to the same place.", tagName, intoName, total, moved);
+    }
+
+    /**
+     * Gets message response indicating a move would give a tag a name already taken.
+     *
+     * @param tagName the name already in use.
+     * @return String message explaining the conflict.
+     */
+    public String tagMoveConflictMsg(String tagName) {
+        return String.format("The tag '%s' already exists, and two tags cannot share a name. "
+                + "Perhaps choose a different destination.", tagName);
+    }
+
     /**
      * Gets String representation of tag not found.
      *
@@ -278,6 +599,46 @@ public class GuiResponses {
                 + "Sometimes, the path to clarity is not as straightforward as we would like, don't you think?";
     }
 
+    /**
+     * Gets String representation of the replies to several commands sent together.
+     *
+     * @param inputs the commands in the order they were run.
+     * @param results the reply to each command.
+     * @return String representation of every reply, numbered by command.
+     */
+    public String transactionMsg(List<String> inputs, List<String> results) {
+        StringBuilder toReturn = new StringBuilder(
+                String.format("All %d commands have been carried out together.\n", inputs.size()));
+        for (int i = 0; i < results.size(); i++) {
+            toReturn.append(i + 1).append(". ").append(inputs.get(i)).append("\n")
+                    .append(results.get(i)).append("\n");
+        }
+        return toReturn.toString();
+    }
+
+    /**
+     * Gets String representation of a group of commands abandoned because one of them failed.
+     *
+     * @param position one-based position of the failing command.
+     * @param input the failing command.
+     * @param errorMessage why it failed.
+     * @param count number of commands sent together.
+     * @return String representation of the failure.
+     */
+    public String transactionFailedMsg(int position, String input, String errorMessage, int count) {
+        return getErrorMessage(String.format("Command %d of %d, '%s', could not be carried out: %s\n"
+                + "None of the %d commands have been applied.", position, count, input, errorMessage, count));
+    }
+
+    /**
+     * Gets String representation of a command cancelled before it finished.
+     *
+     * @return String representation of cancelled command.
+     */
+    public String getCancelledMessage() {
+        return "Very well, I have set that search aside. Not every question needs an answer right away.";
+    }
+
     /**
      * Gets String representation of error message by the chatbot.
      *
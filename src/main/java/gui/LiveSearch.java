@@ -0,0 +1,212 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import chatterbox.ChatterboxGui;
+import command.Command;
+import command.FindCommand;
+import command.FindTagCommand;
+import command.RemoveTagCommand;
+import command.TagCommand;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import parser.Parser;
+import tags.Tag;
+import tags.TagList;
+import tasks.IncrementalSearch;
+import tasks.TaskList;
+
+/**
+ * Shows the results of a find or findtag while it is still being typed, and the tags matching a tag name being
+ * typed after findtag or /t, which complete as far as they agree.
+ * Each keystroke restarts a short pause, and the lookup only starts once typing stops for that long. Lookups
+ * run one at a time on their own thread under the read lock, a newer query cancels the one still running, and
+ * an IncrementalSearch narrows the last matches while the query only grows. Only the first matches are shown,
+ * in a list view that only draws the rows on screen.
+ */
+public class LiveSearch {
+    /** How long typing has to pause before a lookup starts. */
+    private static final Duration DEBOUNCE = Duration.millis(60);
+
+    /** Most results shown, the rest are only counted. */
+    private static final int SHOWN = 50;
+
+    private final TextField input;
+    private final ListView<String> results;
+    private final Parser parser = new Parser();
+    private final IncrementalSearch search = new IncrementalSearch();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chatterbox-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ChatterboxGui chatter;
+
+    /** Lookup started last, only its results are shown. Only touched on the JavaFX thread. */
+    private Task<Found> running;
+
+    /** Input the shown tags were found for, where the tag name in it starts, and how far it completes. */
+    private String completedText;
+    private int completionStart;
+    private String completion;
+
+    /**
+     * Lines to show for a lookup, and for tags the longest start the tags found share.
+     */
+    private static final class Found {
+        final List<String> lines;
+        final String completion;
+
+        Found(List<String> lines, String completion) {
+            this.lines = lines;
+            this.completion = completion;
+        }
+    }
+
+    /**
+     * Follows what is typed into input, showing results in a list view.
+     *
+     * @param input the command field.
+     * @param results list view the results are shown in, hidden while there are none.
+     */
+    public LiveSearch(TextField input, ListView<String> results) {
+        this.input = input;
+        this.results = results;
+        results.setVisible(false);
+        results.setFocusTraversable(false);
+        input.textProperty().addListener((observable, old, text) -> debounce.playFromStart());
+        debounce.setOnFinished(event -> lookUp(input.getText()));
+    }
+
+    /**
+     * Starts following the tasks of a Chatterbox, nothing is shown before it is set.
+     *
+     * @param chatter the Chatterbox to search.
+     */
+    public void setChatterbox(ChatterboxGui chatter) {
+        this.chatter = chatter;
+    }
+
+    /**
+     * Hides the results and cancels any lookup in progress, such as when the command is sent.
+     */
+    public void hide() {
+        debounce.stop();
+        cancelRunning();
+        results.setVisible(false);
+    }
+
+    private void cancelRunning() {
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    /**
+     * Completes the tag name being typed as far as every matching tag agrees, such as when Tab is pressed.
+     *
+     * @return true if the input was completed.
+     */
+    public boolean complete() {
+        if (!results.isVisible() || completion == null || !input.getText().equals(completedText)) {
+            return false;
+        }
+        String text = completedText.substring(0, completionStart) + completion;
+        if (text.equals(completedText)) {
+            return false;
+        }
+        input.setText(text);
+        input.positionCaret(text.length());
+        return true;
+    }
+
+    /**
+     * Finds where a tag name being typed starts: the argument of findtag, or of /t in a tag or removetag.
+     *
+     * @return index of the partial tag name, or -1 if the input does not end in one.
+     */
+    private static int tagNameStart(String text, Command command) {
+        int start = text.lastIndexOf(' ') + 1;
+        if (start == 0) {
+            return -1;
+        }
+        String before = text.substring(0, start).trim();
+        if (command instanceof FindTagCommand) {
+            return before.equalsIgnoreCase("findtag") ? start : -1;
+        }
+        if (command instanceof TagCommand || command instanceof RemoveTagCommand) {
+            return before.endsWith(" /t") ? start : -1;
+        }
+        return -1;
+    }
+
+    private void lookUp(String text) {
+        String trimmed = text.trim();
+        Command command = chatter == null || trimmed.isEmpty() ? null : parser.parseCommandType(trimmed);
+        int tagStart = tagNameStart(text, command);
+        String query = tagStart >= 0
+                ? text.substring(tagStart).toLowerCase()
+                : command instanceof FindCommand ? parser.parseFind(trimmed).trim() : "";
+        if (tagStart < 0 && query.isEmpty()) {
+            hide();
+            return;
+        }
+
+        cancelRunning();
+        Task<Found> lookup = new Task<>() {
+            @Override
+            protected Found call() {
+                return chatter.read((taskList, tagList) -> tagStart >= 0
+                        ? describeTags(tagList, query)
+                        : describeTasks(taskList, tagList, query));
+            }
+        };
+        lookup.setOnSucceeded(event -> {
+            if (lookup == running && input.getText().equals(text)) {
+                results.getItems().setAll(lookup.getValue().lines);
+                results.setVisible(true);
+                completedText = text;
+                completionStart = tagStart;
+                completion = lookup.getValue().completion;
+            }
+        });
+        running = lookup;
+        searcher.execute(lookup);
+    }
+
+    /**
+     * Renders the matching tasks with their numbers in the list. Runs on the search thread under the read lock.
+     */
+    private Found describeTasks(TaskList taskList, TagList tagList, String keywords) {
+        tasks.ListView found = search.find(taskList, tagList, keywords, SHOWN);
+        List<String> lines = new ArrayList<>(found.getTasks().size() + 1);
+        lines.add(found.getMatching() + " matching task" + (found.getMatching() == 1 ? "" : "s"));
+        for (int i = 0; i < found.getTasks().size(); i++) {
+            lines.add((found.getPosition(i) + 1) + ". " + found.getTasks().get(i));
+        }
+        return new Found(lines, null);
+    }
+
+    /**
+     * Renders the tags starting with the prefix and their sizes. Runs on the search thread under the read lock.
+     */
+    private Found describeTags(TagList tags, String prefix) {
+        List<Tag> found = search.findTags(tags, prefix);
+        List<String> lines = new ArrayList<>(Math.min(found.size(), SHOWN) + 1);
+        lines.add(found.size() + " matching tag" + (found.size() == 1 ? "" : "s"));
+        for (int i = 0; i < found.size() && i < SHOWN; i++) {
+            Tag tag = found.get(i);
+            lines.add(tag.getTagName() + " (" + tag.size() + ")");
+        }
+        return new Found(lines, tags.completeTagName(prefix));
+    }
+}
@@ -2,9 +2,15 @@ package gui;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
 
 import chatterbox.ChatterboxGui;
+import chatterbox.ChatterboxMetrics;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -12,13 +18,23 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
 /**
- * Main application for javaFx
+ * Main application for javaFx.
+ * The window is shown first, while the history is loaded and the pictures are decoded on other threads.
+ * Commands are enabled once both are ready, and each phase of the start is timed.
  */
 public class Main extends Application {
+    /** Set to true to quit as soon as startup is done, as the training run for an AppCDS archive does. */
+    private static final String EXIT_AFTER_STARTUP = "chatterbox.exitAfterStartup";
+
+    private final StartupTimer timer = new StartupTimer();
 
-    private ChatterboxGui chatterbox = new ChatterboxGui();
     @Override
     public void start(Stage stage) {
+        timer.mark("toolkit started");
+        CompletableFuture<ChatterboxGui> chatterbox = CompletableFuture.supplyAsync(this::loadChatterbox);
+        CompletableFuture<DialogBubbles> bubbles = DialogBubbles.loadAsync(ForkJoinPool.commonPool())
+                .whenComplete((loaded, e) -> timer.mark("pictures decoded"));
+        MainWindow window;
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
@@ -27,13 +43,37 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setMinHeight(420);
-            stage.setMinWidth(417);
-            stage.setTitle(chatterbox.getName());
+            stage.setMinWidth(817);
+            stage.setTitle("Chatterbox");
             stage.getIcons().add(icon);
-            fxmlLoader.<MainWindow>getController().setChatterbox(chatterbox); // inject the Duke instance
+            window = fxmlLoader.getController();
             stage.show();
         } catch (IOException e) {
-            e.getMessage();
+            System.out.println("Error loading main window: " + e.getMessage());
+            return;
+        }
+        timer.mark("window shown");
+
+        chatterbox.thenAcceptBoth(bubbles, (loaded, pictures) -> Platform.runLater(() -> {
+            window.setChatterbox(loaded, pictures); // inject the Duke instance
+            timer.mark("ready for commands");
+            if (Boolean.getBoolean(EXIT_AFTER_STARTUP)) {
+                Platform.exit();
+            }
+        })).exceptionally(e -> {
+            System.out.println("Error starting Chatterbox: " + e.getMessage());
+            return null;
+        });
+    }
+
+    private ChatterboxGui loadChatterbox() {
+        ChatterboxGui chatterbox = new ChatterboxGui().start();
+        timer.mark("history loaded");
+        try {
+            ChatterboxMetrics.register(chatterbox);
+        } catch (JMException e) {
+            System.out.println("Error registering metrics: " + e.getMessage());
         }
+        return chatterbox;
     }
 }
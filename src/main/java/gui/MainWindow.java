@@ -1,25 +1,47 @@
 package gui;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import chatterbox.ChatterboxGui;
+import command.Response;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
 import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
+import javafx.scene.control.TextFormatter;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import tasks.TaskSummary;
 
 
 
 /**
  * Controller for the main GUI.
+ * Commands run one at a time on a background thread so the window stays responsive, and each reply is placed
+ * right after the input that produced it.
  */
 public class MainWindow extends AnchorPane {
+    /** How long a command may run before the progress indicator is shown. */
+    private static final Duration PROGRESS_DELAY = Duration.millis(150);
+
+    /** How often the overview is refreshed while idle, so deadlines show as overdue once they pass. */
+    private static final Duration STATS_REFRESH = Duration.minutes(1);
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -28,11 +50,34 @@ public class MainWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator progressIndicator;
+    @FXML
+    private StatsPanel statsPanel;
+    @FXML
+    private TaskPanel taskPanel;
+    @FXML
+    private ListView<String> liveResults;
 
     private ChatterboxGui chatter;
 
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user_image.png"));
-    private Image chatterImage = new Image(this.getClass().getResourceAsStream("/images/Chatterbox_image.jpg"));
+    /** Single thread, so commands are applied and answered in the order they were sent. */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chatterbox-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Commands sent but not yet answered, only touched on the JavaFX thread. */
+    private final List<CommandTask> pendingCommands = new ArrayList<>();
+    private final PauseTransition progressDelay = new PauseTransition(PROGRESS_DELAY);
+    private final Timeline statsRefresh = new Timeline(new KeyFrame(STATS_REFRESH, event -> refreshStats()));
+
+    private DialogBubbles bubbles;
+    private LiveSearch liveSearch;
+
+    /** Inputs sent before the history finished loading, run in order once it has. */
+    private final List<String> earlyInputs = new ArrayList<>();
 
 
     /**
@@ -41,43 +86,118 @@ public class MainWindow extends AnchorPane {
     @FXML
     public void initialize() {
         scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        userInput.setPromptText("Loading your tasks...");
+        liveSearch = new LiveSearch(userInput, liveResults);
+        progressIndicator.setVisible(true);
+        progressDelay.setOnFinished(event -> progressIndicator.setVisible(!pendingCommands.isEmpty()));
+        progressIndicator.setOnMouseClicked(event -> cancelScans());
+        Tooltip.install(progressIndicator, new Tooltip("Working... click or press Esc to cancel a search"));
+        // a TextField drops line breaks, so pasted lines are turned into ; separated commands first
+        userInput.setTextFormatter(new TextFormatter<String>(change -> {
+            String text = change.getText();
+            if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                change.setText(text.replace("\r\n", "\n").replace('\r', '\n').replace("\n", "; "));
+            }
+            return change;
+        }));
+        userInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                liveSearch.hide();
+                cancelScans();
+            }
+        });
+        // a filter, as the text field would otherwise take Tab to move the focus
+        userInput.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.TAB && liveSearch.complete()) {
+                event.consume();
+            }
+        });
     }
 
-    /** Injects the Duke instance */
-    public void setChatterbox(ChatterboxGui c) {
-
+    /**
+     * Injects the Duke instance once its history has loaded, enabling commands.
+     * Any input sent while loading is then run in the order it was typed.
+     *
+     * @param c the loaded Chatterbox.
+     * @param bubbles makes the dialog boxes, with the pictures decoded.
+     */
+    public void setChatterbox(ChatterboxGui c, DialogBubbles bubbles) {
         chatter = c;
+        this.bubbles = bubbles;
+        liveSearch.setChatterbox(c);
+        userInput.setPromptText(null);
+        commandExecutor.execute(() -> taskPanel.attach(c));
+        refreshStats();
+        statsRefresh.setCycleCount(Animation.INDEFINITE);
+        statsRefresh.play();
         if (c.hasTasks()) {
             dialogContainer.getChildren()
-                    .addAll(DialogBox.getChatterboxDialog(c.getGreeting(), chatterImage),
-                            DialogBox.getChatterboxDialog("Ah, it's you again. "
-                                    + "It appears our paths have crossed before. Let's continue where we left off.",
-                                    chatterImage)
+                    .addAll(bubbles.reply(c.getGreeting()),
+                            bubbles.reply("Ah, it's you again. "
+                                    + "It appears our paths have crossed before. Let's continue where we left off.")
                             );
 
         } else {
             dialogContainer.getChildren()
-                    .addAll(DialogBox.getChatterboxDialog(c.getGreeting(), chatterImage));
+                    .addAll(bubbles.reply(c.getGreeting()));
+        }
+        for (String input : earlyInputs) {
+            send(input);
+        }
+        earlyInputs.clear();
+        if (pendingCommands.isEmpty()) {
+            progressIndicator.setVisible(false);
         }
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Sends the user input to Chatterbox, or keeps it until Chatterbox has loaded. Clears the user input
+     * straight away.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        HashMap<String, String> response = chatter.processInput(input);
-
-        if (response.get("response") == (null)) {
-            DialogBox chatterBye = DialogBox.getChatterboxDialog(chatter.getGoodbye(), chatterImage);
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getUserDialog(input, userImage),
-                    chatterBye
-            );
-            userInput.clear();
-            PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds(1));
+        userInput.clear();
+        liveSearch.hide();
+        if (chatter == null) {
+            earlyInputs.add(input);
+            return;
+        }
+        send(input);
+    }
+
+    /**
+     * Echoes the input and runs it on the command thread. The reply dialog is added right after the echoed
+     * input once the command finishes.
+     */
+    private void send(String input) {
+        DialogBox userDialog = bubbles.user(input);
+        dialogContainer.getChildren().add(userDialog);
+
+        CommandTask command = new CommandTask(input, chatter.isReadOnly(input));
+        command.setOnSucceeded(event -> {
+            finish(command);
+            showResponse(userDialog, command.getValue());
+        });
+        command.setOnFailed(event -> {
+            finish(command);
+            showReply(userDialog, chatter.getFailureMessage(command.getException()), true);
+        });
+        command.setOnCancelled(event -> {
+            finish(command);
+            showReply(userDialog, chatter.getCancelledMessage(), true);
+        });
+        pendingCommands.add(command);
+        if (!progressIndicator.isVisible()) {
+            progressDelay.playFromStart();
+        }
+        commandExecutor.execute(command);
+    }
+
+    private void showResponse(DialogBox userDialog, Response response) {
+        if (response.isExit()) {
+            showReply(userDialog, response.getText(), false);
+            PauseTransition pause = new PauseTransition(Duration.seconds(1));
             pause.setOnFinished(event -> {
                 Stage stage = (Stage) dialogContainer.getScene().getWindow();
                 stage.close();
@@ -85,19 +205,72 @@ public class MainWindow extends AnchorPane {
             pause.play();
             return;
         }
+        showReply(userDialog, response.getText(), response.isError());
+    }
+
+    private void showReply(DialogBox userDialog, String text, boolean isError) {
+        DialogBox chatterReply = isError ? bubbles.error(text) : bubbles.reply(text);
+        int position = dialogContainer.getChildren().indexOf(userDialog) + 1;
+        dialogContainer.getChildren().add(position, chatterReply);
+    }
+
+    private void finish(CommandTask command) {
+        refreshStats();
+        pendingCommands.remove(command);
+        if (pendingCommands.isEmpty()) {
+            progressDelay.stop();
+            progressIndicator.setVisible(false);
+        }
+    }
+
+    /**
+     * Reads the running counts on the command thread, behind any command still waiting, and shows them in the
+     * overview. The counts are kept up to date as tasks change, so this never scans the list.
+     */
+    private void refreshStats() {
+        Task<TaskSummary> read = new Task<>() {
+            @Override
+            protected TaskSummary call() {
+                return chatter.getSummary();
+            }
+        };
+        read.setOnSucceeded(event -> statsPanel.show(read.getValue()));
+        commandExecutor.execute(read);
+    }
 
-        DialogBox chatterReply = DialogBox.getChatterboxDialog(response.get("response"), chatterImage);
-        if (response.get("type").equals("ERROR")) {
-            for (Node node : chatterReply.getChildren()) {
-                node.setStyle("-fx-background-color: #FFCCBB");
+    /**
+     * Cancels every read-only command that is running or waiting. Commands that change tasks are left to finish
+     * so that nothing the user asked to change is silently dropped.
+     */
+    private void cancelScans() {
+        for (CommandTask command : new ArrayList<>(pendingCommands)) {
+            if (command.isCancellable) {
+                command.cancel(true);
             }
         }
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                chatterReply
-        );
-        userInput.clear();
     }
 
+    /**
+     * A single user input being processed on the command thread.
+     */
+    private class CommandTask extends Task<Response> {
+        private final String input;
+        private final boolean isCancellable;
+
+        CommandTask(String input, boolean isCancellable) {
+            this.input = input;
+            this.isCancellable = isCancellable;
+        }
 
+        /**
+         * Runs the command and renders its reply here, after the lock is released, from the rows the command
+         * captured. The FX thread then only has to attach the text, and a long rendering can still be cancelled.
+         */
+        @Override
+        protected Response call() {
+            Response response = chatter.processInput(input);
+            response.getText();
+            return response;
+        }
+    }
 }
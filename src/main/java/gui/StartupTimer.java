@@ -0,0 +1,30 @@
+package gui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+
+/**
+ * Logs how long each phase of starting the application took, counted from when the JVM started.
+ * Nothing is logged unless the JVM is started with -Dchatterbox.startupTiming=true.
+ * Phases may finish on different threads.
+ */
+public class StartupTimer {
+    private final boolean isLogged = Boolean.getBoolean("chatterbox.startupTiming");
+    private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    private long lastMark;
+
+    /**
+     * Logs that a phase has finished.
+     *
+     * @param phase name of the phase.
+     * @return milliseconds since the JVM started.
+     */
+    public synchronized long mark(String phase) {
+        long now = runtime.getUptime();
+        if (isLogged) {
+            System.out.println("Startup: " + phase + " at " + now + " ms (+" + (now - lastMark) + " ms)");
+        }
+        lastMark = now;
+        return now;
+    }
+}
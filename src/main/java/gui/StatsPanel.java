@@ -0,0 +1,92 @@
+package gui;
+
+import java.util.Map;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.NumberExpression;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.Separator;
+import javafx.scene.layout.VBox;
+import tasks.TaskSummary;
+
+/**
+ * Side panel showing running counts of the task list.
+ * Each count is a property the labels are bound to, so refreshing the panel only sets a few numbers.
+ */
+public class StatsPanel extends VBox {
+    private final IntegerProperty total = new SimpleIntegerProperty();
+    private final IntegerProperty done = new SimpleIntegerProperty();
+    private final IntegerProperty remaining = new SimpleIntegerProperty();
+    private final IntegerProperty overdue = new SimpleIntegerProperty();
+    private final IntegerProperty completedThisWeek = new SimpleIntegerProperty();
+    private final IntegerProperty todos = new SimpleIntegerProperty();
+    private final IntegerProperty deadlines = new SimpleIntegerProperty();
+    private final IntegerProperty events = new SimpleIntegerProperty();
+    private final StringProperty largestTags = new SimpleStringProperty("");
+
+    /**
+     * Creates the panel with every count at zero.
+     */
+    public StatsPanel() {
+        getStyleClass().add("stats-panel");
+        setSpacing(4);
+        setPadding(new Insets(10));
+        remaining.bind(total.subtract(done));
+
+        Label title = new Label("Overview");
+        title.getStyleClass().add("stats-title");
+        Label overdueLabel = row("Overdue", overdue);
+        overdueLabel.styleProperty().bind(Bindings.when(overdue.greaterThan(0))
+                .then("-fx-text-fill: #c0392b;").otherwise(""));
+        Label tagsTitle = new Label("Tags");
+        tagsTitle.getStyleClass().add("stats-title");
+        Label tagsLabel = new Label();
+        tagsLabel.textProperty().bind(largestTags);
+        tagsLabel.setWrapText(true);
+
+        getChildren().addAll(title,
+                row("Tasks", total),
+                row("Done", done),
+                row("Remaining", remaining),
+                overdueLabel,
+                row("Done this week", completedThisWeek),
+                new Separator(),
+                row("Todos", todos),
+                row("Deadlines", deadlines),
+                row("Events", events),
+                new Separator(),
+                tagsTitle,
+                tagsLabel);
+    }
+
+    private static Label row(String name, NumberExpression value) {
+        Label label = new Label();
+        label.textProperty().bind(Bindings.concat(name, ": ", value.asString()));
+        return label;
+    }
+
+    /**
+     * Shows a new set of counts. Must be called on the JavaFX thread.
+     *
+     * @param summary the counts to show.
+     */
+    public void show(TaskSummary summary) {
+        total.set(summary.getTotal());
+        done.set(summary.getDone());
+        overdue.set(summary.getOverdue());
+        completedThisWeek.set(summary.getCompletedThisWeek());
+        todos.set(summary.getTodos());
+        deadlines.set(summary.getDeadlines());
+        events.set(summary.getEvents());
+        StringBuilder tags = new StringBuilder();
+        for (Map.Entry<String, Integer> tag : summary.getLargestTags().entrySet()) {
+            tags.append(tag.getKey()).append(": ").append(tag.getValue()).append('\n');
+        }
+        largestTags.set(tags.length() == 0 ? "No tags yet" : tags.toString().trim());
+    }
+}
@@ -0,0 +1,89 @@
+package gui;
+
+import java.util.List;
+
+import chatterbox.ChatterboxGui;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import tasks.TaskRow;
+
+/**
+ * Side panel listing every task, kept up to date without the user running list.
+ * The rows are an ObservableList patched one row per change from the task list's change feed, and the list view
+ * only creates cells for the rows on screen and reuses them while scrolling, so a long list costs no more to
+ * show than a short one. Changes from the writer thread reach the JavaFX thread through a FrameBatcher.
+ */
+public class TaskPanel extends VBox {
+    private final ObservableList<TaskRow> rows = FXCollections.observableArrayList();
+    private final FrameBatcher<List<TaskRows.Patch>> updates = new FrameBatcher<>(Platform::runLater, batches -> {
+        for (List<TaskRows.Patch> patches : batches) {
+            TaskRows.apply(rows, patches);
+        }
+    });
+
+    /**
+     * Creates an empty panel.
+     */
+    public TaskPanel() {
+        getStyleClass().add("task-panel");
+        setSpacing(4);
+        setPadding(new Insets(10));
+
+        Label title = new Label("Tasks");
+        title.getStyleClass().add("stats-title");
+        ListView<TaskRow> list = new ListView<>(rows);
+        list.setPlaceholder(new Label("No tasks yet"));
+        list.setCellFactory(view -> new TaskCell());
+        VBox.setVgrow(list, Priority.ALWAYS);
+        getChildren().addAll(title, list);
+    }
+
+    /**
+     * Shows the tasks of a Chatterbox and follows every later change to them.
+     * The tasks are read and the listener added under the read lock, so no change is missed or applied twice.
+     * May be called on any thread, preferably not the JavaFX thread as every task is read once.
+     *
+     * @param chatter the Chatterbox whose tasks are shown.
+     */
+    public void attach(ChatterboxGui chatter) {
+        chatter.read((tasks, tags) -> {
+            List<TaskRow> initial = TaskRow.rowsOf(tasks.snapshot());
+            // runLater keeps its order, so the initial rows are in place before any patch is applied
+            Platform.runLater(() -> rows.setAll(initial));
+            tasks.getChangeFeed().addListener(changes -> {
+                List<TaskRows.Patch> patches = TaskRows.patchesFor(changes, tasks.snapshot());
+                if (!patches.isEmpty()) {
+                    updates.add(patches);
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Cell showing one row with its number in the list. The number follows the cell's index, so rows after a
+     * deleted task are renumbered as the view updates their cells, without touching the rows themselves.
+     */
+    private static class TaskCell extends ListCell<TaskRow> {
+        @Override
+        protected void updateItem(TaskRow row, boolean empty) {
+            super.updateItem(row, empty);
+            getStyleClass().remove("task-row-done");
+            if (empty || row == null) {
+                setText(null);
+                return;
+            }
+            setText((getIndex() + 1) + ". " + row.getText());
+            if (row.isDone()) {
+                getStyleClass().add("task-row-done");
+            }
+        }
+    }
+}
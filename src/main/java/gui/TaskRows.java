@@ -0,0 +1,99 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tasks.ChangeEvent;
+import tasks.Task;
+import tasks.TaskRow;
+
+/**
+ * Keeps a list of rows in step with a TaskList by patching it with the list's changes.
+ * Changes are turned into patches on the writer thread, where the tasks are safe to read, and the patches are
+ * applied to the rows later on the JavaFX thread. Each patch inserts, removes or replaces one row, so an
+ * observable list of rows fires one small change per task rather than being rebuilt.
+ */
+final class TaskRows {
+
+    /**
+     * One row to insert, remove or replace, or every row to replace at once.
+     */
+    static final class Patch {
+        final int position;
+        final TaskRow row;
+        final boolean isInsert;
+        final List<TaskRow> allRows;
+
+        Patch(int position, TaskRow row, boolean isInsert) {
+            this.position = position;
+            this.row = row;
+            this.isInsert = isInsert;
+            this.allRows = null;
+        }
+
+        Patch(List<TaskRow> allRows) {
+            this.position = -1;
+            this.row = null;
+            this.isInsert = false;
+            this.allRows = allRows;
+        }
+    }
+
+    private TaskRows() {
+    }
+
+    /**
+     * Turns a batch of changes into patches. Must be called by a synchronous change listener.
+     * Changes to the tag list itself are left out, as no row shows them, except renamed and merged tags: those
+     * show on every task carrying them, so the whole list is read again into a single patch.
+     *
+     * @param changes the changes in the order they were made.
+     * @param tasks the tasks as they are after the changes.
+     * @return the patches in the same order.
+     */
+    static List<Patch> patchesFor(List<ChangeEvent> changes, List<Task> tasks) {
+        List<Patch> patches = new ArrayList<>(changes.size());
+        for (ChangeEvent change : changes) {
+            switch (change.getKind()) {
+            case TAG_RENAMED:
+            case TAG_MERGED:
+                return List.of(new Patch(TaskRow.rowsOf(tasks)));
+            case ADDED:
+                patches.add(new Patch(change.getPosition(), TaskRow.of(change.getTask()), true));
+                break;
+            case REMOVED:
+                patches.add(new Patch(change.getPosition(), null, false));
+                break;
+            case STATUS_CHANGED:
+            case TAGGED:
+            case UNTAGGED:
+                patches.add(new Patch(change.getPosition(), TaskRow.of(change.getTask()), false));
+                break;
+            default:
+                break;
+            }
+        }
+        return patches;
+    }
+
+    /**
+     * Applies patches to the rows in order.
+     *
+     * @param rows the rows, as they were before the first change.
+     * @param patches the patches to apply.
+     */
+    static void apply(List<TaskRow> rows, List<Patch> patches) {
+        for (Patch patch : patches) {
+            if (patch.allRows != null) {
+                rows.clear();
+                rows.addAll(patch.allRows);
+            } else if (patch.isInsert) {
+                rows.add(patch.position, patch.row);
+            } else if (patch.row == null) {
+                rows.remove(patch.position);
+            } else {
+                rows.set(patch.position, patch.row);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package parser;
+
+import java.util.Arrays;
+
+/**
+ * Splits a command into its description and flag arguments such as /by, /from, /to, /i and /t in one scan.
+ * Arguments are kept as trimmed (start, end) offsets into the input, so nothing is copied until a command
+ * asks for the text of an argument, and numbers are read straight from the input.
+ * Each flag is recognised at its first occurrence only, later occurrences are part of an argument's text.
+ * A tokenizer is reused for every command parsed on a thread, so it must not be kept past the command.
+ */
+public class ArgumentTokenizer {
+
+    /**
+     * Flags that introduce a command argument.
+     */
+    public enum Flag {
+        BY("/by"),
+        FROM("/from"),
+        TO("/to"),
+        INDEX("/i"),
+        TAG("/t"),
+        PAGE("/page");
+
+        private final String token;
+
+        Flag(String token) {
+            this.token = token;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    private static final int FLAG_COUNT = Flag.values().length;
+
+    private String input;
+    private int bodyStart;
+    private int bodyEnd;
+    private final int[] flagAt = new int[FLAG_COUNT];
+    private final int[] valueStart = new int[FLAG_COUNT];
+    private final int[] valueEnd = new int[FLAG_COUNT];
+
+    /**
+     * Scans an input for the given flags.
+     *
+     * @param input the command text.
+     * @param from index where the description starts, just after the command word.
+     * @param flags flags the command accepts.
+     * @return this tokenizer, holding the offsets of the description and arguments.
+     */
+    ArgumentTokenizer tokenize(String input, int from, Flag... flags) {
+        this.input = input;
+        Arrays.fill(flagAt, -1);
+        int length = input.length();
+        from = Math.min(from, length);
+        int found = 0;
+        for (int i = from; i < length && found < flags.length; i++) {
+            if (input.charAt(i) != '/') {
+                continue;
+            }
+            for (Flag flag : flags) {
+                if (flagAt[flag.ordinal()] < 0 && input.startsWith(flag.token, i)) {
+                    flagAt[flag.ordinal()] = i;
+                    found++;
+                    i += flag.token.length() - 1;
+                    break;
+                }
+            }
+        }
+
+        int firstFlag = length;
+        for (Flag flag : flags) {
+            int at = flagAt[flag.ordinal()];
+            if (at < 0) {
+                continue;
+            }
+            firstFlag = Math.min(firstFlag, at);
+            int end = length;
+            for (Flag other : flags) {
+                int otherAt = flagAt[other.ordinal()];
+                if (otherAt > at && otherAt < end) {
+                    end = otherAt;
+                }
+            }
+            valueStart[flag.ordinal()] = trimStart(at + flag.token.length(), end);
+            valueEnd[flag.ordinal()] = trimEnd(valueStart[flag.ordinal()], end);
+        }
+        bodyStart = trimStart(from, firstFlag);
+        bodyEnd = trimEnd(bodyStart, firstFlag);
+        return this;
+    }
+
+    private int trimStart(int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Checks if the flag was given.
+     *
+     * @param flag the flag.
+     * @return true if the flag appears in the input.
+     */
+    public boolean has(Flag flag) {
+        return flagAt[flag.ordinal()] >= 0;
+    }
+
+    /**
+     * Gets where the flag itself appears in the input.
+     *
+     * @param flag the flag.
+     * @return index of the flag, or -1 if it was not given.
+     */
+    public int position(Flag flag) {
+        return flagAt[flag.ordinal()];
+    }
+
+    /**
+     * Gets the index of the first character of the flag's argument.
+     *
+     * @param flag a flag that was given.
+     * @return start of the trimmed argument.
+     */
+    public int start(Flag flag) {
+        assert has(flag);
+        return valueStart[flag.ordinal()];
+    }
+
+    /**
+     * Gets the index just after the last character of the flag's argument.
+     *
+     * @param flag a flag that was given.
+     * @return end of the trimmed argument.
+     */
+    public int end(Flag flag) {
+        assert has(flag);
+        return valueEnd[flag.ordinal()];
+    }
+
+    /**
+     * Checks if the flag was given without any argument.
+     *
+     * @param flag a flag that was given.
+     * @return true if the argument is empty.
+     */
+    public boolean isBlank(Flag flag) {
+        return start(flag) == end(flag);
+    }
+
+    /**
+     * Gets the text of the flag's argument.
+     *
+     * @param flag the flag.
+     * @return the trimmed argument, or an empty string if the flag was not given.
+     */
+    public String value(Flag flag) {
+        return has(flag) ? input.substring(start(flag), end(flag)) : "";
+    }
+
+    /**
+     * Checks if the flag's argument contains whitespace.
+     *
+     * @param flag a flag that was given.
+     * @return true if there is a space inside the argument.
+     */
+    public boolean hasWhitespace(Flag flag) {
+        for (int i = start(flag); i < end(flag); i++) {
+            if (Character.isWhitespace(input.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the flag's argument as a non-negative integer without copying it.
+     *
+     * @param flag a flag that was given.
+     * @return the number, or -1 if the argument is not made up only of digits or is too large.
+     */
+    public int intValue(Flag flag) {
+        int start = start(flag);
+        int end = end(flag);
+        if (start == end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9' || value > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Gets the text before the first flag, after the command word.
+     *
+     * @return the trimmed description.
+     */
+    public String body() {
+        return input.substring(bodyStart, bodyEnd);
+    }
+
+    public int bodyStart() {
+        return bodyStart;
+    }
+
+    public int bodyEnd() {
+        return bodyEnd;
+    }
+}
@@ -0,0 +1,101 @@
+package parser;
+
+import java.util.Arrays;
+
+/**
+ * Set of one-based task numbers written as a list of numbers and ranges, such as {@code 3,7,9-12}.
+ * The ranges are kept sorted and merged, so a huge range costs no more than a single number until it is expanded.
+ */
+public class IndexRanges {
+    private final int[] starts;
+    private final int[] ends;
+
+    /**
+     * Creates the set from unsorted, possibly overlapping inclusive ranges.
+     *
+     * @param starts first number of each range.
+     * @param ends last number of each range.
+     * @param count number of ranges in use.
+     */
+    IndexRanges(int[] starts, int[] ends, int count) {
+        assert count > 0;
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) starts[i] << 32) | ends[i];
+        }
+        Arrays.sort(packed);
+        int[] mergedStarts = new int[count];
+        int[] mergedEnds = new int[count];
+        int merged = 0;
+        for (long range : packed) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (merged > 0 && start <= mergedEnds[merged - 1] + 1L) {
+                mergedEnds[merged - 1] = Math.max(mergedEnds[merged - 1], end);
+            } else {
+                mergedStarts[merged] = start;
+                mergedEnds[merged] = end;
+                merged++;
+            }
+        }
+        this.starts = Arrays.copyOf(mergedStarts, merged);
+        this.ends = Arrays.copyOf(mergedEnds, merged);
+    }
+
+    /**
+     * Gets the smallest number in the set.
+     *
+     * @return the smallest number.
+     */
+    public int first() {
+        return starts[0];
+    }
+
+    /**
+     * Gets the largest number in the set.
+     *
+     * @return the largest number.
+     */
+    public int last() {
+        return ends[ends.length - 1];
+    }
+
+    /**
+     * Gets how many numbers the set holds.
+     *
+     * @return number of distinct numbers.
+     */
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < starts.length; i++) {
+            size += (long) ends[i] - starts[i] + 1;
+        }
+        return size;
+    }
+
+    /**
+     * Checks if the set is a single number rather than a list or range.
+     *
+     * @return true if exactly one number was given.
+     */
+    public boolean isSingle() {
+        return starts.length == 1 && starts[0] == ends[0];
+    }
+
+    /**
+     * Expands the set into zero-based indices in ascending order.
+     * Callers should check last() against the list size first, so the array is never larger than the list.
+     *
+     * @return ascending zero-based indices.
+     */
+    public int[] toZeroBasedArray() {
+        int[] indices = new int[Math.toIntExact(size())];
+        int next = 0;
+        for (int i = 0; i < starts.length; i++) {
+            for (int number = starts[i]; number <= ends[i]; number++) {
+                indices[next++] = number - 1;
+            }
+        }
+        return indices;
+    }
+}
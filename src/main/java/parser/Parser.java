@@ -8,6 +8,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import command.AllTagsCommand;
@@ -21,10 +24,18 @@ import command.FindTagCommand;
 import command.InvalidCommand;
 import command.ListCommand;
 import command.MarkCommand;
+import command.MergeTagsCommand;
+import command.MoveTagCommand;
+import command.QueryCommand;
 import command.RemoveTagCommand;
+import command.RenameTagCommand;
 import command.TagCommand;
+import command.TagsCommand;
 import command.TodoCommand;
 import command.UnmarkCommand;
+import parser.ArgumentTokenizer.Flag;
+import tasks.ListOptions;
+import tasks.Query;
 
 
 
@@ -32,6 +43,8 @@ import command.UnmarkCommand;
  * The Parser class provides methods to parse user input into commands and dates.
  */
 public class Parser {
+    /** One tokenizer per thread, reused for every command that thread parses. */
+    private static final ThreadLocal<ArgumentTokenizer> TOKENIZER = ThreadLocal.withInitial(ArgumentTokenizer::new);
 
     private static final DateTimeFormatter DASHFORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
     private static final DateTimeFormatter SLASHFORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
@@ -127,18 +140,179 @@ public class Parser {
             return new FindTagCommand();
         } else if (text.startsWith("find")) {
             return new FindCommand();
+        } else if (text.startsWith("tags")) {
+            return new TagsCommand();
         } else if (text.startsWith("tag")) {
             return new TagCommand();
         } else if (text.startsWith("alltags")) {
             return new AllTagsCommand();
         } else if (text.startsWith("removetag")) {
             return new RemoveTagCommand();
+        } else if (text.startsWith("query")) {
+            return new QueryCommand();
+        } else if (text.startsWith("movetag")) {
+            return new MoveTagCommand();
+        } else if (text.startsWith("renametag")) {
+            return new RenameTagCommand();
+        } else if (text.startsWith("mergetags")) {
+            return new MergeTagsCommand();
         } else {
             return new InvalidCommand();
 
         }
     }
 
+    /**
+     * Splits an input holding several commands, separated by newlines or semicolons, into single commands.
+     * Blank commands are dropped.
+     *
+     * @param input the raw input.
+     * @return the trimmed commands in the order given.
+     */
+    public List<String> splitCommands(String input) {
+        List<String> commands = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= input.length(); i++) {
+            if (i < input.length() && input.charAt(i) != '\n' && input.charAt(i) != ';') {
+                continue;
+            }
+            String command = input.substring(start, i).trim();
+            if (!command.isEmpty()) {
+                commands.add(command);
+            }
+            start = i + 1;
+        }
+        return commands;
+    }
+
+    /**
+     * Checks if an input holds more than one command.
+     *
+     * @param input the raw input.
+     * @return true if the input has a newline or semicolon separating commands.
+     */
+    public boolean isMultiCommand(String input) {
+        return input.indexOf('\n') >= 0 || input.indexOf(';') >= 0;
+    }
+
+    /**
+     * Parses the options of a list command, given in any order after the word list:
+     * done or undone, todos, deadlines or events, by due, start, description or tag,
+     * and either page N, a range of results such as 100-200, or first N.
+     *
+     * @param input the list command.
+     * @return the options, ListOptions.ALL for a plain list.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if an option is not recognised or lacks its value.
+     */
+    public ListOptions parseListOptions(String input) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        String options = input.trim().substring("list".length()).trim().toLowerCase();
+        if (options.isEmpty()) {
+            return ListOptions.ALL;
+        }
+        String[] words = options.split("\\s+");
+        Boolean status = null;
+        String taskSymbol = null;
+        ListOptions.Sort sort = ListOptions.Sort.LIST_ORDER;
+        int offset = 0;
+        int limit = Integer.MAX_VALUE;
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            switch (word) {
+            case "done":
+            case "undone":
+                status = word.equals("done");
+                break;
+            case "todo":
+            case "todos":
+                taskSymbol = "T";
+                break;
+            case "deadline":
+            case "deadlines":
+                taskSymbol = "D";
+                break;
+            case "event":
+            case "events":
+                taskSymbol = "E";
+                break;
+            case "by":
+                sort = parseSort(nextWord(words, ++i, "by"));
+                break;
+            case "page":
+                int page = parseListNumber(nextWord(words, ++i, "page"));
+                offset = (int) Math.min(Integer.MAX_VALUE, (long) (page - 1) * ListOptions.PAGE_SIZE);
+                limit = ListOptions.PAGE_SIZE;
+                break;
+            case "first":
+                offset = 0;
+                limit = parseListNumber(nextWord(words, ++i, "first"));
+                break;
+            default:
+                int dash = word.indexOf('-');
+                if (dash <= 0) {
+                    throw new ChatterboxExceptions.ChatterBoxInvalidInput("Unknown list option: " + word);
+                }
+                int from = parseListNumber(word.substring(0, dash));
+                int to = parseListNumber(word.substring(dash + 1));
+                if (to < from) {
+                    throw new ChatterboxExceptions.ChatterBoxInvalidInput("Range ends before it starts");
+                }
+                offset = from - 1;
+                limit = to - from + 1;
+            }
+        }
+        return new ListOptions(status, taskSymbol, sort, offset, limit);
+    }
+
+    /**
+     * Parses the terms of a query command, such as
+     * query undone deadline tag:work due<2025-01-01 text:"report" order by due limit 20.
+     *
+     * @param input the query command.
+     * @return the query.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if a term is not recognised or lacks its value.
+     */
+    public Query parseQuery(String input) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        return QueryParser.parse(this, input);
+    }
+
+    private static String nextWord(String[] words, int index, String option)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        if (index >= words.length) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Missing value after " + option);
+        }
+        return words[index];
+    }
+
+    static ListOptions.Sort parseSort(String word) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        switch (word) {
+        case "due":
+            return ListOptions.Sort.DUE;
+        case "start":
+            return ListOptions.Sort.START;
+        case "description":
+        case "desc":
+            return ListOptions.Sort.DESCRIPTION;
+        case "tag":
+            return ListOptions.Sort.TAG;
+        default:
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Unknown sort order: " + word);
+        }
+    }
+
+    /**
+     * Parses a positive number given as a list option.
+     */
+    private static int parseListNumber(String word) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        if (word.isEmpty() || skipDigits(word, 0, word.length()) != word.length()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Not a number: " + word);
+        }
+        int value = parseNumber(word, 0, word.length());
+        if (value == 0) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Numbers start from 1");
+        }
+        return value;
+    }
+
     /**
      * Extracts the integer index for mark and unmark commands.
      *
@@ -151,26 +325,129 @@ public class Parser {
 
         int length = input.length();
         assert length > 0;
-        StringBuilder numberBuild = new StringBuilder();
-        Boolean isNegative = false;
-        for (int i = length - 1; i >= 0; i--) {
-            char currentChar = input.charAt(i);
-            if (Character.isDigit(currentChar)) {
-                numberBuild.insert(0, currentChar);
-            } else if (currentChar == '-') {
-                isNegative = true;
-                break;
-            } else {
+        int start = length;
+        while (start > 0 && Character.isDigit(input.charAt(start - 1))) {
+            start--;
+        }
+        if (start == length) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("No number found");
+        }
+        if (start > 0 && input.charAt(start - 1) == '-') {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Negative number found");
+        }
+        return parseNumber(input, start, length);
+    }
+
+    /**
+     * Extracts the task numbers at the end of a mark, unmark or delete command.
+     * Numbers can be given singly, as ranges or as a comma separated list, e.g. mark 1-500 or delete 3,7,9-12.
+     *
+     * @param input the input of format mark/unmark/delete {numbers}.
+     * @return the one-based task numbers given.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if no number is found or a range is malformed.
+     */
+    public IndexRanges extractIndices(String input) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        assert input != null;
+
+        int start = input.length();
+        while (start > 0 && isIndexListChar(input.charAt(start - 1))) {
+            start--;
+        }
+        return parseIndexRanges(input, start, input.length());
+    }
+
+    /**
+     * Parses a list of task numbers and ranges such as 3,7,9-12 between start and end of text.
+     *
+     * @param text the text holding the list.
+     * @param start index of the first character of the list.
+     * @param end index after the last character of the list.
+     * @return the one-based task numbers given.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if no number is found or a range is malformed.
+     */
+    public IndexRanges parseIndexRanges(String text, int start, int end)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        int[] starts = new int[4];
+        int[] ends = new int[4];
+        int count = 0;
+        int i = start;
+        while (i < end) {
+            i = skipSpaces(text, i, end);
+            if (i == end) {
                 break;
             }
+            if (text.charAt(i) == '-') {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Negative number found");
+            }
+            int numberEnd = skipDigits(text, i, end);
+            if (numberEnd == i) {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Invalid number list");
+            }
+            int first = parseNumber(text, i, numberEnd);
+            int last = first;
+            i = skipSpaces(text, numberEnd, end);
+            if (i < end && text.charAt(i) == '-') {
+                int rangeStart = skipSpaces(text, i + 1, end);
+                int rangeEnd = skipDigits(text, rangeStart, end);
+                if (rangeEnd == rangeStart) {
+                    throw new ChatterboxExceptions.ChatterBoxInvalidInput("Range has no end");
+                }
+                last = parseNumber(text, rangeStart, rangeEnd);
+                if (last < first) {
+                    throw new ChatterboxExceptions.ChatterBoxInvalidInput("Range ends before it starts");
+                }
+                i = skipSpaces(text, rangeEnd, end);
+            }
+            if (i < end && text.charAt(i) != ',') {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Invalid number list");
+            }
+            i++;
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = first;
+            ends[count] = last;
+            count++;
         }
-        if (numberBuild.length() == 0) {
+        if (count == 0) {
             throw new ChatterboxExceptions.ChatterBoxInvalidInput("No number found");
         }
-        if (isNegative) {
-            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Negative number found");
+        return new IndexRanges(starts, ends, count);
+    }
+
+    private static boolean isIndexListChar(char c) {
+        return Character.isDigit(c) || c == ',' || c == '-' || c == ' ';
+    }
+
+    private static int skipSpaces(String text, int from, int end) {
+        while (from < end && text.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipDigits(String text, int from, int end) {
+        while (from < end && Character.isDigit(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Parses the digits between start and end without creating a substring.
+     */
+    private static int parseNumber(String text, int start, int end)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Number too large");
+            }
+            value = value * 10 + digit;
         }
-        return Integer.parseInt(numberBuild.toString());
+        return value;
     }
 
     /**
@@ -183,6 +460,34 @@ public class Parser {
         return desc.substring(4).trim();
     }
 
+    /**
+     * Scans a command for its description and flag arguments.
+     * The tokenizer returned is reused for the next command parsed on this thread.
+     *
+     * @param input the command text.
+     * @param from index where the description starts, just after the command word.
+     * @param flags flags the command accepts.
+     * @return tokenizer holding the offsets of the description and each argument.
+     */
+    public ArgumentTokenizer tokenize(String input, int from, Flag... flags) {
+        return TOKENIZER.get().tokenize(input, from, flags);
+    }
+
+    /**
+     * Scans a deadline command for its description and /by argument.
+     *
+     * @param desc the input of format deadline [text] /by [text].
+     * @return tokenizer holding the description and the /by argument.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no deadline date is found.
+     */
+    public ArgumentTokenizer tokenizeDeadline(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenize(desc, "deadline".length(), Flag.BY);
+        if (!args.has(Flag.BY)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Deadline date");
+        }
+        return args;
+    }
+
     /**
      * Parses a string to obtain text for deadline parameters.
      *
@@ -191,34 +496,31 @@ public class Parser {
      * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no deadline date is found.
      */
     public String[] parseDeadline(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenizeDeadline(desc);
+        return new String[] {args.body(), args.value(Flag.BY)};
+    }
 
-
-        int endDate = desc.indexOf("/by");
-        if (endDate < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Deadline date");
+    /**
+     * Scans an event command for its description, /from and /to arguments.
+     *
+     * @param desc the input of format event text /from text /to text.
+     * @return tokenizer holding the description and both arguments.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if any parameters are not detected.
+     */
+    public ArgumentTokenizer tokenizeEvent(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenize(desc, "event".length(), Flag.FROM, Flag.TO);
+        if (!args.has(Flag.FROM)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Event Start Date");
         }
-        StringBuilder plainDesc = new StringBuilder();
-        StringBuilder deadline = new StringBuilder();
-        boolean isByCommandPresent = false;
-        for (int i = 8; i < desc.length(); i++) {
-
-            if (i < endDate) {
-                plainDesc.append(desc.charAt(i));
-                continue;
-
-            }
-            if (desc.charAt(i) == '/' && !isByCommandPresent) {
-                i += 2;
-                isByCommandPresent = true;
-                continue;
-            }
-            deadline.append(desc.charAt(i));
-
+        if (!args.has(Flag.TO)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Event End Date");
+        }
+        if (args.position(Flag.TO) < args.position(Flag.FROM)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Wrong argument order");
         }
-        return new String[] {plainDesc.toString().trim(), deadline.toString().trim()};
+        return args;
     }
 
-
     /**
      * Parses the event string for the description, from, and to time strings.
      *
@@ -228,63 +530,85 @@ public class Parser {
      * @throws ChatterboxExceptions.ChatterBoxMissingParameter if any parameters are not detected.
      */
     public String[] parseEvent(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenizeEvent(desc);
+        return new String[] {args.body(), args.value(Flag.FROM), args.value(Flag.TO)};
+    }
 
+    /**
+     * Parses the tag name from a findtag command.
+     *
+     * @param desc the input of format findtag {text} [/page {n}].
+     * @return the text used to search for the tag name.
+     */
+    public String findTagParseTagName(String desc) {
+        return tokenize(desc, "findtag".length(), Flag.PAGE).body();
+    }
 
-        int fromStart = desc.indexOf("/from");
-        if (fromStart < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Event Start Date");
-        }
-        int toStart = desc.indexOf("/to");
-        if (toStart < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Event End Date");
-        }
-        if (toStart < fromStart) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Wrong argument order");
+    /**
+     * Parses which page of matches a find or findtag command asks for, given as /page {n} after what to look for.
+     * A page holds ListOptions.PAGE_SIZE matches, and without /page every match is shown.
+     *
+     * @param input the command text.
+     * @param command the command word.
+     * @return list options holding the offset and limit of the page.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if the page is not a number from 1.
+     */
+    public ListOptions parseSearchPage(String input, String command)
+            throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        ArgumentTokenizer args = tokenize(input, command.length(), Flag.PAGE);
+        if (!args.has(Flag.PAGE)) {
+            return ListOptions.ALL;
         }
-        StringBuilder plainDesc = new StringBuilder();
-        StringBuilder startDate = new StringBuilder();
-        StringBuilder endDate = new StringBuilder();
-        boolean isFromCommandPresent = false;
-        boolean isToCommandPresent = false;
-        //start with 5 to go past event
-        for (int i = 5; i < desc.length(); i++) {
-            if (i < fromStart) {
-                plainDesc.append(desc.charAt(i));
-                continue;
-            }
-            if (i < toStart) {
-                if (desc.charAt(i) == '/' && !isFromCommandPresent) {
-                    i += 4;
-                    isFromCommandPresent = true;
-                    continue;
-                }
-                startDate.append(desc.charAt(i));
-                continue;
-            }
+        int page = parseListNumber(args.value(Flag.PAGE));
+        int offset = (int) Math.min(Integer.MAX_VALUE, (long) (page - 1) * ListOptions.PAGE_SIZE);
+        return new ListOptions(null, null, ListOptions.Sort.LIST_ORDER, offset, ListOptions.PAGE_SIZE);
+    }
 
+    /**
+     * Parses the prefix from a tags command.
+     *
+     * @param desc the input of format tags {prefix}.
+     * @return the prefix in lower case as tag names are, empty if none was given.
+     */
+    public String parseTagsPrefix(String desc) {
+        return desc.substring(4).trim().toLowerCase();
+    }
 
-            if (desc.charAt(i) == '/' && !isToCommandPresent) {
-                i += 2;
-                isToCommandPresent = true;
-                continue;
-            }
-            endDate.append(desc.charAt(i));
-        }
 
-        return new String[] {plainDesc.toString().trim(), startDate.toString().trim(), endDate.toString().trim()};
-    }
 
     /**
-     * Parses the tag name from a findtag command.
+     * Parses the two tag names of a movetag, renametag or mergetags command.
      *
-     * @param desc the input of format findtag {text}.
-     * @return the text used to search for the tag name.
+     * @param desc the input of format {command} {tag} {other tag}.
+     * @param command the command word.
+     * @return the two names, as typed.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if there are not exactly two names.
      */
-    public String findTagParseTagName(String desc) {
-        return desc.substring(7).trim();
+    public String[] parseTagPair(String desc, String command) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        String[] names = desc.substring(command.length()).trim().split("\\s+");
+        if (names.length != 2 || names[0].isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter(command + " needs two tag names");
+        }
+        return names;
     }
 
-
+    /**
+     * Scans a tag command for its /i and /t arguments.
+     *
+     * @param desc the input of format tag /i {numbers} /t {text}.
+     * @return tokenizer holding both arguments.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if either flag is missing or they are out of order.
+     */
+    public ArgumentTokenizer tokenizeTag(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenize(desc, "tag".length(), Flag.INDEX, Flag.TAG);
+        if (!args.has(Flag.TAG)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag text missing");
+        }
+        if (!args.has(Flag.INDEX) || args.position(Flag.TAG) < args.position(Flag.INDEX)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("tag / index missing");
+        }
+        return args;
+    }
 
     /**
      * Parses the tag text from a tag command.
@@ -294,73 +618,96 @@ public class Parser {
      * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no tag text is found.
      */
     public String tagCommandParseTagName(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
-
-        int start = desc.indexOf("/t");
-        if (start < 0) {
+        ArgumentTokenizer args = tokenize(desc, 0, Flag.TAG);
+        if (!args.has(Flag.TAG)) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag text missing");
         }
+        return args.value(Flag.TAG);
+    }
 
-        return desc.substring(start + 2).trim();
+    /**
+     * Parses the task numbers from a tag command, given singly, as ranges or as a comma separated list.
+     *
+     * @param desc the input of format tag /i {numbers} /t {text}.
+     * @return the one-based task numbers after /i.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no index is found.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if the numbers are malformed.
+     */
+    public IndexRanges tagCommandParseTaskIndices(String desc)
+            throws ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        return parseTaskIndices(tokenizeTag(desc));
     }
 
     /**
-     * Parses the tag index from a tag command.
+     * Reads the task numbers given after /i.
      *
-     * @param desc the input of format tag /i {index} /t {text}.
-     * @return the index after /i.
+     * @param args tokenizer holding an /i argument.
+     * @return the one-based task numbers.
      * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no index is found.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if the numbers are malformed.
      */
-    public int tagCommandParseTaskIndex(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
-        int start = desc.indexOf("/i");
-        int end = desc.indexOf("/t");
-        if (start < 0 || end < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("tag / index missing");
-        }
-        String sub = desc.substring(start + 2, end).trim();
-        if (sub.isEmpty() || !sub.matches("\\d+")) {
+    public IndexRanges parseTaskIndices(ArgumentTokenizer args)
+            throws ChatterboxExceptions.ChatterBoxMissingParameter, ChatterboxExceptions.ChatterBoxInvalidInput {
+        if (args.isBlank(Flag.INDEX)) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("missing index");
         }
-
-        return Integer.parseInt(sub.trim());
-
+        return parseIndexRanges(args.getInput(), args.start(Flag.INDEX), args.end(Flag.INDEX));
     }
 
 
     /**
      * Parses for keywords in a find command.
      *
-     * @param command the input starting with find.
+     * @param command the input of format find {keywords} [/page {n}].
      * @return the keywords after find.
      */
     public String parseFind(String command) {
-        return command.substring(4);
+        return tokenize(command, "find".length(), Flag.PAGE).body();
     }
 
 
     /**
-     * Parses for the index in a delete command.
+     * Scans a removetag command for its /i and /t arguments.
      *
      * @param desc the input of format removetag /i {index} /t {text}.
-     * @return the index of the task to delete the tag from.
-     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if the index is missing or in the wrong order.
+     * @return tokenizer holding both arguments.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if either flag is missing or they are out of order.
      */
-    public int parseRemoveTagIndex(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
-        int start = desc.indexOf("/i");
-        int end = desc.indexOf("/t");
-        if (start > end) {
+    public ArgumentTokenizer tokenizeRemoveTag(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        ArgumentTokenizer args = tokenize(desc, "removetag".length(), Flag.INDEX, Flag.TAG);
+        if (!args.has(Flag.INDEX) || !args.has(Flag.TAG)) {
+            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag input missing");
+        }
+        if (args.position(Flag.INDEX) > args.position(Flag.TAG)) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("Wrong argument order");
         }
+        return args;
+    }
 
-        if (start < 0 || end < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag input missing");
-        }
+    /**
+     * Parses for the index in a remove tag command.
+     *
+     * @param desc the input of format removetag /i {index} /t {text}.
+     * @return the index of the task to delete the tag from.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if the index is missing or in the wrong order.
+     */
+    public int parseRemoveTagIndex(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        return parseRemoveTagIndex(tokenizeRemoveTag(desc));
+    }
 
-        String sub = desc.substring(start + 2, end).trim();
-        if (sub.isEmpty() || !sub.matches("\\d+")) {
+    /**
+     * Reads the index given after /i in a remove tag command.
+     *
+     * @param args tokenizer holding an /i argument.
+     * @return the index of the task to delete the tag from.
+     * @throws ChatterboxExceptions.ChatterBoxMissingParameter if the index is missing or not a number.
+     */
+    public int parseRemoveTagIndex(ArgumentTokenizer args) throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        int index = args.intValue(Flag.INDEX);
+        if (index < 0) {
             throw new ChatterboxExceptions.ChatterBoxMissingParameter("missing tag index");
         }
-
-        return Integer.parseInt(sub);
+        return index;
     }
 
     /**
@@ -371,12 +718,9 @@ public class Parser {
      * @throws ChatterboxExceptions.ChatterBoxMissingParameter if no tag text is found.
      */
     public String parseRemoveTagName(String desc) throws ChatterboxExceptions.ChatterBoxMissingParameter {
-        int start = desc.indexOf("/t");
-        if (start < 0) {
-            throw new ChatterboxExceptions.ChatterBoxMissingParameter("Tag text missing");
-        }
-        return desc.substring(start + 2).trim();
+        return tagCommandParseTagName(desc);
     }
+
     /**
      * Returns a DateTimeFormatter used for printing LocalDateTime objects
      *
@@ -0,0 +1,225 @@
+package parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.Tag;
+import tasks.ListOptions;
+import tasks.Query;
+
+/**
+ * Parses the terms of a query command, given in any order after the word query, such as
+ * {@code query undone deadline tag:work due<2025-01-01 text:"report" order by due limit 20}.
+ * Terms are separated by spaces, and a value in double quotes may hold spaces.
+ */
+final class QueryParser {
+    private final Parser parser;
+    private final List<String> words;
+    private int next;
+
+    private Boolean status;
+    private String taskSymbol;
+    private final List<String> tags = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private Query.DateRange due = Query.DateRange.ALL;
+    private Query.DateRange start = Query.DateRange.ALL;
+    private ListOptions.Sort sort = ListOptions.Sort.LIST_ORDER;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+    private boolean isExplain;
+
+    private QueryParser(Parser parser, List<String> words) {
+        this.parser = parser;
+        this.words = words;
+    }
+
+    /**
+     * Parses a query command.
+     *
+     * @param parser the parser, for reading dates and sort orders as other commands do.
+     * @param input the query command.
+     * @return the query.
+     * @throws ChatterboxExceptions.ChatterBoxInvalidInput if a term is not recognised or lacks its value.
+     */
+    static Query parse(Parser parser, String input) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        String terms = input.trim().substring("query".length());
+        return new QueryParser(parser, split(terms)).parse();
+    }
+
+    /**
+     * Splits terms at spaces outside double quotes, dropping the quotes.
+     */
+    static List<String> split(String terms) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean isQuoted = false;
+        boolean hasWord = false;
+        for (int i = 0; i < terms.length(); i++) {
+            char c = terms.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+                hasWord = true;
+            } else if (Character.isWhitespace(c) && !isQuoted) {
+                if (hasWord) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                    hasWord = false;
+                }
+            } else {
+                word.append(c);
+                hasWord = true;
+            }
+        }
+        if (isQuoted) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Quote left open in query");
+        }
+        if (hasWord) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private Query parse() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        while (next < words.size()) {
+            String word = words.get(next++);
+            String lower = word.toLowerCase();
+            if (lower.startsWith("tag:")) {
+                addTag(lower.substring("tag:".length()));
+            } else if (lower.startsWith("text:")) {
+                addText(lower.substring("text:".length()));
+            } else if (lower.startsWith("due")) {
+                due = due.and(parseRange(word, "due"));
+            } else if (lower.startsWith("start")) {
+                start = start.and(parseRange(word, "start"));
+            } else {
+                parseKeyword(lower);
+            }
+        }
+        return new Query(status, taskSymbol, tags, texts, due, start, sort, offset, limit, isExplain);
+    }
+
+    private void parseKeyword(String word) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        switch (word) {
+        case "explain":
+            isExplain = true;
+            break;
+        case "done":
+        case "undone":
+            status = word.equals("done");
+            break;
+        case "todo":
+        case "todos":
+            taskSymbol = "T";
+            break;
+        case "deadline":
+        case "deadlines":
+            taskSymbol = "D";
+            break;
+        case "event":
+        case "events":
+            taskSymbol = "E";
+            break;
+        case "order":
+            if (!nextWord("order").equalsIgnoreCase("by")) {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Expected 'by' after order");
+            }
+            sort = Parser.parseSort(nextWord("order by").toLowerCase());
+            break;
+        case "limit":
+            limit = parseCount(nextWord("limit"));
+            break;
+        case "offset":
+            offset = parseCount(nextWord("offset"));
+            break;
+        default:
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Unknown query term: " + word);
+        }
+    }
+
+    private String nextWord(String term) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        if (next >= words.size()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Missing value after " + term);
+        }
+        return words.get(next++);
+    }
+
+    private void addTag(String name) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        String tag = Tag.normalise(name);
+        if (tag.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Missing tag after tag:");
+        }
+        tags.add(tag);
+    }
+
+    private void addText(String text) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        if (text.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Missing text after text:");
+        }
+        texts.add(text);
+    }
+
+    private static int parseCount(String word) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        try {
+            int count = Integer.parseInt(word);
+            if (count < 0) {
+                throw new ChatterboxExceptions.ChatterBoxInvalidInput("Negative number: " + word);
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Not a number: " + word);
+        }
+    }
+
+    /**
+     * Parses a date condition such as due<2025-01-01 or start>=12-12-2025.
+     * A date without a time stands for the whole day, so due<=2025-01-01 takes in the whole of that day,
+     * while a date with a time stands for that minute.
+     */
+    private Query.DateRange parseRange(String word, String field) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        int at = field.length();
+        int valueAt = at;
+        while (valueAt < word.length() && "<>=".indexOf(word.charAt(valueAt)) >= 0) {
+            valueAt++;
+        }
+        String operator = word.substring(at, valueAt);
+        String value = word.substring(valueAt);
+        if (operator.isEmpty() || value.isEmpty()) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Expected a comparison such as " + field
+                    + "<2025-01-01");
+        }
+        LocalDateTime first = parseDate(value);
+        // every format with a time has a space before it
+        LocalDateTime after = value.indexOf(' ') >= 0 ? first.plusMinutes(1) : first.plusDays(1);
+        switch (operator) {
+        case "<":
+            return Query.DateRange.before(first);
+        case "<=":
+            return Query.DateRange.before(after);
+        case ">":
+            return Query.DateRange.from(after);
+        case ">=":
+            return Query.DateRange.from(first);
+        case "=":
+            return Query.DateRange.from(first).and(Query.DateRange.before(after));
+        default:
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Unknown comparison: " + operator);
+        }
+    }
+
+    private LocalDateTime parseDate(String value) throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        try {
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            // not an ISO date, try the formats other commands take
+        }
+        LocalDateTime date = parser.parseDateTime(value);
+        if (date == null) {
+            throw new ChatterboxExceptions.ChatterBoxInvalidInput("Not a date: " + value);
+        }
+        return date;
+    }
+}
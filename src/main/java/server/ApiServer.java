@@ -0,0 +1,375 @@
+package server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import chatterbox.ChatterboxGui;
+import command.Response;
+import gui.GuiResponses;
+import tags.Tag;
+import tasks.TaskPage;
+import tasks.TaskRow;
+import tasks.TaskSnapshot;
+
+/**
+ * Local HTTP API over the same task engine the GUI uses.
+ * Reads are served concurrently under the engine's read lock, while every command is published to the
+ * engine's command pipeline so mutations are applied by its single writer thread in arrival order.
+ */
+public class ApiServer {
+    public static final int DEFAULT_PORT = 7070;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final GuiResponses RESPONSES = new GuiResponses();
+
+    private final ChatterboxGui chatterbox;
+    private final HttpServer httpServer;
+    private final ExecutorService requestExecutor;
+
+    /**
+     * Creates a server bound to the given address, not yet accepting requests.
+     *
+     * @param chatterbox the engine to serve.
+     * @param address address to bind, normally the loopback interface.
+     * @throws IOException if the address cannot be bound.
+     */
+    public ApiServer(ChatterboxGui chatterbox, InetSocketAddress address) throws IOException {
+        this.chatterbox = chatterbox;
+        this.httpServer = HttpServer.create(address, 0);
+        this.requestExecutor = newRequestExecutor();
+        httpServer.setExecutor(requestExecutor);
+        httpServer.createContext("/api/tasks", exchange -> handle(exchange, this::listTasks));
+        httpServer.createContext("/api/find", exchange -> handle(exchange, this::findTasks));
+        httpServer.createContext("/api/findtag", exchange -> handle(exchange, this::findTagged));
+        httpServer.createContext("/api/tags", exchange -> handle(exchange, this::listTags));
+        httpServer.createContext("/api/command", exchange -> handle(exchange, this::runCommand));
+        httpServer.createContext("/api/list", this::streamList);
+    }
+
+    /**
+     * Uses one virtual thread per request when the runtime supports them, otherwise a cached pool.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "chatterbox-api-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops accepting requests.
+     */
+    public void stop() {
+        httpServer.stop(0);
+        requestExecutor.shutdown();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private interface Endpoint {
+        String respond(HttpExchange exchange, Map<String, String> query) throws ApiException, IOException;
+    }
+
+    /**
+     * Signals a request that cannot be served, carrying the HTTP status to reply with.
+     */
+    private static class ApiException extends Exception {
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            body = endpoint.respond(exchange, parseQuery(exchange.getRequestURI()));
+        } catch (ApiException e) {
+            status = e.status;
+            body = errorBody(e.getMessage());
+        } catch (Json.MalformedJsonException e) {
+            status = 400;
+            body = errorBody(e.getMessage());
+        } catch (RuntimeException e) {
+            // such as a read cancelled by shutdown; reply rather than leave the client waiting on a closed exchange
+            status = 500;
+            body = errorBody(String.valueOf(e));
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String errorBody(String message) {
+        return Json.quote(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    private String listTasks(HttpExchange exchange, Map<String, String> query) throws ApiException {
+        requireMethod(exchange, "GET");
+        int offset = intParam(query, "offset", 0);
+        int limit = pageSize(query);
+        return chatterbox.read((tasks, tags) -> {
+            int total = tasks.size();
+            int end = (int) Math.min(total, (long) offset + limit);
+            StringBuilder out = new StringBuilder(64 * Math.max(0, end - offset) + 64);
+            out.append("{\"total\":").append(total)
+                    .append(",\"offset\":").append(offset)
+                    .append(",\"limit\":").append(limit)
+                    .append(",\"tasks\":[");
+            for (int i = offset; i < end; i++) {
+                if (i > offset) {
+                    out.append(',');
+                }
+                appendTask(out, i, TaskRow.of(tasks.getTask(i)));
+            }
+            return out.append("]}").toString();
+        });
+    }
+
+    /**
+     * Streams the reply to list as plain text, row by row, from a snapshot taken under the read lock.
+     * Memory use stays flat however long the list is, so each row is captured as it is written rather than all
+     * of them under the lock, and a task changed meanwhile may show its new status or tags.
+     */
+    private void streamList(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equalsIgnoreCase("GET")) {
+            handle(exchange, (rejected, query) -> {
+                requireMethod(rejected, "GET");
+                return "";
+            });
+            return;
+        }
+        TaskSnapshot snapshot = chatterbox.read((tasks, tags) -> tasks.snapshot());
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.UTF_8))) {
+            RESPONSES.writeTaskList(snapshot.size(), TaskRow.rowsWhenRead(snapshot), out);
+        }
+    }
+
+    private String findTasks(HttpExchange exchange, Map<String, String> query) throws ApiException {
+        requireMethod(exchange, "GET");
+        String keywords = requireParam(query, "q").trim();
+        int offset = intParam(query, "offset", 0);
+        int limit = pageSize(query);
+        return chatterbox.read((tasks, tags) -> {
+            int[] matches = tasks.findTaskIndices(keywords, offset, limit + 1);
+            int shown = Math.min(limit, matches.length);
+            StringBuilder out = new StringBuilder(64 * shown + 64);
+            Json.quote(out.append("{\"query\":"), keywords)
+                    .append(",\"offset\":").append(offset)
+                    .append(",\"limit\":").append(limit)
+                    .append(",\"hasMore\":").append(matches.length > limit)
+                    .append(",\"tasks\":[");
+            for (int i = 0; i < shown; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendTask(out, matches[i], TaskRow.of(tasks.getTask(matches[i])));
+            }
+            return out.append("]}").toString();
+        });
+    }
+
+    private String findTagged(HttpExchange exchange, Map<String, String> query) throws ApiException {
+        requireMethod(exchange, "GET");
+        String tagName = Tag.normalise(requireParam(query, "tag"));
+        int offset = intParam(query, "offset", 0);
+        int limit = pageSize(query);
+        return chatterbox.read((tasks, tags) -> {
+            BitSet ids = tags.getTaskIdsUnder(tagName);
+            StringBuilder out = Json.quote(new StringBuilder("{\"tag\":"), tagName);
+            if (ids == null) {
+                return out.append(",\"total\":0,\"tasks\":[]}").toString();
+            }
+            // deleted tasks are untagged, so every id is of a task in the list
+            TaskPage page = tasks.getMatchesById(ids).readPage(offset, limit);
+            List<TaskRow> rows = page.getRows();
+            out.append(",\"total\":").append(ids.cardinality())
+                    .append(",\"offset\":").append(offset)
+                    .append(",\"limit\":").append(limit)
+                    .append(",\"hasMore\":").append(page.hasMore())
+                    .append(",\"tasks\":[");
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendTask(out, page.getPosition(i), rows.get(i));
+            }
+            return out.append("]}").toString();
+        });
+    }
+
+    private String listTags(HttpExchange exchange, Map<String, String> query) throws ApiException {
+        requireMethod(exchange, "GET");
+        int limit = intParam(query, "limit", Integer.MAX_VALUE);
+        return chatterbox.read((tasks, tags) -> {
+            List<Tag> largest = tags.getLargestTags(limit);
+            StringBuilder out = new StringBuilder("{\"total\":").append(tags.size()).append(",\"tags\":[");
+            for (int i = 0; i < largest.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                Json.quote(out.append("{\"name\":"), largest.get(i).getTagName())
+                        .append(",\"count\":").append(largest.get(i).size()).append('}');
+            }
+            return out.append("]}").toString();
+        });
+    }
+
+    private String runCommand(HttpExchange exchange, Map<String, String> query) throws ApiException, IOException {
+        requireMethod(exchange, "POST");
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        String input = body.startsWith("{") ? Json.readStringField(body, "input") : body;
+        if (input == null || input.isBlank()) {
+            throw new ApiException(400, "Missing command input");
+        }
+        Response response;
+        try {
+            response = chatterbox.submit(input).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Interrupted while waiting for command");
+        } catch (ExecutionException e) {
+            throw new ApiException(500, String.valueOf(e.getCause()));
+        } catch (RejectedExecutionException e) {
+            throw new ApiException(503, e.getMessage());
+        }
+        StringBuilder out = Json.quote(new StringBuilder("{\"type\":"), response.getStatus().name());
+        // the reply is rendered from the rows the command captured, and only if it is wanted
+        if (!"false".equals(query.get("text"))) {
+            Json.quote(out.append(",\"response\":"), response.getText());
+        }
+        if (response.hasTasks()) {
+            List<TaskRow> tasks = response.getTasks();
+            out.append(",\"tasks\":[");
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendTask(out, -1, tasks.get(i));
+            }
+            out.append(']');
+        }
+        int[] indices = response.getIndices();
+        if (indices.length > 0) {
+            out.append(",\"indices\":[");
+            for (int i = 0; i < indices.length; i++) {
+                out.append(i > 0 ? "," : "").append(indices[i] + 1);
+            }
+            out.append(']');
+        }
+        return out.append('}').toString();
+    }
+
+    private static void appendTask(StringBuilder out, int index, TaskRow task) {
+        out.append('{');
+        if (index >= 0) {
+            out.append("\"index\":").append(index + 1).append(',');
+        }
+        Json.quote(out.append("\"type\":"), task.getTaskSymbol())
+                .append(",\"done\":").append(task.isDone());
+        Json.quote(out.append(",\"description\":"), task.getPlainText().trim()).append(",\"tags\":[");
+        List<String> tagNames = task.getTagNames();
+        for (int i = 0; i < tagNames.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Json.quote(out, tagNames.get(i));
+        }
+        out.append("]}");
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) throws ApiException {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            throw new ApiException(405, "Use " + method + " for " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private static String requireParam(Map<String, String> query, String name) throws ApiException {
+        String value = query.get(name);
+        if (value == null) {
+            throw new ApiException(400, "Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int pageSize(Map<String, String> query) throws ApiException {
+        return Math.min(intParam(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) throws ApiException {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new ApiException(400, "Negative number for " + name);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Not a number for " + name + ": " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int split = pair.indexOf('=');
+            String key = split < 0 ? pair : pair.substring(0, split);
+            String value = split < 0 ? "" : pair.substring(split + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
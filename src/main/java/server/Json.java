@@ -0,0 +1,143 @@
+package server;
+
+/**
+ * Minimal JSON helpers for the HTTP API, covering only the shapes the API reads and writes.
+ */
+public class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Signals JSON text that cannot be read, such as a bad escape in a string.
+     */
+    public static class MalformedJsonException extends IllegalArgumentException {
+        MalformedJsonException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Appends a string as a quoted JSON string literal, or null if the string is null.
+     *
+     * @param out builder to append to.
+     * @param value string to quote.
+     * @return the builder.
+     */
+    public static StringBuilder quote(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Reads a top level string field from a JSON object.
+     *
+     * @param json text of a JSON object.
+     * @param field name of the field to read.
+     * @return the unescaped value, or null if the field is missing or not a string.
+     * @throws MalformedJsonException if the value has a unicode escape without four hex digits.
+     */
+    public static String readStringField(String json, String field) {
+        String key = "\"" + field + "\"";
+        int keyStart = json.indexOf(key);
+        if (keyStart < 0) {
+            return null;
+        }
+        int i = json.indexOf(':', keyStart + key.length());
+        if (i < 0) {
+            return null;
+        }
+        i++;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        if (i >= json.length() || json.charAt(i) != '"') {
+            return null;
+        }
+        StringBuilder value = new StringBuilder();
+        for (i++; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\' || i + 1 >= json.length()) {
+                value.append(c);
+                continue;
+            }
+            char escaped = json.charAt(++i);
+            switch (escaped) {
+            case 'n':
+                value.append('\n');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'u':
+                value.append(readHexChar(json, i + 1));
+                i += 4;
+                break;
+            default:
+                value.append(escaped);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the four hex digits of a unicode escape. Integer.parseInt is not used as it also takes a sign and
+     * digits other than ASCII ones.
+     */
+    private static char readHexChar(String json, int start) {
+        if (start + 4 > json.length()) {
+            throw new MalformedJsonException("Unfinished \\u escape at " + (start - 2));
+        }
+        int code = 0;
+        for (int i = start; i < start + 4; i++) {
+            char c = json.charAt(i);
+            int digit = c < 0x80 ? Character.digit(c, 16) : -1;
+            if (digit < 0) {
+                throw new MalformedJsonException("Bad \\u escape at " + (start - 2));
+            }
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+}
@@ -0,0 +1,41 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import javax.management.JMException;
+
+import chatterbox.ChatterboxGui;
+import chatterbox.ChatterboxMetrics;
+
+/**
+ * Launcher for running Chatterbox as a local HTTP API without the GUI.
+ */
+public class ServerLauncher {
+
+    /**
+     * Starts the API server on the loopback interface.
+     *
+     * @param args optional port followed by an optional history file path.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ApiServer.DEFAULT_PORT;
+        ChatterboxGui chatterbox = (args.length > 1 ? new ChatterboxGui(args[1]) : new ChatterboxGui()).start();
+        try {
+            ChatterboxMetrics.register(chatterbox);
+        } catch (JMException e) {
+            System.out.println("Error registering metrics: " + e.getMessage());
+        }
+
+        ApiServer server = new ApiServer(chatterbox,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            chatterbox.shutdown();
+            chatterbox.forceSave();
+        }));
+        server.start();
+        System.out.println("Chatterbox API listening on http://localhost:" + server.getPort() + "/api/");
+    }
+}
@@ -9,7 +9,9 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
 
@@ -20,6 +22,7 @@ import tags.TagList;
 import tasks.Deadline;
 import tasks.Event;
 import tasks.Task;
+import tasks.TaskSnapshot;
 import tasks.Todo;
 
 /**
@@ -29,6 +32,9 @@ public class Storage {
 
     private final String HIST_FILE;
 
+    private volatile long lastSaveDurationNanos;
+    private volatile long historyFileSize;
+
     /**
      * Initializes Storage class with no specified storage file, creates a data directory and storage file.
      */
@@ -48,11 +54,31 @@ public class Storage {
     }
 
     /**
-     * Saves the input ArrayList of tasks to the history file.
+     * Saves the input list of tasks to the history file.
      *
-     * @param userList contains ArrayList of tasks.
+     * @param userList contains list of tasks.
      */
-    public void saveHistory(ArrayList<Task> userList) {
+    public void saveHistory(List<Task> userList) {
+        BitSet done = new BitSet(userList.size());
+        for (int i = 0; i < userList.size(); i++) {
+            done.set(i, userList.get(i).getStatus());
+        }
+        saveHistory(userList, done);
+    }
+
+    /**
+     * Saves a snapshot of the task list to the history file, with each task's status as it was when the snapshot
+     * was taken. The tags are read from the tasks as they are while saving, a tag change made meanwhile is saved
+     * again by the save that follows it.
+     *
+     * @param snapshot the task list at one moment.
+     */
+    public void saveHistory(TaskSnapshot snapshot) {
+        saveHistory(snapshot, snapshot.getDonePositions());
+    }
+
+    private void saveHistory(List<Task> userList, BitSet done) {
+        long saveStart = System.nanoTime();
 
         checkDirectory();
 
@@ -67,16 +93,17 @@ public class Storage {
             FileWriter writer = new FileWriter(file);
 
             StringBuilder history = new StringBuilder();
-            for (int i = 0; i < userList.size(); i++) {
-
-                Task currentTask = userList.get(i);
-                String taskStr = getStoredString(currentTask);
+            int position = 0;
+            for (Task currentTask : userList) {
+                String taskStr = getStoredString(currentTask, done.get(position++));
                 history.append(taskStr);
                 history.append(System.lineSeparator());
             }
 
             writer.write(history.toString());
             writer.close();
+            historyFileSize = file.length();
+            lastSaveDurationNanos = System.nanoTime() - saveStart;
 
         } catch (IOException e) {
             System.out.println("Error: " + e.getMessage());
@@ -88,11 +115,12 @@ public class Storage {
      * Gets the string representation of a task.
      *
      * @param currentTask the task to be converted to a string.
+     * @param isDone whether the task is saved as done.
      * @return String representation of the task.
      */
-    private static String getStoredString(Task currentTask) {
+    private static String getStoredString(Task currentTask, boolean isDone) {
         String taskStr = String.format("%s | %s | %s", currentTask.getTaskSymbol(),
-                currentTask.getStatus() ? "X" : " ", currentTask.getDescription());
+                isDone ? "X" : " ", currentTask.getDescription());
         return taskStr;
     }
 
@@ -107,6 +135,7 @@ public class Storage {
     public void load(Parser parser, ArrayList<Task> loadedTasks, TagList loadedTags) throws FileNotFoundException {
         File f = new File(this.HIST_FILE);
         Scanner s = new Scanner(f);
+        historyFileSize = f.length();
 
         while (s.hasNext()) {
             try {
@@ -170,7 +199,9 @@ public class Storage {
             String[] tagList = tags.split(" ");
 
             for (String tag : tagList) {
-
+                if (tag.isBlank()) {
+                    continue;
+                }
                 Tag nextTag = loadedTags.addTagFromString(tag);
                 taskTagSet.add(nextTag);
             }
@@ -282,6 +313,24 @@ public class Storage {
         return HIST_FILE;
     }
 
+    /**
+     * Gets the size of the history file as of the last load or save.
+     *
+     * @return size of the history file in bytes.
+     */
+    public long getHistoryFileSize() {
+        return historyFileSize;
+    }
+
+    /**
+     * Gets how long the last successful save took.
+     *
+     * @return duration of the last save in nanoseconds, 0 if nothing has been saved yet.
+     */
+    public long getLastSaveDurationNanos() {
+        return lastSaveDurationNanos;
+    }
+
 
 
 
@@ -1,5 +1,6 @@
 package tags;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -8,13 +9,31 @@ import tasks.Task;
 
 /**
  * Represents a tag that can be added to tasks.
+ * Names may be paths such as work/projA/backend, a tag being under every tag whose name is a start of its own
+ * ending at a slash. A tag can be renamed in place, tasks hold the tag itself rather than its name, so only
+ * the tag and the indexes of its TagList change.
+ * Tags are equal when their names are, and hash by name too, so a set holding a tag is not rehashed by a rename
+ * and must not be searched by hash afterwards; tasks only ever copy or walk their sets of tags.
  */
 public class Tag {
+    /** Separates the levels of a hierarchical tag name. */
+    public static final char SEPARATOR = '/';
 
-    private final String tagName;
+    /**
+     * Number of renames of this tag, tasks compare it to know if their cached description is stale. Only the
+     * owning TagList renames, one change at a time under the write lock, so the increment has a single writer.
+     */
+    private volatile int renames;
+
+    private volatile String tagName;
 
     private Set<Task> taggedTasks = new HashSet<>();
 
+    /** Ids of the tagged tasks, built on first use and dropped whenever a task is tagged or untagged. */
+    private volatile BitSet taskIds;
+
+    private TagList owner;
+
 
     /**
      * Creates a tag with the given name.
@@ -22,9 +41,53 @@ public class Tag {
      * @param tagName the name of the tag.
      */
     public Tag(String tagName) {
-        tagName = tagName.trim();
+        this.tagName = normalise(tagName);
+    }
+
+    /**
+     * Brings a tag name to the form tags are stored under: trimmed, in lower case, with no slash at either
+     * end and no empty level.
+     *
+     * @param tagName the name as typed.
+     * @return the name as stored, empty if nothing but slashes and spaces was typed.
+     */
+    public static String normalise(String tagName) {
+        String name = tagName.trim().toLowerCase();
+        if (name.indexOf(SEPARATOR) < 0) {
+            return name;
+        }
+        StringBuilder normalised = new StringBuilder(name.length());
+        for (String level : name.split(String.valueOf(SEPARATOR))) {
+            if (level.isEmpty()) {
+                continue;
+            }
+            if (normalised.length() > 0) {
+                normalised.append(SEPARATOR);
+            }
+            normalised.append(level);
+        }
+        return normalised.toString();
+    }
 
-        this.tagName = tagName.toLowerCase();
+    /**
+     * Checks if a tag name is another name or lies under it.
+     *
+     * @param tagName a normalised tag name.
+     * @param root a normalised tag name.
+     * @return true if tagName is root or starts with root followed by a slash.
+     */
+    public static boolean isUnder(String tagName, String root) {
+        return tagName.startsWith(root)
+                && (tagName.length() == root.length() || tagName.charAt(root.length()) == SEPARATOR);
+    }
+
+    /**
+     * Gets the number of times this tag has been renamed.
+     *
+     * @return the rename count.
+     */
+    public int getRenameCount() {
+        return renames;
     }
 
     /**
@@ -36,6 +99,17 @@ public class Tag {
         return tagName;
     }
 
+    /**
+     * Changes the name of the tag. Must only be called by the TagList holding the tag, once the tag is out of its
+     * indexes.
+     *
+     * @param tagName the new, normalised name.
+     */
+    void rename(String tagName) {
+        this.tagName = tagName;
+        renames++;
+    }
+
     @Override
     public String toString() {
         return tagName;
@@ -49,13 +123,28 @@ public class Tag {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return tagName.hashCode();
+    }
+
     /**
      * Adds a task to the list of tagged tasks.
      *
      * @param task the task to be added.
      */
     public void tagTask(Task task) {
+        if (taggedTasks.contains(task)) {
+            return;
+        }
+        if (owner != null) {
+            owner.beforeResize(this);
+        }
         taggedTasks.add(task);
+        taskIds = null;
+        if (owner != null) {
+            owner.afterResize(this);
+        }
     }
 
     /**
@@ -81,13 +170,60 @@ public class Tag {
     }
 
 
+    /**
+     * Gets the ids of the tagged tasks as a bitmap, so the tasks under several tags can be combined a word at
+     * a time. Built in one pass over the tasks the first time it is asked for after a change.
+     *
+     * @return the ids, must not be modified.
+     */
+    public BitSet getTaskIds() {
+        BitSet ids = taskIds;
+        if (ids == null) {
+            ids = new BitSet();
+            for (Task task : taggedTasks) {
+                assert task.getId() >= 0;
+                ids.set(task.getId());
+            }
+            taskIds = ids;
+        }
+        return ids;
+    }
+
     /**
      * Removes a task from the list of tagged tasks.
      *
      * @param task the task to be removed.
      */
     public void untagTask(Task task) {
+        if (!taggedTasks.contains(task)) {
+            return;
+        }
+        if (owner != null) {
+            owner.beforeResize(this);
+        }
         taggedTasks.remove(task);
+        taskIds = null;
+        if (owner != null) {
+            owner.afterResize(this);
+        }
+    }
+
+    /**
+     * Gets the number of tasks under the tag.
+     *
+     * @return number of tagged tasks.
+     */
+    public int size() {
+        return taggedTasks.size();
+    }
+
+    /**
+     * Sets the TagList that keeps size statistics for this tag.
+     *
+     * @param owner the TagList this tag belongs to, or null if detached.
+     */
+    void setOwner(TagList owner) {
+        this.owner = owner;
     }
     /**
      * Checks if a task is under the tag.
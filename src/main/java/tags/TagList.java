@@ -1,16 +1,52 @@
 package tags;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+
+import tasks.ChangeEvent;
+import tasks.ChangeFeed;
+import tasks.Task;
+import tasks.UndoLog;
 
 /**
  * Represents a list of tags.
+ * Tags created and removed are described to the listeners of the list's ChangeFeed.
+ * Hierarchical names are kept in the same sorted trie as the others, so a tag and everything under it is one
+ * run of names found in O(length of name), and moving it renames only those tags.
+ * Tasks hold their Tag objects and names are only kept here and in the tags, so renaming a tag never visits
+ * its tasks, and the saved /tags: of each task pick up the new name on the next save.
  */
 public class TagList {
+    private static final Comparator<Tag> LARGEST_FIRST = Comparator.comparingInt(Tag::size).reversed()
+            .thenComparing(Tag::getTagName);
+
     private final HashMap<String, Tag> tags;
 
+    /** Tags ordered by number of tagged tasks, kept in step with every tag and untag. */
+    private final TreeSet<Tag> tagsBySize;
+
+    /** Tags ordered by name, with the number of tasks under every prefix, kept in step like tagsBySize. */
+    private final TagTrie tagsByName = new TagTrie();
+
+    private volatile long version;
+
+    /** Journal of the transaction in progress, or null outside a transaction. Only used by the writer. */
+    private UndoLog undoLog;
+
+    private ChangeFeed changes = new ChangeFeed();
+
+    /**
+     * Initializes an empty TagList.
+     */
     public TagList() {
         this.tags = new HashMap<>();
+        this.tagsBySize = new TreeSet<>(LARGEST_FIRST);
     }
 
     /**
@@ -18,18 +54,51 @@ public class TagList {
      *
      */
     public void addTag(Tag tag) {
-        tags.put(tag.getTagName(), tag);
+        Tag replaced = tags.put(tag.getTagName(), tag);
+        if (undoLog != null) {
+            undoLog.record(() -> {
+                removeTag(tag.getTagName());
+                if (replaced != null) {
+                    addTag(replaced);
+                }
+            });
+        }
+        if (replaced != null) {
+            detach(replaced);
+        }
+        tag.setOwner(this);
+        tagsBySize.add(tag);
+        tagsByName.put(tag);
+        version++;
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.tagCreated(tag.getTagName()));
+        }
     }
 
     /**
      * Adds a tag object to this.tags using string argument (done during loading).
+     * Returns the existing tag if one with the same name is already in the list.
      *
      * @param tagName String of name of the tag to be added.
      * @return the Tag object created.
      */
     public Tag addTagFromString(String tagName) {
         Tag tag = new Tag(tagName);
-        tags.put(tagName, tag);
+        Tag existing = tags.get(tag.getTagName());
+        if (existing != null) {
+            return existing;
+        }
+        tags.put(tag.getTagName(), tag);
+        if (undoLog != null) {
+            undoLog.record(() -> removeTag(tag.getTagName()));
+        }
+        tag.setOwner(this);
+        tagsBySize.add(tag);
+        tagsByName.put(tag);
+        version++;
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.tagCreated(tag.getTagName()));
+        }
         return tag;
     }
 
@@ -39,7 +108,61 @@ public class TagList {
      * @param tagName the name of the tag to be removed.
      */
     public void removeTag(String tagName) {
-        tags.remove(tagName);
+        Tag removed = tags.remove(tagName);
+        if (removed != null) {
+            if (undoLog != null) {
+                undoLog.record(() -> addTag(removed));
+            }
+            detach(removed);
+            tagsByName.remove(tagName);
+            version++;
+            if (changes.isObserved()) {
+                changes.emit(ChangeEvent.tagRemoved(tagName));
+            }
+        }
+    }
+
+    /**
+     * Starts recording every change into the undo log, so that rolling the log back restores the tags
+     * as they are now.
+     *
+     * @param log the transaction's undo log.
+     */
+    public void beginTransaction(UndoLog log) {
+        assert undoLog == null;
+        undoLog = log;
+        ChangeFeed feed = changes;
+        int mark = feed.mark();
+        feed.beginBatch();
+        log.record(() -> feed.discardSince(mark));
+    }
+
+    /**
+     * Stops recording changes, after the transaction has been committed or rolled back.
+     */
+    public void endTransaction() {
+        undoLog = null;
+        changes.endBatch();
+    }
+
+    /**
+     * Gets the feed that changes to this list are emitted on.
+     *
+     * @return the change feed.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    /**
+     * Emits changes to this list on another feed, such as the one of the TaskList the tags belong to.
+     * Must not be called during a transaction.
+     *
+     * @param feed the change feed.
+     */
+    public void setChangeFeed(ChangeFeed feed) {
+        assert undoLog == null;
+        changes = feed;
     }
 
     /**
@@ -72,5 +195,349 @@ public class TagList {
         return tags.keySet();
     }
 
+    /**
+     * Gets the tags whose names start with a prefix, sorted by name. Costs O(length of prefix) plus the
+     * number of tags returned, nothing is sorted.
+     *
+     * @param prefix start of the tag names, empty for every tag.
+     * @return the tags in order of name.
+     */
+    public List<Tag> getTagsWithPrefix(String prefix) {
+        return tagsByName.withPrefix(prefix);
+    }
+
+    /**
+     * Counts the tasks under the tags whose names start with a prefix, a task counted once for each of those
+     * tags it carries.
+     *
+     * @param prefix start of the tag names.
+     * @return number of tagged tasks.
+     */
+    public int countTaggedWithPrefix(String prefix) {
+        return tagsByName.countWithPrefix(prefix);
+    }
+
+    /**
+     * Counts the tasks under any of some tags, each task once however many of those tags it carries. The bitmaps
+     * of the tags are combined a word at a time.
+     *
+     * @param tags the tags, such as those starting with a prefix.
+     * @return number of distinct tasks.
+     */
+    public static int countTasksUnder(List<Tag> tags) {
+        if (tags.size() == 1) {
+            return tags.get(0).size();
+        }
+        BitSet ids = new BitSet();
+        for (Tag tag : tags) {
+            ids.or(tag.getTaskIds());
+        }
+        return ids.cardinality();
+    }
+
+    /**
+     * Completes a partly typed tag name as far as every tag starting with it agrees.
+     *
+     * @param prefix the start of a tag name.
+     * @return the longest start shared by every tag name with the prefix, or null if no tag has it.
+     */
+    public String completeTagName(String prefix) {
+        return tagsByName.complete(prefix);
+    }
+
+    /**
+     * Gets a tag and every tag under it, such as work, work/proja and work/proja/backend for work.
+     *
+     * @param tagName normalised name of the tag at the top, which need not exist itself.
+     * @return the tags in order of name, empty if there are none.
+     */
+    public List<Tag> getSubtree(String tagName) {
+        List<Tag> subtree = tagsByName.withPrefix(tagName + Tag.SEPARATOR);
+        Tag top = tags.get(tagName);
+        if (top != null) {
+            subtree.add(0, top);
+        }
+        return subtree;
+    }
+
+    /**
+     * Gets the ids of the tasks under a tag or any tag below it, each task once however many of those tags it
+     * carries. The bitmaps of the tags are combined a word at a time.
+     *
+     * @param tagName normalised name of the tag at the top.
+     * @return the ids, or null if there is no such tag nor any tag below it.
+     */
+    public BitSet getTaskIdsUnder(String tagName) {
+        List<Tag> subtree = getSubtree(tagName);
+        if (subtree.isEmpty()) {
+            return null;
+        }
+        BitSet ids = (BitSet) subtree.get(0).getTaskIds().clone();
+        for (int i = 1; i < subtree.size(); i++) {
+            ids.or(subtree.get(i).getTaskIds());
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the tasks under a tag and every tag below it from the counts kept in the trie, without looking at
+     * the tasks. A task under several of those tags is counted once for each.
+     *
+     * @param tagName normalised name of the tag at the top.
+     * @return number of tagged tasks, at least the number of distinct tasks.
+     */
+    public int countTaggedUnder(String tagName) {
+        Tag top = tags.get(tagName);
+        return (top == null ? 0 : top.size()) + tagsByName.countWithPrefix(tagName + Tag.SEPARATOR);
+    }
+
+    /**
+     * Finds a tag that would stop a move, one that already has a name the move would give to another tag.
+     *
+     * @param from normalised name of the tag at the top of the tags to move.
+     * @param to normalised name to move them to.
+     * @return the name of the first such tag, or null if the move can be made.
+     */
+    public String getMoveConflict(String from, String to) {
+        for (Tag tag : getSubtree(from)) {
+            String moved = to + tag.getTagName().substring(from.length());
+            if (tags.containsKey(moved) && !Tag.isUnder(moved, from)) {
+                return moved;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves a tag and every tag under it, so work/proja moved to archive/proja takes work/proja/backend with
+     * it to archive/proja/backend. Only the moved tags are renamed and re-indexed, the tasks keep the same
+     * tags and are never visited. The move must have no conflict.
+     *
+     * @param from normalised name of the tag at the top of the tags to move.
+     * @param to normalised name to move them to.
+     * @return number of tags moved.
+     */
+    public int moveTags(String from, String to) {
+        assert getMoveConflict(from, to) == null;
+        List<Tag> moved = getSubtree(from);
+        List<String> oldNames = new ArrayList<>(moved.size());
+        List<String> names = new ArrayList<>(moved.size());
+        for (Tag tag : moved) {
+            oldNames.add(tag.getTagName());
+            names.add(to + tag.getTagName().substring(from.length()));
+        }
+        rename(moved, names);
+        if (changes.isObserved()) {
+            for (int i = 0; i < moved.size(); i++) {
+                changes.emit(ChangeEvent.tagRenamed(oldNames.get(i), names.get(i)));
+            }
+        }
+        return moved.size();
+    }
+
+    /**
+     * Renames a single tag, leaving any tags under it where they are. Costs the same however many tasks
+     * carry the tag, as the tasks hold the tag itself and not its name. No tag may have the new name.
+     *
+     * @param tagName normalised name of the tag.
+     * @param newName normalised new name.
+     */
+    public void renameTag(String tagName, String newName) {
+        Tag tag = tags.get(tagName);
+        assert tag != null && !tags.containsKey(newName);
+        rename(List.of(tag), List.of(newName));
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.tagRenamed(tagName, newName));
+        }
+    }
+
+    /**
+     * Merges a tag into another, so every task under either ends up under the second, and removes the first.
+     * Only the tasks of the smaller tag are moved: if the merged tag is the larger one, it takes the name of
+     * the other instead, so the cost is O(tasks under the smaller tag).
+     *
+     * @param tagName normalised name of the tag to merge, which is removed.
+     * @param intoName normalised name of the tag to merge it into, which keeps its name.
+     * @return number of tasks that were not already under both tags.
+     */
+    public int mergeTags(String tagName, String intoName) {
+        Tag source = tags.get(tagName);
+        Tag target = tags.get(intoName);
+        assert source != null && target != null && source != target;
+        boolean isSourceKept = source.size() > target.size();
+        Tag kept = isSourceKept ? source : target;
+        Tag merged = isSourceKept ? target : source;
+        int targetSize = target.size();
+        for (Task task : new ArrayList<>(merged.getTaggedTasks())) {
+            moveTask(task, merged, kept);
+        }
+        unindex(merged);
+        merged.setOwner(null);
+        if (undoLog != null) {
+            undoLog.record(() -> {
+                merged.setOwner(this);
+                index(merged);
+            });
+        }
+        if (isSourceKept) {
+            rename(List.of(kept), List.of(intoName));
+        }
+        version++;
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.tagMerged(tagName, intoName));
+        }
+        return kept.size() - targetSize;
+    }
+
+    private void moveTask(Task task, Tag from, Tag to) {
+        from.untagTask(task);
+        task.removeTag(from);
+        if (undoLog != null) {
+            undoLog.record(() -> {
+                task.addTag(from);
+                from.tagTask(task);
+            });
+        }
+        if (to.isTagged(task)) {
+            return;
+        }
+        to.tagTask(task);
+        task.addTag(to);
+        if (undoLog != null) {
+            undoLog.record(() -> {
+                to.untagTask(task);
+                task.removeTag(to);
+            });
+        }
+    }
+
+    private void rename(List<Tag> renamed, List<String> names) {
+        List<String> oldNames = new ArrayList<>(renamed.size());
+        // every tag is taken out before any is put back, as a new name may be the old name of another
+        for (Tag tag : renamed) {
+            oldNames.add(tag.getTagName());
+            unindex(tag);
+        }
+        for (int i = 0; i < renamed.size(); i++) {
+            renamed.get(i).rename(names.get(i));
+            index(renamed.get(i));
+        }
+        if (undoLog != null) {
+            undoLog.record(() -> rename(renamed, oldNames));
+        }
+        version++;
+    }
+
+    private void index(Tag tag) {
+        tags.put(tag.getTagName(), tag);
+        tagsBySize.add(tag);
+        tagsByName.put(tag);
+    }
+
+    private void unindex(Tag tag) {
+        tags.remove(tag.getTagName());
+        tagsBySize.remove(tag);
+        tagsByName.remove(tag.getTagName());
+    }
+
+    /**
+     * Gets the number of tags in the list.
+     *
+     * @return number of tags.
+     */
+    public int size() {
+        return tags.size();
+    }
+
+    /**
+     * Gets the tags with the most tagged tasks, largest first.
+     *
+     * @param limit maximum number of tags to return.
+     * @return list of at most limit tags.
+     */
+    public List<Tag> getLargestTags(int limit) {
+        List<Tag> largest = new ArrayList<>(Math.min(limit, tagsBySize.size()));
+        Iterator<Tag> it = tagsBySize.iterator();
+        while (it.hasNext() && largest.size() < limit) {
+            largest.add(it.next());
+        }
+        return largest;
+    }
+
+    /**
+     * Removes every tag that no longer has any tasks under it.
+     *
+     * @return number of tags removed.
+     */
+    public int removeEmptyTags() {
+        int removed = 0;
+        while (!tagsBySize.isEmpty() && tagsBySize.last().size() == 0) {
+            Tag empty = tagsBySize.pollLast();
+            tags.remove(empty.getTagName());
+            tagsByName.remove(empty.getTagName());
+            empty.setOwner(null);
+            removed++;
+            if (changes.isObserved()) {
+                changes.emit(ChangeEvent.tagRemoved(empty.getTagName()));
+            }
+        }
+        if (removed > 0) {
+            version++;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes those of some tags that no longer have any tasks under them, such as the tags of a deleted task.
+     * Unlike removeEmptyTags only the tags given are looked at, and each removal can be rolled back.
+     *
+     * @param candidates tags that may have become empty.
+     * @return number of tags removed.
+     */
+    public int removeIfEmpty(Iterable<Tag> candidates) {
+        int removed = 0;
+        for (Tag tag : candidates) {
+            if (tag.size() == 0 && tags.get(tag.getTagName()) == tag) {
+                removeTag(tag.getTagName());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Gets the modification version of the tag list, incremented on every change.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Takes a tag out of the size ordering before its task count changes.
+     *
+     * @param tag the tag about to be resized.
+     */
+    void beforeResize(Tag tag) {
+        tagsBySize.remove(tag);
+    }
+
+    /**
+     * Puts a tag back into the size ordering after its task count changed.
+     *
+     * @param tag the tag that was resized.
+     */
+    void afterResize(Tag tag) {
+        tagsBySize.add(tag);
+        tagsByName.resized(tag);
+        version++;
+    }
+
+    private void detach(Tag tag) {
+        tagsBySize.remove(tag);
+        tag.setOwner(null);
+    }
+
 
 }
@@ -0,0 +1,289 @@
+package tags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted radix tree of tags keyed by name.
+ * Names sharing a start share the nodes for it, and a node only exists where names branch or end, so a node
+ * and its edge label stand for the longest start shared by every name below it. Children are kept in order of
+ * their first character, so walking the tree lists names in sorted order, and the names with a given prefix
+ * are one subtree found in O(length of prefix).
+ * Each node also carries the number of tasks under the tags below it, kept up to date as tags are resized,
+ * so counting the tasks under a prefix costs no more than finding it.
+ */
+final class TagTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_KEYS = new char[0];
+
+    private final Node root = new Node("");
+    private int size;
+
+    private static final class Node {
+        /** Characters on the edge from the parent, never empty except at the root. */
+        String label;
+        /** Tag whose name ends at this node, or null if the node is only a branch. */
+        Tag tag;
+        /** Size of the tag when it was last counted. */
+        int tagSize;
+        /** Tasks under every tag in this subtree, a task counted once per tag it carries. */
+        int count;
+        /** First character of each child's label, ascending. */
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(keys, c);
+        }
+
+        void addChild(Node child) {
+            int at = -indexOf(child.label.charAt(0)) - 1;
+            keys = insert(keys, at, child.label.charAt(0));
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        void removeChild(int at) {
+            char[] fewerKeys = new char[keys.length - 1];
+            Node[] fewer = new Node[children.length - 1];
+            System.arraycopy(keys, 0, fewerKeys, 0, at);
+            System.arraycopy(keys, at + 1, fewerKeys, at, keys.length - at - 1);
+            System.arraycopy(children, 0, fewer, 0, at);
+            System.arraycopy(children, at + 1, fewer, at, children.length - at - 1);
+            keys = fewerKeys;
+            children = fewer;
+        }
+
+        private static char[] insert(char[] keys, int at, char key) {
+            char[] grown = new char[keys.length + 1];
+            System.arraycopy(keys, 0, grown, 0, at);
+            grown[at] = key;
+            System.arraycopy(keys, at, grown, at + 1, keys.length - at);
+            return grown;
+        }
+    }
+
+    /**
+     * Gets the number of tags in the tree.
+     *
+     * @return number of tags.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a tag, replacing any tag with the same name.
+     *
+     * @param tag the tag.
+     */
+    void put(Tag tag) {
+        String name = tag.getTagName();
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < name.length()) {
+            int at = node.indexOf(name.charAt(i));
+            if (at < 0) {
+                Node leaf = new Node(name.substring(i));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[at];
+            int shared = sharedLength(child.label, name, i);
+            if (shared < child.label.length()) {
+                Node branch = new Node(child.label.substring(0, shared));
+                child.label = child.label.substring(shared);
+                branch.keys = new char[] {child.label.charAt(0)};
+                branch.children = new Node[] {child};
+                branch.count = child.count;
+                node.children[at] = branch;
+                child = branch;
+            }
+            node = child;
+            path.add(node);
+            i += shared;
+        }
+        if (node.tag == null) {
+            size++;
+        }
+        node.tag = tag;
+        addToPath(path, tag.size() - node.tagSize);
+        node.tagSize = tag.size();
+    }
+
+    private static int sharedLength(String label, String name, int from) {
+        int max = Math.min(label.length(), name.length() - from);
+        int shared = 0;
+        while (shared < max && label.charAt(shared) == name.charAt(from + shared)) {
+            shared++;
+        }
+        return shared;
+    }
+
+    private static void addToPath(List<Node> path, int delta) {
+        if (delta != 0) {
+            for (Node node : path) {
+                node.count += delta;
+            }
+        }
+    }
+
+    /**
+     * Finds the nodes from the root to where a name ends.
+     *
+     * @return the path, or null if no node ends exactly at the name.
+     */
+    private List<Node> pathTo(String name) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < name.length()) {
+            int at = node.indexOf(name.charAt(i));
+            if (at < 0 || !name.startsWith(node.children[at].label, i)) {
+                return null;
+            }
+            node = node.children[at];
+            path.add(node);
+            i += node.label.length();
+        }
+        return path;
+    }
+
+    /**
+     * Removes the tag with a name.
+     *
+     * @param name the name.
+     * @return the tag removed, or null if there was none.
+     */
+    Tag remove(String name) {
+        List<Node> path = pathTo(name);
+        Node node = path == null ? null : path.get(path.size() - 1);
+        if (node == null || node.tag == null) {
+            return null;
+        }
+        Tag removed = node.tag;
+        addToPath(path, -node.tagSize);
+        node.tag = null;
+        node.tagSize = 0;
+        size--;
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node current = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (current.tag != null) {
+                break;
+            }
+            if (current.children.length == 0) {
+                parent.removeChild(parent.indexOf(current.label.charAt(0)));
+            } else if (current.children.length == 1) {
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.children[parent.indexOf(current.label.charAt(0))] = only;
+                break;
+            } else {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Brings the task counts up to date after a tag gained or lost tasks.
+     *
+     * @param tag a tag in the tree.
+     */
+    void resized(Tag tag) {
+        List<Node> path = pathTo(tag.getTagName());
+        Node node = path == null ? null : path.get(path.size() - 1);
+        if (node == null || node.tag != tag) {
+            return;
+        }
+        addToPath(path, tag.size() - node.tagSize);
+        node.tagSize = tag.size();
+    }
+
+    /**
+     * Finds the subtree of names starting with a prefix.
+     *
+     * @param prefix start of the names.
+     * @param matched receives the part of the names leading to the subtree, which may run past the prefix.
+     * @return the subtree's node, or null if no name starts with the prefix.
+     */
+    private Node find(String prefix, StringBuilder matched) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int at = node.indexOf(prefix.charAt(i));
+            if (at < 0) {
+                return null;
+            }
+            Node child = node.children[at];
+            int shared = sharedLength(child.label, prefix, i);
+            if (shared < child.label.length() && i + shared < prefix.length()) {
+                return null;
+            }
+            node = child;
+            matched.append(child.label);
+            i += child.label.length();
+        }
+        return node;
+    }
+
+    /**
+     * Gets the tags whose names start with a prefix, in order of name.
+     *
+     * @param prefix start of the names, empty for every tag.
+     * @return the tags.
+     */
+    List<Tag> withPrefix(String prefix) {
+        List<Tag> tags = new ArrayList<>();
+        Node node = find(prefix, new StringBuilder());
+        if (node != null) {
+            collect(node, tags);
+        }
+        return tags;
+    }
+
+    private static void collect(Node node, List<Tag> tags) {
+        if (node.tag != null) {
+            tags.add(node.tag);
+        }
+        for (Node child : node.children) {
+            collect(child, tags);
+        }
+    }
+
+    /**
+     * Counts the tasks under the tags whose names start with a prefix, a task counted once per tag it carries.
+     *
+     * @param prefix start of the names.
+     * @return number of tasks.
+     */
+    int countWithPrefix(String prefix) {
+        Node node = find(prefix, new StringBuilder());
+        return node == null ? 0 : node.count;
+    }
+
+    /**
+     * Extends a prefix as far as every name starting with it agrees.
+     *
+     * @param prefix start of the names.
+     * @return the longest start shared by every name with the prefix, or null if no name has it.
+     */
+    String complete(String prefix) {
+        StringBuilder matched = new StringBuilder();
+        return find(prefix, matched) == null ? null : matched.toString();
+    }
+}
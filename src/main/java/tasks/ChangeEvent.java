@@ -0,0 +1,180 @@
+package tasks;
+
+/**
+ * A single change to the task list or tag list, as delivered to a ChangeListener.
+ * Positions are zero-based list positions at the moment of the change, so applying the events of a batch
+ * in order to a copy of the list keeps the copy in step.
+ */
+public final class ChangeEvent {
+
+    /**
+     * What changed.
+     */
+    public enum Kind {
+        /** A task was added at the end of the list. */
+        ADDED,
+        /** A task was deleted, later tasks move up one position. */
+        REMOVED,
+        /** A task was marked done or undone. */
+        STATUS_CHANGED,
+        /** A task was given a tag. */
+        TAGGED,
+        /** A tag was taken off a task. */
+        UNTAGGED,
+        /** A tag was added to the tag list. */
+        TAG_CREATED,
+        /** A tag was removed from the tag list. */
+        TAG_REMOVED,
+        /** A tag was renamed, every task carrying it now shows the new name. */
+        TAG_RENAMED,
+        /** A tag was merged into another and removed, every task carrying it now carries the other. */
+        TAG_MERGED
+    }
+
+    private final Kind kind;
+    private final Task task;
+    private final int taskId;
+    private final int position;
+    private final boolean isDone;
+    private final String tagName;
+    private final String oldTagName;
+
+    private ChangeEvent(Kind kind, Task task, int position, String tagName) {
+        this(kind, task, position, tagName, null);
+    }
+
+    private ChangeEvent(Kind kind, Task task, int position, String tagName, String oldTagName) {
+        this.kind = kind;
+        this.task = task;
+        this.taskId = task == null ? -1 : task.getId();
+        this.isDone = task != null && task.getStatus();
+        this.position = position;
+        this.tagName = tagName;
+        this.oldTagName = oldTagName;
+    }
+
+    static ChangeEvent added(Task task, int position) {
+        return new ChangeEvent(Kind.ADDED, task, position, null);
+    }
+
+    static ChangeEvent removed(Task task, int position) {
+        return new ChangeEvent(Kind.REMOVED, task, position, null);
+    }
+
+    static ChangeEvent statusChanged(Task task, int position) {
+        return new ChangeEvent(Kind.STATUS_CHANGED, task, position, null);
+    }
+
+    static ChangeEvent tagged(Task task, int position, String tagName) {
+        return new ChangeEvent(Kind.TAGGED, task, position, tagName);
+    }
+
+    static ChangeEvent untagged(Task task, int position, String tagName) {
+        return new ChangeEvent(Kind.UNTAGGED, task, position, tagName);
+    }
+
+    /**
+     * Creates the event for a tag added to a tag list.
+     *
+     * @param tagName name of the tag.
+     * @return the event.
+     */
+    public static ChangeEvent tagCreated(String tagName) {
+        return new ChangeEvent(Kind.TAG_CREATED, null, -1, tagName);
+    }
+
+    /**
+     * Creates the event for a tag removed from a tag list.
+     *
+     * @param tagName name of the tag.
+     * @return the event.
+     */
+    public static ChangeEvent tagRemoved(String tagName) {
+        return new ChangeEvent(Kind.TAG_REMOVED, null, -1, tagName);
+    }
+
+    /**
+     * Creates the event for a tag renamed in a tag list.
+     *
+     * @param oldTagName name the tag had.
+     * @param tagName name the tag has now.
+     * @return the event.
+     */
+    public static ChangeEvent tagRenamed(String oldTagName, String tagName) {
+        return new ChangeEvent(Kind.TAG_RENAMED, null, -1, tagName, oldTagName);
+    }
+
+    /**
+     * Creates the event for a tag merged into another in a tag list.
+     *
+     * @param mergedTagName name of the tag that was merged and is gone.
+     * @param tagName name of the tag it was merged into.
+     * @return the event.
+     */
+    public static ChangeEvent tagMerged(String mergedTagName, String tagName) {
+        return new ChangeEvent(Kind.TAG_MERGED, null, -1, tagName, mergedTagName);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the task that changed.
+     *
+     * @return the task, or null for changes to the tag list.
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Gets the id of the task that changed.
+     *
+     * @return the task's stable id, or -1 for changes to the tag list.
+     */
+    public int getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Gets the position of the task when it changed.
+     *
+     * @return zero-based list position, or -1 for changes to the tag list.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the status of the task just after the change.
+     *
+     * @return true if the task was done.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Gets the tag involved in a tag change.
+     *
+     * @return name of the tag, or null for changes that do not involve a tag.
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * Gets the name a renamed tag had before, or the name of a tag merged into another.
+     *
+     * @return the old name, or null for changes other than a rename or merge.
+     */
+    public String getOldTagName() {
+        return oldTagName;
+    }
+
+    @Override
+    public String toString() {
+        return kind + "(id " + taskId + " at " + position + (tagName == null ? "" : ", " + tagName) + ")";
+    }
+}
@@ -0,0 +1,145 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Stream of the changes made to a TaskList and TagList, delivered to listeners in batches.
+ * Changes made between beginBatch and endBatch, such as everything one command did, are delivered together
+ * when the outermost batch ends. Outside a batch every change is delivered on its own straight away.
+ * Synchronous listeners are called on the thread making the changes, while it still holds the lists, so they
+ * see the lists exactly as the batch left them and should return quickly. Asynchronous listeners are handed
+ * the batch through their executor.
+ * Changes are only emitted by the single writer, listeners may be added and removed from any thread.
+ */
+public class ChangeFeed {
+    private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+    private final List<ChangeEvent> pending = new ArrayList<>();
+    private int depth;
+
+    private static final class Registration {
+        final ChangeListener listener;
+        final Executor executor;
+
+        Registration(ChangeListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Adds a listener called on the writer thread as each batch ends.
+     *
+     * @param listener the listener.
+     */
+    public void addListener(ChangeListener listener) {
+        listeners.add(new Registration(listener, null));
+    }
+
+    /**
+     * Adds a listener that is handed each batch through an executor.
+     * Batches reach the listener in order if the executor runs one task at a time.
+     *
+     * @param listener the listener.
+     * @param executor runs the listener.
+     */
+    public void addListener(ChangeListener listener, Executor executor) {
+        listeners.add(new Registration(listener, executor));
+    }
+
+    /**
+     * Removes a listener however it was added.
+     *
+     * @param listener the listener.
+     */
+    public void removeListener(ChangeListener listener) {
+        listeners.removeIf(registration -> registration.listener == listener);
+    }
+
+    /**
+     * Checks if anyone is listening, so changes need not be described when nobody is.
+     *
+     * @return true if at least one listener is registered.
+     */
+    public boolean isObserved() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Starts a batch. Batches nest, only the outermost one delivers.
+     */
+    public void beginBatch() {
+        depth++;
+    }
+
+    /**
+     * Ends a batch, delivering its changes if it is the outermost one.
+     */
+    public void endBatch() {
+        assert depth > 0;
+        depth--;
+        if (depth == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Records a change, delivering it at once if no batch is open.
+     *
+     * @param event the change.
+     */
+    public void emit(ChangeEvent event) {
+        pending.add(event);
+        if (depth == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Gets a mark for the changes recorded so far in the open batch.
+     *
+     * @return the mark.
+     */
+    public int mark() {
+        return pending.size();
+    }
+
+    /**
+     * Drops the changes recorded since a mark, for a transaction that was rolled back.
+     *
+     * @param mark a mark taken in the open batch.
+     */
+    public void discardSince(int mark) {
+        if (mark < pending.size()) {
+            pending.subList(mark, pending.size()).clear();
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ChangeEvent> batch = List.copyOf(pending);
+        pending.clear();
+        for (Registration registration : listeners) {
+            if (registration.executor == null) {
+                deliver(registration.listener, batch);
+            } else {
+                registration.executor.execute(() -> deliver(registration.listener, batch));
+            }
+        }
+    }
+
+    /**
+     * Calls a listener, so one failing listener cannot stop the writer or the other listeners.
+     */
+    private static void deliver(ChangeListener listener, List<ChangeEvent> batch) {
+        try {
+            listener.onChanges(batch);
+        } catch (RuntimeException e) {
+            System.out.println("Error in change listener: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package tasks;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to the task list and tag list, one batch per command.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Handles a batch of changes.
+     *
+     * @param changes the changes in the order they were made, unmodifiable.
+     */
+    void onChanges(List<ChangeEvent> changes);
+}
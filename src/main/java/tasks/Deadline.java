@@ -37,26 +37,30 @@ public class Deadline extends Task {
         this.dueDate = null;
     }
 
+    /**
+     * Gets the due date.
+     *
+     * @return the due date, or null if it was given as text that is not a date.
+     */
+    public LocalDateTime getDueDateObj() {
+        return this.dueDateObj;
+    }
+
     @Override
     public String getTaskSymbol() {
         return "D";
     }
     @Override
-    public String getDescription() {
-        if (this.dueDateObj != null) {
-            return super.getDescription() + String.format("( by %s ) " + this.getTags(),
-                    this.dueDateObj.format(parser.Parser.getPrintDateFormatter()));
-        }
-        return super.getDescription() + String.format("( by %s ) " + this.getTags(), this.dueDate);
+    protected String describe() {
+        return descNoTags() + " " + this.getTags();
     }
 
     @Override
     public String descNoTags() {
-        if (this.dueDateObj != null) {
-            return super.getDescription() + String.format("( by %s )",
-                    this.dueDateObj.format(parser.Parser.getPrintDateFormatter()));
-        }
-        return super.getDescription() + String.format("( by %s )", this.dueDate);
+        String due = this.dueDateObj != null
+                ? this.dueDateObj.format(parser.Parser.getPrintDateFormatter())
+                : this.dueDate;
+        return super.describe() + "( by " + due + " )";
     }
 
 }
@@ -54,30 +54,40 @@ public class Event extends Task {
     }
 
 
+    /**
+     * Gets the start date.
+     *
+     * @return the start date, or null if it was given as text that is not a date.
+     */
+    public LocalDateTime getStartDateObj() {
+        return this.startDateObj;
+    }
+
+    /**
+     * Gets the end date.
+     *
+     * @return the end date, or null if it was given as text that is not a date.
+     */
+    public LocalDateTime getEndDateObj() {
+        return this.endDateObj;
+    }
+
     @Override
     public String getTaskSymbol() {
         return "E";
     }
     @Override
-    public String getDescription() {
-
-        if (this.startDateObj != null && this.endDateObj != null) {
-            return super.getDescription() + String.format("( from %s to %s ) " + this.getTags(),
-                    this.startDateObj.format(parser.Parser.getPrintDateFormatter()),
-                    this.endDateObj.format(parser.Parser.getPrintDateFormatter()));
-        }
-        return super.getDescription() + String.format("( from %s to %s ) "
-                + this.getTags(), this.startDate, this.endDate);
+    protected String describe() {
+        return descNoTags() + " " + this.getTags();
     }
 
 
     @Override
     public String descNoTags() {
         if (this.startDateObj != null && this.endDateObj != null) {
-            return super.getDescription() + String.format("( from %s to %s )",
-                    this.startDateObj.format(parser.Parser.getPrintDateFormatter()),
-                    this.endDateObj.format(parser.Parser.getPrintDateFormatter()));
+            return super.describe() + "( from " + this.startDateObj.format(parser.Parser.getPrintDateFormatter())
+                    + " to " + this.endDateObj.format(parser.Parser.getPrintDateFormatter()) + " )";
         }
-        return super.getDescription() + String.format("( from %s to %s )", this.startDate, this.endDate);
+        return super.describe() + "( from " + this.startDate + " to " + this.endDate + " )";
     }
 }
@@ -0,0 +1,103 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tags.Tag;
+import tags.TagList;
+
+/**
+ * Search that remembers its last matches, for showing results while a query is being typed.
+ * When the new query contains the last one and neither the tasks nor the tags have changed since, every match of
+ * the new query is among the last matches, so only those are checked again instead of the whole list. A tag
+ * rename changes the descriptions of its tasks without changing the task list, so the tag list's version is
+ * checked too, as SearchCache does.
+ * A search that is cancelled part way leaves the remembered matches as they were.
+ * Not thread-safe, it is meant to be used by one search thread holding the read lock.
+ */
+public class IncrementalSearch {
+    private static final int[] NONE = new int[0];
+
+    private String lastKeywords;
+    private long taskVersion = -1;
+    private long tagVersion = -1;
+    private int[] matches = NONE;
+
+    /** Number of tasks the last find looked at, for seeing how much narrowing saved. */
+    private int scanned;
+
+    /**
+     * Finds the tasks whose description contains the keywords, as find does.
+     *
+     * @param taskList the tasks to search.
+     * @param tagList the tags of the tasks, whose names are part of the descriptions searched.
+     * @param keywords text to look for.
+     * @param limit most matches to return, the rest are only counted.
+     * @return the first matches with their positions, and the number of matches in all.
+     */
+    public ListView find(TaskList taskList, TagList tagList, String keywords, int limit) {
+        TaskSnapshot tasks = taskList.snapshot();
+        boolean canNarrow = lastKeywords != null && tasks.getVersion() == taskVersion
+                && tagList.getVersion() == tagVersion && keywords.contains(lastKeywords);
+        int[] found = canNarrow ? narrow(tasks, keywords) : scan(tasks, keywords);
+        lastKeywords = keywords;
+        taskVersion = tasks.getVersion();
+        tagVersion = tagList.getVersion();
+        matches = found;
+
+        int shown = Math.min(limit, found.length);
+        List<Task> page = new ArrayList<>(shown);
+        for (int i = 0; i < shown; i++) {
+            page.add(tasks.get(found[i]));
+        }
+        return new ListView(page, Arrays.copyOf(found, shown), found.length, 0);
+    }
+
+    private int[] scan(TaskSnapshot tasks, String keywords) {
+        int[] found = new int[16];
+        int count = 0;
+        int index = 0;
+        for (Task task : tasks) {
+            TaskList.checkCancelled(index);
+            if (task.getDescription().contains(keywords)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = index;
+            }
+            index++;
+        }
+        scanned = index;
+        return Arrays.copyOf(found, count);
+    }
+
+    private int[] narrow(TaskSnapshot tasks, String keywords) {
+        int[] found = new int[matches.length];
+        int count = 0;
+        for (int i = 0; i < matches.length; i++) {
+            TaskList.checkCancelled(i);
+            if (tasks.get(matches[i]).getDescription().contains(keywords)) {
+                found[count++] = matches[i];
+            }
+        }
+        scanned = matches.length;
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Finds the tags whose names start with a prefix. The tag list keeps its names in a sorted trie, so this
+     * needs no memory of earlier searches.
+     *
+     * @param tagList the tags to search.
+     * @param prefix start of the tag name, in lower case as tags are.
+     * @return the matching tags, sorted by name.
+     */
+    public List<Tag> findTags(TagList tagList, String prefix) {
+        return tagList.getTagsWithPrefix(prefix);
+    }
+
+    int getScanned() {
+        return scanned;
+    }
+}
@@ -0,0 +1,92 @@
+package tasks;
+
+/**
+ * Options of a list command: which tasks to show, in what order, and which part of the result.
+ */
+public class ListOptions {
+    /** Number of tasks on a page of list page N. */
+    public static final int PAGE_SIZE = 20;
+
+    /** Every task, in list order. */
+    public static final ListOptions ALL = new ListOptions(null, null, Sort.LIST_ORDER, 0, Integer.MAX_VALUE);
+
+    /**
+     * Order the listed tasks are shown in.
+     */
+    public enum Sort {
+        /** Order the tasks were added in. */
+        LIST_ORDER,
+        /** Earliest deadline first, tasks without a due date last. */
+        DUE,
+        /** Earliest event first, tasks without a start date last. */
+        START,
+        /** Alphabetical by description. */
+        DESCRIPTION,
+        /** Alphabetical by first tag, untagged tasks last. */
+        TAG
+    }
+
+    private final Boolean status;
+    private final String taskSymbol;
+    private final Sort sort;
+    private final int offset;
+    private final int limit;
+
+    /**
+     * Creates list options.
+     *
+     * @param status status of the tasks to show, or null for all.
+     * @param taskSymbol symbol of the type of task to show, such as "D", or null for all.
+     * @param sort order to show the tasks in.
+     * @param offset number of matching tasks to skip.
+     * @param limit most tasks to show.
+     */
+    public ListOptions(Boolean status, String taskSymbol, Sort sort, int offset, int limit) {
+        assert offset >= 0 && limit >= 0;
+        this.status = status;
+        this.taskSymbol = taskSymbol;
+        this.sort = sort;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Gets the status of the tasks to show.
+     *
+     * @return true for done tasks, false for undone tasks, or null for both.
+     */
+    public Boolean getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the symbol of the type of task to show.
+     *
+     * @return a symbol such as "D", or null for every type.
+     */
+    public String getTaskSymbol() {
+        return taskSymbol;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks if these options show every task in list order, like a plain list.
+     *
+     * @return true if nothing is filtered, sorted or paged.
+     */
+    public boolean isAll() {
+        return status == null && taskSymbol == null && sort == Sort.LIST_ORDER
+                && offset == 0 && limit == Integer.MAX_VALUE;
+    }
+}
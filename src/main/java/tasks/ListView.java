@@ -0,0 +1,71 @@
+package tasks;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of tasks picked out by ListOptions, along with where each task sits in the list.
+ * The rows of the page are captured when it is made, under the lock, so it can be shown after the lock is released.
+ */
+public class ListView {
+    private final List<Task> tasks;
+    private final List<TaskRow> rows;
+    private final int[] positions;
+    private final int matching;
+    private final int offset;
+
+    ListView(List<Task> tasks, int[] positions, int matching, int offset) {
+        assert tasks.size() == positions.length;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.rows = Collections.unmodifiableList(TaskRow.rowsOf(tasks));
+        this.positions = positions;
+        this.matching = matching;
+        this.offset = offset;
+    }
+
+    /**
+     * Gets the tasks on the page, in the order asked for.
+     *
+     * @return unmodifiable list of tasks.
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Gets the tasks on the page as they were when the page was made.
+     *
+     * @return unmodifiable list of rows, in the same order as getTasks.
+     */
+    public List<TaskRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets where a task on the page sits in the full list, so it can be shown with the number mark or delete use.
+     *
+     * @param index position on the page.
+     * @return zero-based position in the task list.
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets the number of tasks that passed the filters, on this page or any other.
+     *
+     * @return number of matching tasks.
+     */
+    public int getMatching() {
+        return matching;
+    }
+
+    /**
+     * Gets the number of matching tasks before this page.
+     *
+     * @return number of matching tasks skipped.
+     */
+    public int getOffset() {
+        return offset;
+    }
+}
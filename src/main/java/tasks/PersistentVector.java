@@ -0,0 +1,278 @@
+package tasks;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable vector stored as a 32-way trie with a separate tail block.
+ * Every update returns a new vector that shares all untouched blocks with the old one, so appending or
+ * replacing an element copies at most one path of the trie, and holding on to an old version costs nothing.
+ *
+ * @param <E> type of element held.
+ */
+public final class PersistentVector<E> implements Iterable<E> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int count;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int count, int shift, Object[] root, Object[] tail) {
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the empty vector.
+     *
+     * @param <E> type of element held.
+     * @return the empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Builds a vector holding the elements of a list in order, without intermediate versions.
+     *
+     * @param elements elements to hold.
+     * @param <E> type of element held.
+     * @return vector of the elements.
+     */
+    public static <E> PersistentVector<E> copyOf(List<? extends E> elements) {
+        return fromArray(elements.toArray(), elements.size());
+    }
+
+    private static <E> PersistentVector<E> fromArray(Object[] elements, int size) {
+        if (size == 0) {
+            return empty();
+        }
+        int tailOffset = ((size - 1) >>> BITS) << BITS;
+        Object[] tail = Arrays.copyOfRange(elements, tailOffset, size);
+        Object[][] level = new Object[tailOffset / WIDTH][];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(elements, i * WIDTH, (i + 1) * WIDTH);
+        }
+        int shift = BITS;
+        while (level.length > WIDTH) {
+            Object[][] parents = new Object[(level.length + MASK) / WIDTH][];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Object[WIDTH];
+                System.arraycopy(level, i * WIDTH, parents[i], 0, Math.min(WIDTH, level.length - i * WIDTH));
+            }
+            level = parents;
+            shift += BITS;
+        }
+        Object[] root = new Object[WIDTH];
+        System.arraycopy(level, 0, root, 0, level.length);
+        return new PersistentVector<>(size, shift, root, tail);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the element at index.
+     *
+     * @param index position of the element.
+     * @return the element.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) blockFor(index)[index & MASK];
+    }
+
+    /**
+     * Returns a vector with the element added at the end.
+     *
+     * @param element the element to add.
+     * @return the new vector.
+     */
+    public PersistentVector<E> append(E element) {
+        if (count - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(count + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((count >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(count + 1, newShift, newRoot, new Object[] {element});
+    }
+
+    /**
+     * Returns a vector with the element at index replaced.
+     *
+     * @param index position to replace.
+     * @param element the new element.
+     * @return the new vector.
+     */
+    public PersistentVector<E> set(int index, E element) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(count, shift, root, newTail);
+        }
+        return new PersistentVector<>(count, shift, replaceIn(shift, root, index, element), tail);
+    }
+
+    /**
+     * Returns a vector without the element at index.
+     * Removing the last element only trims the tail, anywhere else the later elements are shifted down.
+     *
+     * @param index position to remove.
+     * @return the new vector.
+     */
+    public PersistentVector<E> remove(int index) {
+        checkIndex(index);
+        if (index == count - 1 && tail.length > 1) {
+            return new PersistentVector<>(count - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        return removeAll(new int[] {index});
+    }
+
+    /**
+     * Returns a vector without the elements at the given positions, compacting the rest in a single pass.
+     *
+     * @param sortedIndices strictly ascending positions to remove.
+     * @return the new vector.
+     */
+    public PersistentVector<E> removeAll(int[] sortedIndices) {
+        if (sortedIndices.length == 0) {
+            return this;
+        }
+        checkIndex(sortedIndices[0]);
+        checkIndex(sortedIndices[sortedIndices.length - 1]);
+        for (int i = 1; i < sortedIndices.length; i++) {
+            if (sortedIndices[i] <= sortedIndices[i - 1]) {
+                throw new IllegalArgumentException("Indices must be strictly ascending");
+            }
+        }
+        Object[] elements = new Object[count - sortedIndices.length];
+        int next = 0;
+        int skip = 0;
+        for (int blockStart = 0; blockStart < count; blockStart += WIDTH) {
+            Object[] block = blockFor(blockStart);
+            for (int i = 0; i < block.length && blockStart + i < count; i++) {
+                if (skip < sortedIndices.length && blockStart + i == sortedIndices[skip]) {
+                    skip++;
+                } else {
+                    elements[next++] = block[i];
+                }
+            }
+        }
+        return fromArray(elements, elements.length);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Iterates from a starting index, reading one block at a time.
+     *
+     * @param from index of the first element returned.
+     * @return iterator over the elements from index onwards.
+     */
+    public Iterator<E> iterator(int from) {
+        return new Iterator<>() {
+            private int index = from;
+            private Object[] block = index < count ? blockFor(index) : null;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0) {
+                    block = blockFor(index);
+                }
+                return (E) block[index++ & MASK];
+            }
+        };
+    }
+
+    private int tailOffset() {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+    }
+
+    private Object[] blockFor(int index) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailBlock) {
+        int subIndex = ((count - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        Object[] inserted;
+        if (level == BITS) {
+            inserted = tailBlock;
+        } else {
+            Object[] child = (Object[]) parent[subIndex];
+            inserted = child != null
+                    ? pushTail(level - BITS, child, tailBlock)
+                    : newPath(level - BITS, tailBlock);
+        }
+        copy[subIndex] = inserted;
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private static Object[] replaceIn(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            copy[subIndex] = replaceIn(level - BITS, (Object[]) node[subIndex], index, element);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,227 @@
+package tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import tags.Tag;
+
+/**
+ * What a query command asks for: the conditions every task must meet, the order and the part of the results
+ * to show, and whether to explain how the query is run rather than only running it.
+ * Text is matched ignoring case against the description the task was created with, tags match the tag and
+ * every tag under it, and dates are only known for deadlines (due) and events (start).
+ */
+public class Query {
+    private final Boolean status;
+    private final String taskSymbol;
+    private final List<String> tags;
+    private final List<String> texts;
+    private final DateRange due;
+    private final DateRange start;
+    private final ListOptions.Sort sort;
+    private final int offset;
+    private final int limit;
+    private final boolean isExplain;
+
+    /**
+     * Range of dates, from inclusive to exclusive, held as epoch seconds of the local date and time as the sort
+     * keys are.
+     */
+    public static final class DateRange {
+        /** Every date. */
+        public static final DateRange ALL = new DateRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+        private final long from;
+        private final long to;
+
+        private DateRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Creates the range of dates before a date.
+         *
+         * @param date the end of the range, not included.
+         * @return the range.
+         */
+        public static DateRange before(LocalDateTime date) {
+            return new DateRange(Long.MIN_VALUE, secondOf(date));
+        }
+
+        /**
+         * Creates the range of dates from a date onwards.
+         *
+         * @param date the start of the range, included.
+         * @return the range.
+         */
+        public static DateRange from(LocalDateTime date) {
+            return new DateRange(secondOf(date), Long.MAX_VALUE);
+        }
+
+        /**
+         * Narrows this range to the dates also in another.
+         *
+         * @param other the other range.
+         * @return the dates in both ranges, possibly none.
+         */
+        public DateRange and(DateRange other) {
+            return new DateRange(Math.max(from, other.from), Math.min(to, other.to));
+        }
+
+        boolean isAll() {
+            return from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+        }
+
+        long getFrom() {
+            return from;
+        }
+
+        long getTo() {
+            return to;
+        }
+
+        boolean contains(LocalDateTime date) {
+            if (date == null) {
+                return false;
+            }
+            long second = secondOf(date);
+            return second >= from && second < to;
+        }
+
+        static long secondOf(LocalDateTime date) {
+            return date.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        @Override
+        public String toString() {
+            if (from >= to) {
+                return "no date";
+            }
+            String after = from == Long.MIN_VALUE ? null : "from " + dateOf(from);
+            String before = to == Long.MAX_VALUE ? null : "before " + dateOf(to);
+            if (after == null) {
+                return before == null ? "any date" : before;
+            }
+            return before == null ? after : after + " and " + before;
+        }
+
+        private static LocalDateTime dateOf(long second) {
+            return LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Creates a query.
+     *
+     * @param status status to keep, or null for both.
+     * @param taskSymbol symbol of the type to keep, such as "D", or null for all.
+     * @param tags normalised names of tags every task must be under.
+     * @param texts text every task's description must contain, in lower case.
+     * @param due range the due date of a deadline must fall in, ALL for no condition.
+     * @param start range the start of an event must fall in, ALL for no condition.
+     * @param sort order of the results.
+     * @param offset number of results to skip.
+     * @param limit maximum number of results to show.
+     * @param isExplain whether to explain how the query is run.
+     */
+    public Query(Boolean status, String taskSymbol, List<String> tags, List<String> texts, DateRange due,
+                 DateRange start, ListOptions.Sort sort, int offset, int limit, boolean isExplain) {
+        assert offset >= 0 && limit >= 0;
+        this.status = status;
+        this.taskSymbol = taskSymbol;
+        this.tags = List.copyOf(tags);
+        this.texts = List.copyOf(texts);
+        this.due = due;
+        this.start = start;
+        this.sort = sort;
+        this.offset = offset;
+        this.limit = limit;
+        this.isExplain = isExplain;
+    }
+
+    public Boolean getStatus() {
+        return status;
+    }
+
+    public String getTaskSymbol() {
+        return taskSymbol;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<String> getTexts() {
+        return texts;
+    }
+
+    public DateRange getDue() {
+        return due;
+    }
+
+    public DateRange getStart() {
+        return start;
+    }
+
+    public ListOptions.Sort getSort() {
+        return sort;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isExplain() {
+        return isExplain;
+    }
+
+    /**
+     * Checks a task against every condition of the query.
+     *
+     * @param task the task.
+     * @return true if the task meets them all.
+     */
+    boolean matches(Task task) {
+        if (status != null && !status.equals(task.getStatus())) {
+            return false;
+        }
+        if (taskSymbol != null && !taskSymbol.equals(task.getTaskSymbol())) {
+            return false;
+        }
+        if (!due.isAll() && !(task instanceof Deadline && due.contains(((Deadline) task).getDueDateObj()))) {
+            return false;
+        }
+        if (!start.isAll() && !(task instanceof Event && start.contains(((Event) task).getStartDateObj()))) {
+            return false;
+        }
+        for (String tag : tags) {
+            if (!isUnderTag(task, tag)) {
+                return false;
+            }
+        }
+        if (!texts.isEmpty()) {
+            String desc = task.getDesc().toLowerCase();
+            for (String text : texts) {
+                if (!desc.contains(text)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUnderTag(Task task, String tagName) {
+        for (Tag tag : task.getTagSet()) {
+            if (Tag.isUnder(tag.getTagName(), tagName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
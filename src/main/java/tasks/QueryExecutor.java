@@ -0,0 +1,236 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import tags.TagList;
+
+/**
+ * Runs a query with a simple cost-based plan.
+ * Every condition that has an index is an access path: tags through their bitmaps of task ids, text through
+ * the trigram index, due and start dates through the date indexes, and status and type through the slot
+ * bitmaps, which is a scan of only the tasks of that status and type. Each path estimates how many tasks it
+ * would hand over, cheaply and from the index alone, and the one with the fewest is used to find candidates.
+ * Every candidate is then checked against all the conditions of the query, so a path only has to return a
+ * superset of the matches. Without any condition the plan is a single scan of the list.
+ */
+final class QueryExecutor {
+    private final Query query;
+    private final TaskSnapshot tasks;
+    private final Map<Integer, Task> tasksById;
+
+    /** One way of finding candidate tasks. */
+    private static final class Path {
+        final String name;
+        final int estimate;
+        /** Ids of the candidates, or null for a scan of the slot bitmaps. */
+        final Supplier<BitSet> ids;
+
+        Path(String name, int estimate, Supplier<BitSet> ids) {
+            this.name = name;
+            this.estimate = estimate;
+            this.ids = ids;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (~" + estimate + " tasks)";
+        }
+    }
+
+    private QueryExecutor(Query query, TaskSnapshot tasks, Map<Integer, Task> tasksById) {
+        this.query = query;
+        this.tasks = tasks;
+        this.tasksById = tasksById;
+    }
+
+    /**
+     * Runs a query.
+     *
+     * @param query the query.
+     * @param tasks the tasks as they are now.
+     * @param tasksById the same tasks by id.
+     * @param indexes the query indexes of the tasks.
+     * @param tagList the tags of the tasks.
+     * @return the page of results asked for, with the plan used.
+     */
+    static QueryResult run(Query query, TaskSnapshot tasks, Map<Integer, Task> tasksById, QueryIndexes indexes,
+                           TagList tagList) {
+        return new QueryExecutor(query, tasks, tasksById).run(indexes, tagList);
+    }
+
+    private QueryResult run(QueryIndexes indexes, TagList tagList) {
+        List<Path> paths = plan(indexes, tagList);
+        Path best = paths.get(0);
+        for (Path path : paths) {
+            if (path.estimate < best.estimate) {
+                best = path;
+            }
+        }
+        List<String> alternatives = new ArrayList<>();
+        for (Path path : paths) {
+            if (path != best) {
+                alternatives.add(path.toString());
+            }
+        }
+        return query.getSort() == ListOptions.Sort.LIST_ORDER
+                ? collectInOrder(best, alternatives)
+                : collectSorted(best, alternatives);
+    }
+
+    /**
+     * Lists the access paths of the query, the scan last so an index estimated as selective wins a tie.
+     */
+    private List<Path> plan(QueryIndexes indexes, TagList tagList) {
+        List<Path> paths = new ArrayList<>();
+        for (String tag : query.getTags()) {
+            paths.add(new Path("tag index on '" + tag + "'", tagList.countTaggedUnder(tag), () -> {
+                BitSet ids = tagList.getTaskIdsUnder(tag);
+                return ids == null ? new BitSet() : ids;
+            }));
+        }
+        for (String text : query.getTexts()) {
+            int estimate = indexes.estimateText(text);
+            if (estimate >= 0) {
+                paths.add(new Path("text index on \"" + text + "\"", estimate, () -> indexes.textCandidates(text)));
+            }
+        }
+        Boolean status = query.getStatus();
+        int type = TaskBitmaps.typeOf(query.getTaskSymbol());
+        Path scan = new Path(scanName(status, query.getTaskSymbol()), tasks.bitmaps().count(status, type), null);
+        int cap = scan.estimate;
+        for (Path path : paths) {
+            cap = Math.min(cap, path.estimate);
+        }
+        Query.DateRange due = query.getDue();
+        if (!due.isAll()) {
+            paths.add(new Path("due date index, " + due, indexes.estimateDue(due, cap),
+                    () -> indexes.dueCandidates(due)));
+        }
+        Query.DateRange start = query.getStart();
+        if (!start.isAll()) {
+            paths.add(new Path("start date index, " + start, indexes.estimateStart(start, cap),
+                    () -> indexes.startCandidates(start)));
+        }
+        paths.add(scan);
+        return paths;
+    }
+
+    private static String scanName(Boolean status, String taskSymbol) {
+        if (status == null && taskSymbol == null) {
+            return "scan of every task";
+        }
+        return "scan of the " + (status == null ? "" : status ? "done " : "undone ")
+                + (taskSymbol == null ? "tasks" : symbolName(taskSymbol)) + " through the bitmaps";
+    }
+
+    private static String symbolName(String taskSymbol) {
+        switch (taskSymbol) {
+        case "T":
+            return "todos";
+        case "D":
+            return "deadlines";
+        default:
+            return "events";
+        }
+    }
+
+    /**
+     * Hands the candidates of a path to a visitor in list order until it returns false.
+     *
+     * @return number of candidates visited.
+     */
+    private int visit(Path path, Predicate<Task> visitor) {
+        int visited = 0;
+        if (path.ids != null) {
+            BitSet ids = path.ids.get();
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                Task task = tasksById.get(id);
+                if (task == null) {
+                    continue;
+                }
+                TaskList.checkCancelled(visited++);
+                if (!visitor.test(task)) {
+                    break;
+                }
+            }
+            return visited;
+        }
+        TaskBitmaps bitmaps = tasks.bitmaps();
+        Boolean status = query.getStatus();
+        int type = TaskBitmaps.typeOf(query.getTaskSymbol());
+        int words = TaskBitmaps.wordCount(tasks.slotCount());
+        for (int word = 0; word < words; word++) {
+            for (int bits = bitmaps.matchWord(word, status, type); bits != 0; bits &= bits - 1) {
+                TaskList.checkCancelled(visited++);
+                if (!visitor.test(tasks.slots().get((word << 5) | Integer.numberOfTrailingZeros(bits)))) {
+                    return visited;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Collects a page in list order, stopping at the first match after the page.
+     */
+    private QueryResult collectInOrder(Path path, List<String> alternatives) {
+        int offset = query.getOffset();
+        long end = (long) offset + query.getLimit();
+        List<Task> page = new ArrayList<>();
+        boolean[] hasMore = new boolean[1];
+        int[] matched = new int[1];
+        int examined = visit(path, task -> {
+            if (!query.matches(task)) {
+                return true;
+            }
+            if (matched[0]++ >= end) {
+                hasMore[0] = true;
+                return false;
+            }
+            if (matched[0] > offset) {
+                page.add(task);
+            }
+            return true;
+        });
+        return new QueryResult(page, offset, hasMore[0], examined, path.toString(), alternatives);
+    }
+
+    /**
+     * Collects a page in sorted order, keeping only the tasks up to the end of the page in a bounded heap.
+     * Ids go up along the list, so they stand in for list positions when breaking ties.
+     */
+    private QueryResult collectSorted(Path path, List<String> alternatives) {
+        int offset = query.getOffset();
+        int end = (int) Math.min(Integer.MAX_VALUE - 1, (long) offset + query.getLimit());
+        PriorityQueue<TaskSortKey> kept = new PriorityQueue<>(Comparator.reverseOrder());
+        int[] matched = new int[1];
+        int examined = visit(path, task -> {
+            if (!query.matches(task)) {
+                return true;
+            }
+            matched[0]++;
+            TaskSortKey key = TaskSortKey.of(task, task.getId(), query.getSort());
+            if (kept.size() < end) {
+                kept.add(key);
+            } else if (end > 0 && key.compareTo(kept.peek()) < 0) {
+                kept.poll();
+                kept.add(key);
+            }
+            return true;
+        });
+        List<TaskSortKey> sorted = new ArrayList<>(kept);
+        sorted.sort(null);
+        List<Task> page = new ArrayList<>();
+        for (int i = offset; i < sorted.size(); i++) {
+            page.add(sorted.get(i).task);
+        }
+        return new QueryResult(page, offset, matched[0] > end, examined, path.toString(), alternatives);
+    }
+}
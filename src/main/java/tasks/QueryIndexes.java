@@ -0,0 +1,214 @@
+package tasks;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Indexes used by queries: the trigrams of each task's description, the due dates of deadlines and the start
+ * dates of events, each leading to the ids of the tasks that have them.
+ * Tasks are only ever added, in order of id, so every list of ids is kept sorted by appending. Deleted tasks
+ * are left in and skipped when their ids are looked up, the TaskList drops the indexes when it compacts so
+ * they are built again without them.
+ */
+final class QueryIndexes {
+    /** Length of the pieces of text indexed, text shorter than this cannot use the index. */
+    static final int GRAM = 3;
+
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private final TreeMap<Long, Postings> dues = new TreeMap<>();
+    private final TreeMap<Long, Postings> starts = new TreeMap<>();
+
+    /**
+     * Ids of tasks in ascending order.
+     */
+    static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            assert size == 0 || ids[size - 1] < id;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+    }
+
+    /**
+     * Builds the indexes of every task.
+     *
+     * @param tasks the tasks in list order, which is the order of their ids.
+     * @return the indexes.
+     */
+    static QueryIndexes of(List<Task> tasks) {
+        QueryIndexes indexes = new QueryIndexes();
+        for (Task task : tasks) {
+            indexes.add(task);
+        }
+        return indexes;
+    }
+
+    /**
+     * Adds a task, which must have a larger id than every task added before.
+     *
+     * @param task the task.
+     */
+    void add(Task task) {
+        int id = task.getId();
+        String desc = task.getDesc().toLowerCase();
+        for (int i = 0; i + GRAM <= desc.length(); i++) {
+            grams.computeIfAbsent(gramAt(desc, i), gram -> new Postings()).add(id);
+        }
+        if (task instanceof Deadline) {
+            addDate(dues, ((Deadline) task).getDueDateObj(), id);
+        } else if (task instanceof Event) {
+            addDate(starts, ((Event) task).getStartDateObj(), id);
+        }
+    }
+
+    private static void addDate(TreeMap<Long, Postings> index, LocalDateTime date, int id) {
+        if (date != null) {
+            index.computeIfAbsent(Query.DateRange.secondOf(date), second -> new Postings()).add(id);
+        }
+    }
+
+    private static long gramAt(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    /**
+     * Estimates how many tasks contain a text, as the fewest tasks holding any one of its trigrams.
+     *
+     * @param text the text in lower case.
+     * @return an upper bound on the number of tasks, or -1 if the text is too short for the index.
+     */
+    int estimateText(String text) {
+        if (text.length() < GRAM) {
+            return -1;
+        }
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM <= text.length() && fewest > 0; i++) {
+            Postings ids = grams.get(gramAt(text, i));
+            fewest = Math.min(fewest, ids == null ? 0 : ids.size());
+        }
+        return fewest;
+    }
+
+    /**
+     * Gets the ids of the tasks holding every trigram of a text, a superset of the tasks containing it.
+     * The lists of ids are intersected starting from the shortest.
+     *
+     * @param text the text in lower case, at least GRAM characters long.
+     * @return the ids.
+     */
+    BitSet textCandidates(String text) {
+        assert text.length() >= GRAM;
+        Postings[] lists = new Postings[text.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = grams.get(gramAt(text, i));
+            if (lists[i] == null) {
+                return new BitSet();
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        BitSet ids = new BitSet();
+        Postings shortest = lists[0];
+        int[] at = new int[lists.length];
+        for (int i = 0; i < shortest.size(); i++) {
+            int id = shortest.get(i);
+            if (isInAll(lists, at, id)) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+
+    /** Checks the other lists for an id, moving each cursor forward, as the ids asked for only go up. */
+    private static boolean isInAll(Postings[] lists, int[] at, int id) {
+        for (int l = 1; l < lists.length; l++) {
+            Postings list = lists[l];
+            while (at[l] < list.size() && list.get(at[l]) < id) {
+                at[l]++;
+            }
+            if (at[l] == list.size() || list.get(at[l]) != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the number of deadlines due in a range, giving up once it passes a cap.
+     *
+     * @param range the range.
+     * @param cap count beyond which the exact number does not matter.
+     * @return the number of deadlines, or a number above cap.
+     */
+    int estimateDue(Query.DateRange range, int cap) {
+        return estimate(dues, range, cap);
+    }
+
+    /**
+     * Estimates the number of events starting in a range, giving up once it passes a cap.
+     *
+     * @param range the range.
+     * @param cap count beyond which the exact number does not matter.
+     * @return the number of events, or a number above cap.
+     */
+    int estimateStart(Query.DateRange range, int cap) {
+        return estimate(starts, range, cap);
+    }
+
+    BitSet dueCandidates(Query.DateRange range) {
+        return candidates(dues, range);
+    }
+
+    BitSet startCandidates(Query.DateRange range) {
+        return candidates(starts, range);
+    }
+
+    private static int estimate(TreeMap<Long, Postings> index, Query.DateRange range, int cap) {
+        int count = 0;
+        for (Postings ids : within(index, range).values()) {
+            count += ids.size();
+            if (count > cap) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static BitSet candidates(TreeMap<Long, Postings> index, Query.DateRange range) {
+        BitSet found = new BitSet();
+        for (Postings ids : within(index, range).values()) {
+            for (int i = 0; i < ids.size(); i++) {
+                found.set(ids.get(i));
+            }
+        }
+        return found;
+    }
+
+    private static NavigableMap<Long, Postings> within(TreeMap<Long, Postings> index, Query.DateRange range) {
+        if (range.getFrom() >= range.getTo()) {
+            return new TreeMap<>();
+        }
+        return index.subMap(range.getFrom(), true, range.getTo(), false);
+    }
+}
@@ -0,0 +1,81 @@
+package tasks;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of tasks found by a query, with how the query was run.
+ * The rows of the page are captured when the query runs, so the result can be shown after the lock is released.
+ */
+public class QueryResult {
+    private final List<Task> tasks;
+    private final List<TaskRow> rows;
+    private final int offset;
+    private final boolean hasMore;
+    private final int examined;
+    private final String plan;
+    private final List<String> alternatives;
+
+    QueryResult(List<Task> tasks, int offset, boolean hasMore, int examined, String plan, List<String> alternatives) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.rows = Collections.unmodifiableList(TaskRow.rowsOf(tasks));
+        this.offset = offset;
+        this.hasMore = hasMore;
+        this.examined = examined;
+        this.plan = plan;
+        this.alternatives = List.copyOf(alternatives);
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Gets the tasks on the page as they were when the query ran.
+     *
+     * @return unmodifiable list of rows, in the same order as getTasks.
+     */
+    public List<TaskRow> getRows() {
+        return rows;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Checks if more tasks match the query after this page.
+     *
+     * @return true if the page did not reach the last match.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Gets the number of tasks checked against the conditions of the query.
+     *
+     * @return number of tasks examined.
+     */
+    public int getExamined() {
+        return examined;
+    }
+
+    /**
+     * Gets the way chosen to find the candidate tasks, with its estimated number of tasks.
+     *
+     * @return description of the plan.
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * Gets the other ways the candidates could have been found, with their estimates.
+     *
+     * @return descriptions of the plans not chosen.
+     */
+    public List<String> getAlternatives() {
+        return alternatives;
+    }
+}
@@ -0,0 +1,79 @@
+package tasks;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the ids of the tasks found by recent searches, so a find or findtag repeated between changes
+ * is answered without searching again.
+ * Entries only hold for the versions of the task and tag lists they were found at. Both versions go up on every
+ * change, so rather than working out which entries a change affects, the cache is emptied the next time it is
+ * used at newer versions, which costs no more than the few entries held. Once full, the least recently used
+ * entry is dropped.
+ * Thread-safe, searches run under a shared lock and a result may only be complete after the lock is released.
+ */
+final class SearchCache {
+    /** Most searches remembered. */
+    static final int MAX_ENTRIES = 64;
+
+    private final Map<String, BitSet> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BitSet> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long taskVersion = -1;
+    private long tagVersion = -1;
+    private long hits;
+    private long misses;
+
+    /**
+     * Looks up a search, emptying the cache first if either list changed since it was last used.
+     *
+     * @param key the normalised search, such as "find book".
+     * @param taskVersion version of the task list now.
+     * @param tagVersion version of the tag list now.
+     * @return the ids found by the search, which must not be changed, or null if it is not cached.
+     */
+    synchronized BitSet get(String key, long taskVersion, long tagVersion) {
+        if (taskVersion != this.taskVersion || tagVersion != this.tagVersion) {
+            entries.clear();
+            this.taskVersion = taskVersion;
+            this.tagVersion = tagVersion;
+        }
+        BitSet ids = entries.get(key);
+        if (ids == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return ids;
+    }
+
+    /**
+     * Remembers the result of a search, unless the lists have changed since it was run.
+     *
+     * @param key the normalised search.
+     * @param taskVersion version of the task list the search ran against.
+     * @param tagVersion version of the tag list the search ran against.
+     * @param ids ids of every task found, not to be changed afterwards.
+     */
+    synchronized void put(String key, long taskVersion, long tagVersion, BitSet ids) {
+        if (taskVersion == this.taskVersion && tagVersion == this.tagVersion) {
+            entries.put(key, ids);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,299 @@
+package tasks;
+
+/**
+ * Persistent order-statistic index recording which task slots hold a live task.
+ * It plays the part of a Fenwick tree over the live slots: finding the slot of the k-th live task, or the
+ * position of a slot among the live ones, takes O(log n). It is a 32-way tree of live counts with 32-bit
+ * bitmaps at the bottom, and every update copies only one path, so each TaskSnapshot keeps its own view.
+ */
+final class SlotIndex {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final SlotIndex EMPTY = new SlotIndex(Node.empty(1), 1, 0);
+
+    private final Node root;
+
+    /** Height of the root, a node of height h covers WIDTH^(h+1) slots. */
+    private final int height;
+    private final int size;
+
+    /**
+     * Node of the tree. Nodes of height 1 hold one bitmap per 32 slots, higher nodes hold child nodes.
+     * A missing child is treated as having no live slots.
+     */
+    private static final class Node {
+        final int[] counts;
+        final int[] bitmaps;
+        final Node[] children;
+
+        Node(int[] counts, int[] bitmaps, Node[] children) {
+            this.counts = counts;
+            this.bitmaps = bitmaps;
+            this.children = children;
+        }
+
+        static Node empty(int height) {
+            return height == 1
+                    ? new Node(new int[WIDTH], new int[WIDTH], null)
+                    : new Node(new int[WIDTH], null, new Node[WIDTH]);
+        }
+
+        Node copy() {
+            return new Node(counts.clone(), bitmaps == null ? null : bitmaps.clone(),
+                    children == null ? null : children.clone());
+        }
+    }
+
+    private SlotIndex(Node root, int height, int size) {
+        this.root = root;
+        this.height = height;
+        this.size = size;
+    }
+
+    static SlotIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index from a plain bitmap, in one pass rather than one update per slot.
+     *
+     * @param words bitmap of live slots, bit b of words[w] standing for slot 32 * w + b.
+     * @return the index.
+     */
+    static SlotIndex ofWords(int[] words) {
+        int height = 1;
+        while (capacity(height) < (long) words.length * WIDTH) {
+            height++;
+        }
+        Node root = build(height, words, 0);
+        int size = 0;
+        for (int count : root.counts) {
+            size += count;
+        }
+        return new SlotIndex(root, height, size);
+    }
+
+    private static Node build(int height, int[] words, int firstWord) {
+        Node node = Node.empty(height);
+        int wordsPerChild = (int) (capacity(height - 1) / WIDTH);
+        for (int i = 0; i < WIDTH; i++) {
+            int start = firstWord + i * wordsPerChild;
+            if (start >= words.length) {
+                break;
+            }
+            if (height == 1) {
+                node.bitmaps[i] = words[start];
+                node.counts[i] = Integer.bitCount(words[start]);
+            } else {
+                node.children[i] = build(height - 1, words, start);
+                for (int count : node.children[i].counts) {
+                    node.counts[i] += count;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Builds an index where the first count slots are live, as after a compaction.
+     *
+     * @param count number of live slots.
+     * @return the index.
+     */
+    static SlotIndex ofLive(int count) {
+        int height = 1;
+        while (capacity(height) < count) {
+            height++;
+        }
+        return new SlotIndex(build(height, count), height, count);
+    }
+
+    private static Node build(int height, int count) {
+        Node node = Node.empty(height);
+        long childCapacity = capacity(height - 1);
+        for (int i = 0; i < WIDTH && count > 0; i++) {
+            int childCount = (int) Math.min(count, childCapacity);
+            node.counts[i] = childCount;
+            if (height == 1) {
+                node.bitmaps[i] = childCount == WIDTH ? -1 : (1 << childCount) - 1;
+            } else {
+                node.children[i] = build(height - 1, childCount);
+            }
+            count -= childCount;
+        }
+        return node;
+    }
+
+    /** Number of slots covered by a node of the given height, a height of 0 meaning a single bitmap. */
+    private static long capacity(int height) {
+        return 1L << (BITS * (height + 1));
+    }
+
+    /**
+     * Gets the number of live slots.
+     *
+     * @return number of live slots.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns an index with the slot marked live or dead.
+     *
+     * @param slot the slot to update.
+     * @param isLive whether the slot holds a live task.
+     * @return the updated index, or this index if nothing changed.
+     */
+    SlotIndex set(int slot, boolean isLive) {
+        assert slot >= 0;
+        Node grown = root;
+        int grownHeight = height;
+        while (slot >= capacity(grownHeight)) {
+            Node parent = Node.empty(grownHeight + 1);
+            parent.children[0] = grown;
+            parent.counts[0] = size;
+            grown = parent;
+            grownHeight++;
+        }
+        Node updated = set(grown, grownHeight, slot, isLive);
+        if (updated == grown) {
+            return this;
+        }
+        return new SlotIndex(updated, grownHeight, size + (isLive ? 1 : -1));
+    }
+
+    private static Node set(Node node, int height, int slot, boolean isLive) {
+        int child = (slot >>> (BITS * height)) & MASK;
+        Node copy;
+        if (height == 1) {
+            int bit = 1 << (slot & MASK);
+            int bitmap = node.bitmaps[child];
+            int updated = isLive ? bitmap | bit : bitmap & ~bit;
+            if (updated == bitmap) {
+                return node;
+            }
+            copy = node.copy();
+            copy.bitmaps[child] = updated;
+        } else {
+            Node current = node.children[child];
+            if (current == null) {
+                if (!isLive) {
+                    return node;
+                }
+                current = Node.empty(height - 1);
+            }
+            Node updated = set(current, height - 1, slot, isLive);
+            if (updated == current && node.children[child] != null) {
+                return node;
+            }
+            copy = node.copy();
+            copy.children[child] = updated;
+        }
+        copy.counts[child] += isLive ? 1 : -1;
+        return copy;
+    }
+
+    /**
+     * Checks if a slot holds a live task.
+     *
+     * @param slot the slot to check.
+     * @return true if the slot is live.
+     */
+    boolean isLive(int slot) {
+        if (slot < 0 || slot >= capacity(height)) {
+            return false;
+        }
+        Node node = root;
+        for (int h = height; h > 1; h--) {
+            node = node.children[(slot >>> (BITS * h)) & MASK];
+            if (node == null) {
+                return false;
+            }
+        }
+        return (node.bitmaps[(slot >>> BITS) & MASK] & (1 << (slot & MASK))) != 0;
+    }
+
+    /**
+     * Gets 32 slots at once as a bitmap, so several indexes can be combined a word at a time.
+     *
+     * @param index which group of 32 slots, starting at slot 32 * index.
+     * @return bitmap of the live slots in the group, bit b standing for slot 32 * index + b.
+     */
+    int word(int index) {
+        long slot = (long) index << BITS;
+        if (index < 0 || slot >= capacity(height)) {
+            return 0;
+        }
+        Node node = root;
+        for (int h = height; h > 1; h--) {
+            node = node.children[(int) (slot >>> (BITS * h)) & MASK];
+            if (node == null) {
+                return 0;
+            }
+        }
+        return node.bitmaps[(int) (slot >>> BITS) & MASK];
+    }
+
+    /**
+     * Finds the slot holding the live task at a position.
+     *
+     * @param index zero-based position among live slots.
+     * @return the slot.
+     */
+    int select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        Node node = root;
+        int slot = 0;
+        int remaining = index;
+        for (int h = height; ; h--) {
+            int child = 0;
+            while (remaining >= node.counts[child]) {
+                remaining -= node.counts[child];
+                child++;
+            }
+            slot += child << (BITS * h);
+            if (h == 1) {
+                return slot + selectBit(node.bitmaps[child], remaining);
+            }
+            node = node.children[child];
+        }
+    }
+
+    private static int selectBit(int bitmap, int index) {
+        for (int i = 0; i < index; i++) {
+            bitmap &= bitmap - 1;
+        }
+        return Integer.numberOfTrailingZeros(bitmap);
+    }
+
+    /**
+     * Counts the live slots before a slot, which is the position of that slot's task if it is live.
+     *
+     * @param slot the slot.
+     * @return number of live slots below slot.
+     */
+    int rank(int slot) {
+        if (slot >= capacity(height)) {
+            return size;
+        }
+        Node node = root;
+        int rank = 0;
+        for (int h = height; ; h--) {
+            int child = (slot >>> (BITS * h)) & MASK;
+            for (int i = 0; i < child; i++) {
+                rank += node.counts[i];
+            }
+            if (h == 1) {
+                return rank + Integer.bitCount(node.bitmaps[child] & ((1 << (slot & MASK)) - 1));
+            }
+            node = node.children[child];
+            if (node == null) {
+                return rank;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package tasks;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 
@@ -11,11 +12,34 @@ import tags.Tag;
 /**
  * Abstract class that defines Task.
  * A Task has a description, status and a set of tags.
+ * Status and tags are published safely so a task can be read from a TaskSnapshot on another thread.
  */
 public abstract class Task {
-    private Boolean status;
+    private volatile Boolean status;
     private String desc;
-    private Set<Tag> tags = new HashSet<>();
+
+    /** Id given by the TaskList, stays the same while the task is in the list even as positions change. */
+    private int id = -1;
+
+    /** Replaced rather than modified, so readers never see a set mid-update. */
+    private volatile Set<Tag> tags = Collections.emptySet();
+
+    /**
+     * Full description including tags, built on first use and dropped whenever the tags change. It also goes
+     * stale when one of its tags is renamed, which is checked on use so a rename never has to visit its tasks.
+     */
+    private Description description;
+
+    /** A description together with the total rename count of its tags it was built at, published as one object. */
+    private static final class Description {
+        final String text;
+        final int renames;
+
+        Description(String text, int renames) {
+            this.text = text;
+            this.renames = renames;
+        }
+    }
 
 
     /**
@@ -57,6 +81,33 @@ public abstract class Task {
      * @return string of description of task.
      */
     public String getDescription() {
+        Description cached = description;
+        int renames = 0;
+        for (Tag tag : tags) {
+            renames += tag.getRenameCount();
+        }
+        if (cached == null || cached.renames != renames) {
+            cached = new Description(describe(), renames);
+            description = cached;
+        }
+        return cached.text;
+    }
+
+    /**
+     * Gets the description the task was created with, without dates or tags.
+     *
+     * @return the bare description.
+     */
+    public String getDesc() {
+        return this.desc;
+    }
+
+    /**
+     * Builds the full description of the task, subclasses append their own details.
+     *
+     * @return string of description of task.
+     */
+    protected String describe() {
         return this.desc + " ";
     }
 
@@ -78,6 +129,19 @@ public abstract class Task {
         this.status = stat;
     }
 
+    /**
+     * Gets the id the TaskList gave this task.
+     *
+     * @return the stable id, or -1 if the task has not been added to a list.
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Gets the symbol of the associated task class.
      *
@@ -93,7 +157,13 @@ public abstract class Task {
      * @param tag the tag to add to task list of tag.
      */
     public void addTag(Tag tag) {
-        this.tags.add(tag);
+        if (hasTag(tag)) {
+            return;
+        }
+        Set<Tag> updated = new LinkedHashSet<>(this.tags);
+        updated.add(tag);
+        this.tags = Collections.unmodifiableSet(updated);
+        this.description = null;
     }
 
     /**
@@ -102,8 +172,28 @@ public abstract class Task {
      * @param tag the tag to be removed.
      */
     public void removeTag(Tag tag) {
-        this.tags.remove(tag);
+        if (!hasTag(tag)) {
+            return;
+        }
+        Set<Tag> updated = new LinkedHashSet<>(this.tags);
+        updated.remove(tag);
+        this.tags = Collections.unmodifiableSet(updated);
+        this.description = null;
     }
+
+    /**
+     * Checks if the task has a tag by walking its few tags. The set is not searched by hash, as a tag renamed
+     * since the set was built sits under the hash of its old name; copying the set rehashes it.
+     */
+    private boolean hasTag(Tag tag) {
+        for (Tag held : tags) {
+            if (held.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         return this.getDescription();
@@ -132,7 +222,7 @@ public abstract class Task {
     /**
      * Returns a set of tags associated with the task.
      *
-     * @return set of tags associated with the task.
+     * @return unmodifiable set of tags associated with the task, to be iterated or copied rather than searched.
      */
     public Set<Tag> getTagSet() {
         return this.tags;
@@ -0,0 +1,205 @@
+package tasks;
+
+import java.util.List;
+
+/**
+ * Bitmaps over task slots recording which slots are live, which hold a done task, and which hold each type
+ * of task. Each is a persistent SlotIndex, so a change copies one path of the bitmaps it touches and every
+ * TaskSnapshot keeps its own consistent set.
+ * Deleted slots are cleared from every bitmap, so the size of a bitmap is a count of live tasks, and filters
+ * such as undone deadlines are worked out 32 tasks at a time without looking at the tasks.
+ */
+final class TaskBitmaps {
+    /** Type number of a task that is not a Todo, Deadline or Event. */
+    static final int ANY_TYPE = -1;
+
+    private static final int TODO = 0;
+    private static final int DEADLINE = 1;
+    private static final int EVENT = 2;
+    private static final int WORD_BITS = 5;
+
+    private static final TaskBitmaps EMPTY = new TaskBitmaps(SlotIndex.empty(), SlotIndex.empty(),
+            new SlotIndex[] {SlotIndex.empty(), SlotIndex.empty(), SlotIndex.empty()});
+
+    final SlotIndex live;
+    final SlotIndex done;
+    private final SlotIndex[] types;
+
+    private TaskBitmaps(SlotIndex live, SlotIndex done, SlotIndex[] types) {
+        this.live = live;
+        this.done = done;
+        this.types = types;
+    }
+
+    static TaskBitmaps empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the bitmaps of tasks held in consecutive slots, as after a compaction.
+     *
+     * @param tasks tasks in slot order.
+     * @return the bitmaps.
+     */
+    static TaskBitmaps of(List<Task> tasks) {
+        int words = wordCount(tasks.size());
+        int[] live = new int[words];
+        int[] done = new int[words];
+        int[][] types = new int[EVENT + 1][words];
+        int slot = 0;
+        for (Task task : tasks) {
+            int bit = 1 << slot;
+            live[slot >>> WORD_BITS] |= bit;
+            if (task.getStatus()) {
+                done[slot >>> WORD_BITS] |= bit;
+            }
+            int type = typeOf(task);
+            if (type != ANY_TYPE) {
+                types[type][slot >>> WORD_BITS] |= bit;
+            }
+            slot++;
+        }
+        return new TaskBitmaps(SlotIndex.ofWords(live), SlotIndex.ofWords(done), new SlotIndex[] {
+            SlotIndex.ofWords(types[TODO]), SlotIndex.ofWords(types[DEADLINE]), SlotIndex.ofWords(types[EVENT])});
+    }
+
+    /**
+     * Gets the number of 32-slot words needed to cover a number of slots.
+     *
+     * @param slotCount number of slots.
+     * @return number of words.
+     */
+    static int wordCount(int slotCount) {
+        return (slotCount + (1 << WORD_BITS) - 1) >>> WORD_BITS;
+    }
+
+    /**
+     * Gets the type number of a task.
+     *
+     * @param task the task.
+     * @return the type number, or ANY_TYPE if the task has no bitmap of its own.
+     */
+    static int typeOf(Task task) {
+        if (task instanceof Todo) {
+            return TODO;
+        } else if (task instanceof Deadline) {
+            return DEADLINE;
+        } else if (task instanceof Event) {
+            return EVENT;
+        }
+        return ANY_TYPE;
+    }
+
+    /**
+     * Gets the type number of a task symbol such as "D".
+     *
+     * @param taskSymbol the symbol, or null for any type.
+     * @return the type number, or ANY_TYPE for any type.
+     */
+    static int typeOf(String taskSymbol) {
+        if (taskSymbol == null) {
+            return ANY_TYPE;
+        }
+        switch (taskSymbol) {
+        case "T":
+            return TODO;
+        case "D":
+            return DEADLINE;
+        case "E":
+            return EVENT;
+        default:
+            return ANY_TYPE;
+        }
+    }
+
+    /**
+     * Returns the bitmaps with a newly added task in a slot.
+     *
+     * @param slot the task's slot.
+     * @param task the task.
+     * @return the updated bitmaps.
+     */
+    TaskBitmaps withAdded(int slot, Task task) {
+        SlotIndex[] updatedTypes = types;
+        int type = typeOf(task);
+        if (type != ANY_TYPE) {
+            updatedTypes = types.clone();
+            updatedTypes[type] = types[type].set(slot, true);
+        }
+        return new TaskBitmaps(live.set(slot, true), task.getStatus() ? done.set(slot, true) : done, updatedTypes);
+    }
+
+    /**
+     * Returns the bitmaps with a slot emptied by a delete.
+     *
+     * @param slot the deleted task's slot.
+     * @return the updated bitmaps.
+     */
+    TaskBitmaps withRemoved(int slot) {
+        SlotIndex[] updatedTypes = types.clone();
+        for (int type = 0; type < updatedTypes.length; type++) {
+            updatedTypes[type] = types[type].set(slot, false);
+        }
+        return new TaskBitmaps(live.set(slot, false), done.set(slot, false), updatedTypes);
+    }
+
+    /**
+     * Returns the bitmaps with the task in a slot marked done or undone.
+     *
+     * @param slot the task's slot.
+     * @param isDone the task's new status.
+     * @return the updated bitmaps, or these bitmaps if the status is unchanged.
+     */
+    TaskBitmaps withStatus(int slot, boolean isDone) {
+        SlotIndex updated = done.set(slot, isDone);
+        return updated == done ? this : new TaskBitmaps(live, updated, types);
+    }
+
+    /**
+     * Gets 32 slots at once as a bitmap of the live tasks passing a status and type filter.
+     *
+     * @param word which group of 32 slots.
+     * @param status status to keep, or null for both.
+     * @param type type number to keep, or ANY_TYPE for all.
+     * @return bitmap of matching slots in the group.
+     */
+    int matchWord(int word, Boolean status, int type) {
+        int match = type == ANY_TYPE ? live.word(word) : types[type].word(word);
+        if (status != null && match != 0) {
+            match = status ? match & done.word(word) : match & ~done.word(word);
+        }
+        return match;
+    }
+
+    /**
+     * Counts the live tasks passing a status and type filter.
+     * Counts over one filter alone are O(1), combined filters are a popcount over the words of the bitmaps.
+     *
+     * @param status status to count, or null for both.
+     * @param type type number to count, or ANY_TYPE for all.
+     * @return number of matching tasks.
+     */
+    int count(Boolean status, int type) {
+        if (type == ANY_TYPE) {
+            if (status == null) {
+                return live.size();
+            }
+            return status ? done.size() : live.size() - done.size();
+        }
+        if (status == null) {
+            return types[type].size();
+        }
+        int doneOfType = 0;
+        SlotIndex ofType = types[type];
+        int words = wordCount(capacityHint());
+        for (int word = 0; word < words; word++) {
+            doneOfType += Integer.bitCount(ofType.word(word) & done.word(word));
+        }
+        return status ? doneOfType : ofType.size() - doneOfType;
+    }
+
+    /** Highest slot any bitmap can hold a bit for, plus one. */
+    private int capacityHint() {
+        return live.size() == 0 ? 0 : live.select(live.size() - 1) + 1;
+    }
+}
@@ -0,0 +1,231 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Forward-only walk over the matches of a search in list order, finding each one only when it is asked for.
+ * Stopping after a page, or skipping to a later one, leaves the rest of the list unread.
+ * The cursor walks an immutable snapshot, but a condition may look at what changes in a task, such as its tags,
+ * so it is read under the lock it was opened under for matches as of one moment. Not thread-safe.
+ */
+public final class TaskCursor implements Iterator<Task> {
+    private final TaskSnapshot tasks;
+
+    /** Condition each task is checked against, or null when walking a set of ids. */
+    private final Predicate<Task> condition;
+    private final Iterator<Task> slots;
+
+    /** Told the ids of every match once the cursor has checked the whole list, or null. */
+    private Consumer<BitSet> onComplete;
+    private BitSet matchedIds;
+
+    /** Ids to walk, or null when checking a condition. */
+    private final BitSet ids;
+    private int nextId;
+
+    /** Position in the list of the next task to look at. */
+    private int at;
+    private Task next;
+    private int nextPosition = -1;
+    private int position = -1;
+    private int remaining = Integer.MAX_VALUE;
+    private int examined;
+
+    private TaskCursor(TaskSnapshot tasks, Predicate<Task> condition, BitSet ids, Consumer<BitSet> onComplete) {
+        this.tasks = tasks;
+        this.condition = condition;
+        this.slots = condition == null ? null : tasks.slots().iterator();
+        this.ids = ids;
+        this.nextId = ids == null ? -1 : ids.nextSetBit(0);
+        this.onComplete = onComplete;
+        this.matchedIds = onComplete == null ? null : new BitSet();
+    }
+
+    /**
+     * Opens a cursor over the tasks meeting a condition, each checked as the cursor reaches it.
+     */
+    static TaskCursor matching(TaskSnapshot tasks, Predicate<Task> condition) {
+        return new TaskCursor(tasks, condition, null, null);
+    }
+
+    /**
+     * Opens a cursor over the tasks meeting a condition that also collects the ids of the matches, handing them
+     * over if it gets to the end of the list. A cursor stopped early hands over nothing.
+     *
+     * @param onComplete told the ids of every match, or null to collect nothing.
+     */
+    static TaskCursor matching(TaskSnapshot tasks, Predicate<Task> condition, Consumer<BitSet> onComplete) {
+        return new TaskCursor(tasks, condition, null, onComplete);
+    }
+
+    /**
+     * Opens a cursor over the tasks with the given ids. Ids go up along the list, so each one is found by
+     * galloping forward from the last and then halving, O(log d) lookups for a task d places further on,
+     * rather than reading the tasks in between. Ids of deleted tasks are skipped.
+     *
+     * @param ids ids of tasks, must not change while the cursor is used.
+     */
+    static TaskCursor withIds(TaskSnapshot tasks, BitSet ids) {
+        return new TaskCursor(tasks, null, ids, null);
+    }
+
+    /**
+     * Skips matches, such as the pages before the one to show.
+     *
+     * @param count number of matches to skip.
+     * @return this cursor.
+     */
+    public TaskCursor skip(int count) {
+        for (int i = 0; i < count && fetch(); i++) {
+            next = null;
+        }
+        return this;
+    }
+
+    /**
+     * Stops the cursor after some more matches, so no task past them is looked at.
+     *
+     * @param count most matches still to return.
+     * @return this cursor.
+     */
+    public TaskCursor limit(int count) {
+        assert count >= 0;
+        remaining = count;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0 && fetch();
+    }
+
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task current = next;
+        next = null;
+        position = nextPosition;
+        remaining--;
+        return current;
+    }
+
+    /**
+     * Collects the matches left, up to the limit.
+     *
+     * @return the matches in list order.
+     */
+    public List<Task> toList() {
+        List<Task> found = new ArrayList<>();
+        while (hasNext()) {
+            found.add(next());
+        }
+        return found;
+    }
+
+    /**
+     * Gets where the task last returned by next sits in the list.
+     *
+     * @return zero-based position in the snapshot.
+     */
+    public int getPosition() {
+        assert position >= 0;
+        return position;
+    }
+
+    /**
+     * Gets the number of tasks looked at so far, for seeing how much of the list a page cost.
+     *
+     * @return number of tasks read.
+     */
+    public int getExamined() {
+        return examined;
+    }
+
+    private boolean fetch() {
+        if (next == null) {
+            next = condition != null ? advanceByCondition() : advanceById();
+        }
+        return next != null;
+    }
+
+    private Task advanceByCondition() {
+        while (slots.hasNext()) {
+            Task task = slots.next();
+            if (task == null) {
+                continue;
+            }
+            TaskList.checkCancelled(examined++);
+            if (condition.test(task)) {
+                if (matchedIds != null) {
+                    matchedIds.set(task.getId());
+                }
+                nextPosition = at++;
+                return task;
+            }
+            at++;
+        }
+        if (onComplete != null) {
+            onComplete.accept(matchedIds);
+            onComplete = null;
+            matchedIds = null;
+        }
+        return null;
+    }
+
+    private Task advanceById() {
+        int size = tasks.size();
+        while (nextId >= 0 && at < size) {
+            int found = seek(nextId);
+            if (found == size) {
+                break;
+            }
+            Task task = tasks.get(found);
+            at = found;
+            if (task.getId() == nextId) {
+                nextPosition = at++;
+                nextId = ids.nextSetBit(nextId + 1);
+                return task;
+            }
+            // the id was of a deleted task, carry on from the first id still present
+            nextId = ids.nextSetBit(task.getId());
+        }
+        nextId = -1;
+        return null;
+    }
+
+    /**
+     * Finds the first position from at whose task has an id of at least the one asked for, or the size of the
+     * list if there is none.
+     */
+    private int seek(int id) {
+        int size = tasks.size();
+        int low = at;
+        int high = at;
+        for (int step = 1; high < size && idAt(high) < id; step <<= 1) {
+            low = high + 1;
+            high = (int) Math.min(size, (long) high + step);
+        }
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idAt(mid) < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int idAt(int index) {
+        TaskList.checkCancelled(examined++);
+        return tasks.get(index).getId();
+    }
+}
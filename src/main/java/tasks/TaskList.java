@@ -1,36 +1,189 @@
 package tasks;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import tags.Tag;
+import tags.TagList;
 
 
 /**
  * Represents a list of tasks.
+ * The tasks are held in a persistent vector, every change publishes a new immutable snapshot so readers
+ * can keep iterating an older one while the list is modified.
+ * Deleting a task only empties its slot and marks it dead in a SlotIndex, so it costs O(log n) wherever the
+ * task is. The empty slots are reclaimed by a compaction once they outnumber the live tasks.
+ * Bitmaps of done tasks and of each type of task are kept alongside, so filtered listings and counts work on
+ * 32 tasks at a time and the number of tasks remaining is O(1). Counts that depend on time, such as overdue
+ * deadlines, are kept in a TaskStats updated on every change.
+ * Every change is also described to the listeners of the list's ChangeFeed, with the position the task had.
  */
 public class TaskList {
+    /** Number of tasks a scan looks at between checks for cancellation. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
 
+    /** Fewest empty slots worth compacting automatically. */
+    private static final int MIN_HOLES_TO_COMPACT = 1024;
 
+    /** Number of tags listed in a summary. */
+    private static final int SUMMARY_TAGS = 5;
 
-    private final ArrayList<Task> userTasks;
+    private volatile TaskSnapshot userTasks;
+
+    private final TaskStats stats = new TaskStats(Clock.systemDefaultZone());
+
+    /** Id given to the next task added, ids are never reused while the list is open. */
+    private int nextId;
+
+    /**
+     * Live tasks by id, so a bitmap of ids can be turned back into tasks. Deleted tasks are removed, so it holds
+     * no more than the list however many tasks have come and gone. Changed by the writer.
+     */
+    private final HashMap<Integer, Task> tasksById = new HashMap<>();
+
+    /**
+     * Indexes for queries, built on the first query and dropped on compaction or rollback to shed tasks no longer
+     * in the list.
+     */
+    private QueryIndexes queryIndexes;
+
+    /** Results of recent find and findtag searches, for those repeated before the next change. */
+    private final SearchCache searchCache = new SearchCache();
+
+    /** Journal of the transaction in progress, or null outside a transaction. Only used by the writer. */
+    private UndoLog undoLog;
+
+    private ChangeFeed changes = new ChangeFeed();
 
     public TaskList(ArrayList<Task> userTasks) {
-        this.userTasks = userTasks;
+        for (Task task : userTasks) {
+            task.setId(nextId++);
+            tasksById.put(task.getId(), task);
+            stats.added(task);
+        }
+        this.userTasks = new TaskSnapshot(PersistentVector.copyOf(userTasks), TaskBitmaps.of(userTasks), 0);
     }
 
     /**
-     * Gets the ArrayList userTasks.
+     * Gets the tasks currently in the list.
      *
-     * @return an ArrayList Task objects.
+     * @return an immutable snapshot of the Task objects.
      */
-    public ArrayList<Task> getTasks() {
+    public List<Task> getTasks() {
         assert userTasks != null;
         return userTasks;
     }
 
+    /**
+     * Gets an immutable snapshot of the list in O(1), safe to read from any thread while the list changes.
+     *
+     * @return the current snapshot.
+     */
+    public TaskSnapshot snapshot() {
+        return userTasks;
+    }
+
+    /**
+     * Starts recording every change into the undo log, so that rolling the log back restores the list
+     * as it is now.
+     *
+     * @param log the transaction's undo log.
+     */
+    public void beginTransaction(UndoLog log) {
+        assert undoLog == null;
+        TaskSnapshot start = userTasks;
+        undoLog = log;
+        ChangeFeed feed = changes;
+        int mark = feed.mark();
+        feed.beginBatch();
+        log.record(() -> feed.discardSince(mark));
+        // indexes only ever gain postings, so those of tasks added in the transaction go with the indexes
+        log.record(() -> queryIndexes = null);
+        log.record(() -> publish(start.slots(), start.bitmaps()));
+    }
+
+    /**
+     * Stops recording changes, after the transaction has been committed or rolled back.
+     * The changes of a committed transaction are delivered to listeners together, those of a rolled back
+     * one are never delivered.
+     */
+    public void endTransaction() {
+        undoLog = null;
+        changes.endBatch();
+    }
+
+    /**
+     * Gets the feed that changes to this list are emitted on.
+     *
+     * @return the change feed.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    /**
+     * Emits changes to this list on another feed, such as one shared with the TagList.
+     * Must not be called during a transaction.
+     *
+     * @param feed the change feed.
+     */
+    public void setChangeFeed(ChangeFeed feed) {
+        assert undoLog == null;
+        changes = feed;
+    }
+
+    private void recordUndo(Runnable undo) {
+        if (undoLog != null) {
+            undoLog.record(undo);
+        }
+    }
+
+    private void recordStatus(Task task) {
+        if (undoLog != null) {
+            Boolean status = task.getStatus();
+            undoLog.record(() -> task.setStatus(status));
+        }
+    }
+
+    private void publish(PersistentVector<Task> slots, TaskBitmaps bitmaps) {
+        userTasks = new TaskSnapshot(slots, bitmaps, userTasks.getVersion() + 1);
+    }
+
+    private void publishChange() {
+        publish(userTasks.slots(), userTasks.bitmaps());
+    }
+
+    private <T extends Task> T append(T task) {
+        TaskSnapshot tasks = userTasks;
+        task.setId(nextId++);
+        int slot = tasks.slotCount();
+        publish(tasks.slots().append(task), tasks.bitmaps().withAdded(slot, task));
+        tasksById.put(task.getId(), task);
+        if (queryIndexes != null) {
+            queryIndexes.add(task);
+        }
+        stats.added(task);
+        boolean isDone = task.getStatus();
+        recordUndo(() -> {
+            stats.removed(task, isDone);
+            tasksById.remove(task.getId());
+        });
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.added(task, tasks.size()));
+        }
+        return task;
+    }
+
 
     /**
      * Marks task at index to be complete.
@@ -40,8 +193,7 @@ public class TaskList {
      */
     public Task markTask(int index) {
         assert index >= 0;
-        userTasks.get(index).setStatus(true);
-        return userTasks.get(index);
+        return setStatus(index, true);
     }
 
     /**
@@ -51,8 +203,68 @@ public class TaskList {
      * @return the task that was unmarked.
      */
     public Task unmarkTask(int index) {
-        userTasks.get(index).setStatus(false);
-        return userTasks.get(index);
+        return setStatus(index, false);
+    }
+
+    /**
+     * Sets the status of a task, keeping the done bitmap in step.
+     * Rolling back a transaction restores the bitmaps with the snapshot it started from.
+     */
+    private Task setStatus(int index, boolean status) {
+        TaskSnapshot tasks = userTasks;
+        int slot = tasks.slotOf(index);
+        Task task = tasks.slots().get(slot);
+        boolean wasDone = task.getStatus();
+        recordStatus(task);
+        updateStats(task, status);
+        task.setStatus(status);
+        publish(tasks.slots(), tasks.bitmaps().withStatus(slot, status));
+        if (wasDone != status && changes.isObserved()) {
+            changes.emit(ChangeEvent.statusChanged(task, index));
+        }
+        return task;
+    }
+
+    /**
+     * Marks every task at the given indices complete, publishing a single change.
+     *
+     * @param indices zero-based indices of tasks to mark.
+     */
+    public void markTasks(int[] indices) {
+        setStatuses(indices, true);
+    }
+
+    /**
+     * Marks every task at the given indices not complete, publishing a single change.
+     *
+     * @param indices zero-based indices of tasks to unmark.
+     */
+    public void unmarkTasks(int[] indices) {
+        setStatuses(indices, false);
+    }
+
+    private void setStatuses(int[] indices, boolean status) {
+        TaskSnapshot tasks = userTasks;
+        TaskBitmaps bitmaps = tasks.bitmaps();
+        for (int index : indices) {
+            int slot = tasks.slotOf(index);
+            Task task = tasks.slots().get(slot);
+            boolean wasDone = task.getStatus();
+            recordStatus(task);
+            updateStats(task, status);
+            task.setStatus(status);
+            bitmaps = bitmaps.withStatus(slot, status);
+            if (wasDone != status && changes.isObserved()) {
+                changes.emit(ChangeEvent.statusChanged(task, index));
+            }
+        }
+        publish(tasks.slots(), bitmaps);
+    }
+
+    private void updateStats(Task task, boolean status) {
+        boolean wasDone = task.getStatus();
+        stats.statusChanged(task, wasDone, status);
+        recordUndo(() -> stats.statusChanged(task, status, wasDone));
     }
 
     /**
@@ -64,8 +276,7 @@ public class TaskList {
      */
     public Todo addTodo(String desc) throws ChatterboxExceptions.ChatterBoxNoInput {
         Todo nextTodo = new Todo(desc);
-        userTasks.add(nextTodo);
-        return nextTodo;
+        return append(nextTodo);
     }
 
     /**
@@ -78,8 +289,7 @@ public class TaskList {
      */
     public Deadline addDeadline(String desc, String endDate) throws ChatterboxExceptions.ChatterBoxNoInput {
         Deadline nextDead = new Deadline(desc, endDate);
-        userTasks.add(nextDead);
-        return nextDead;
+        return append(nextDead);
     }
 
     /**
@@ -92,8 +302,7 @@ public class TaskList {
      */
     public Deadline addDeadline(String desc, LocalDateTime endDate) throws ChatterboxExceptions.ChatterBoxNoInput {
         Deadline nextDead = new Deadline(desc, endDate);
-        userTasks.add(nextDead);
-        return nextDead;
+        return append(nextDead);
     }
 
     /**
@@ -109,8 +318,7 @@ public class TaskList {
             throws ChatterboxExceptions.ChatterBoxNoInput {
         Event nextEve = new Event(desc, startDate, endDate);
         assert nextEve != null;
-        userTasks.add(nextEve);
-        return nextEve;
+        return append(nextEve);
     }
 
     /**
@@ -125,8 +333,7 @@ public class TaskList {
     public Event addEvent(String desc, LocalDateTime startDate, LocalDateTime endDate)
             throws ChatterboxExceptions.ChatterBoxNoInput {
         Event nextEve = new Event(desc, startDate, endDate);
-        userTasks.add(nextEve);
-        return nextEve;
+        return append(nextEve);
     }
 
     /**
@@ -139,6 +346,120 @@ public class TaskList {
         return userTasks.get(index);
     }
 
+    /**
+     * Picks out the tasks a list command asks for, filtered, ordered and paged.
+     * The status and type filters are applied to the bitmaps 32 slots at a time, so only matching tasks are
+     * read. In list order whole words before the page are skipped by their popcount. When sorting, a page
+     * ending before the last match is chosen with a heap bounded by the end of the page, O(m log k), instead
+     * of sorting every match.
+     *
+     * @param options which tasks to show, in what order, and which part of them.
+     * @return the page of tasks.
+     */
+    public ListView view(ListOptions options) {
+        TaskSnapshot tasks = userTasks;
+        TaskBitmaps bitmaps = tasks.bitmaps();
+        Boolean status = options.getStatus();
+        int type = TaskBitmaps.typeOf(options.getTaskSymbol());
+        int offset = options.getOffset();
+        int end = (int) Math.min(Integer.MAX_VALUE, (long) offset + options.getLimit());
+        int matching = bitmaps.count(status, type);
+        if (options.getSort() == ListOptions.Sort.LIST_ORDER) {
+            return pageInOrder(tasks, status, type, offset, end, matching);
+        }
+
+        boolean isBounded = end < matching;
+        PriorityQueue<TaskSortKey> kept = new PriorityQueue<>(Math.max(1, Math.min(end, matching)),
+                Comparator.reverseOrder());
+        List<TaskSortKey> sorted = new ArrayList<>(isBounded ? 0 : matching);
+        int position = 0;
+        int words = TaskBitmaps.wordCount(tasks.slotCount());
+        for (int word = 0; word < words && end > 0; word++) {
+            checkCancelled(word);
+            int liveWord = bitmaps.live.word(word);
+            for (int bits = bitmaps.matchWord(word, status, type); bits != 0; bits &= bits - 1) {
+                int bit = Integer.numberOfTrailingZeros(bits);
+                int slot = (word << 5) | bit;
+                TaskSortKey key = TaskSortKey.of(tasks.slots().get(slot),
+                        position + Integer.bitCount(liveWord & ((1 << bit) - 1)), options.getSort());
+                if (!isBounded) {
+                    sorted.add(key);
+                } else if (kept.size() < end) {
+                    kept.add(key);
+                } else if (key.compareTo(kept.peek()) < 0) {
+                    kept.poll();
+                    kept.add(key);
+                }
+            }
+            position += Integer.bitCount(liveWord);
+        }
+        if (isBounded) {
+            sorted.addAll(kept);
+        }
+        sorted.sort(null);
+
+        int pageEnd = Math.min(end, sorted.size());
+        int pageStart = Math.min(offset, pageEnd);
+        List<Task> page = new ArrayList<>(pageEnd - pageStart);
+        int[] positions = new int[pageEnd - pageStart];
+        for (int i = pageStart; i < pageEnd; i++) {
+            page.add(sorted.get(i).task);
+            positions[i - pageStart] = sorted.get(i).position;
+        }
+        return new ListView(page, positions, matching, offset);
+    }
+
+    private static ListView pageInOrder(TaskSnapshot tasks, Boolean status, int type, int offset, int end,
+                                        int matching) {
+        TaskBitmaps bitmaps = tasks.bitmaps();
+        int pageSize = Math.max(0, Math.min(end, matching) - offset);
+        List<Task> page = new ArrayList<>(pageSize);
+        int[] positions = new int[pageSize];
+        int seen = 0;
+        int position = 0;
+        int words = TaskBitmaps.wordCount(tasks.slotCount());
+        for (int word = 0; word < words && page.size() < pageSize; word++) {
+            checkCancelled(word);
+            int liveWord = bitmaps.live.word(word);
+            int match = bitmaps.matchWord(word, status, type);
+            int count = Integer.bitCount(match);
+            if (seen + count > offset) {
+                for (int bits = match; bits != 0 && seen < end; bits &= bits - 1, seen++) {
+                    if (seen < offset) {
+                        continue;
+                    }
+                    int bit = Integer.numberOfTrailingZeros(bits);
+                    positions[page.size()] = position + Integer.bitCount(liveWord & ((1 << bit) - 1));
+                    page.add(tasks.slots().get((word << 5) | bit));
+                }
+            } else {
+                seen += count;
+            }
+            position += Integer.bitCount(liveWord);
+        }
+        return new ListView(page, positions, matching, offset);
+    }
+
+    /**
+     * Counts the tasks with a status and type, using the bitmaps rather than looking at the tasks.
+     *
+     * @param status status to count, or null for both.
+     * @param taskSymbol symbol of the type to count, such as "D", or null for all.
+     * @return number of matching tasks.
+     */
+    public int count(Boolean status, String taskSymbol) {
+        return userTasks.bitmaps().count(status, TaskBitmaps.typeOf(taskSymbol));
+    }
+
+    /**
+     * Gets the number of tasks not yet done in O(1).
+     *
+     * @return number of undone tasks.
+     */
+    public int getRemainingCount() {
+        return count(false, null);
+    }
+
     /**
      * Deletes task and index and returns it.
      *
@@ -146,7 +467,152 @@ public class TaskList {
      * @return deleted Task object.
      */
     public Task deleteTask(int index) {
-        return userTasks.remove(index);
+        TaskSnapshot tasks = userTasks;
+        int slot = tasks.slotOf(index);
+        Task deleted = tasks.slots().get(slot);
+        publish(tasks.slots().set(slot, null), tasks.bitmaps().withRemoved(slot));
+        forget(deleted);
+        untagAll(deleted, index);
+        if (changes.isObserved()) {
+            changes.emit(ChangeEvent.removed(deleted, index));
+        }
+        compactIfSparse();
+        return deleted;
+    }
+
+    /**
+     * Deletes the tasks at the given indices, compacting the rest of the list in one pass.
+     * Changes are emitted from the last task to the first, so each position is still correct when the
+     * changes are applied in order.
+     *
+     * @param sortedIndices strictly ascending zero-based indices of tasks to delete.
+     * @return the deleted Task objects in list order.
+     */
+    public List<Task> deleteTasks(int[] sortedIndices) {
+        TaskSnapshot tasks = userTasks;
+        List<Task> deleted = new ArrayList<>(sortedIndices.length);
+        PersistentVector<Task> slots = tasks.slots();
+        TaskBitmaps bitmaps = tasks.bitmaps();
+        for (int index : sortedIndices) {
+            int slot = tasks.slotOf(index);
+            deleted.add(slots.get(slot));
+            slots = slots.set(slot, null);
+            bitmaps = bitmaps.withRemoved(slot);
+        }
+        publish(slots, bitmaps);
+        for (int i = deleted.size() - 1; i >= 0; i--) {
+            Task task = deleted.get(i);
+            forget(task);
+            untagAll(task, sortedIndices[i]);
+            if (changes.isObserved()) {
+                changes.emit(ChangeEvent.removed(task, sortedIndices[i]));
+            }
+        }
+        compactIfSparse();
+        return deleted;
+    }
+
+    /**
+     * Moves the live tasks into consecutive slots, reclaiming the slots left empty by deletes.
+     * Task ids and list positions are unchanged.
+     *
+     * @return number of empty slots reclaimed.
+     */
+    public int compact() {
+        TaskSnapshot tasks = userTasks;
+        int holes = tasks.slotCount() - tasks.size();
+        if (holes == 0) {
+            return 0;
+        }
+        publish(PersistentVector.copyOf(tasks), TaskBitmaps.of(tasks));
+        queryIndexes = null;
+        return holes;
+    }
+
+    private void compactIfSparse() {
+        int holes = getDeletedSlots();
+        if (holes >= MIN_HOLES_TO_COMPACT && holes > userTasks.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Gets the number of slots left empty by deleted tasks and not yet reclaimed.
+     *
+     * @return number of empty slots.
+     */
+    public int getDeletedSlots() {
+        TaskSnapshot tasks = userTasks;
+        return tasks.slotCount() - tasks.size();
+    }
+
+    private void forget(Task task) {
+        stats.removed(task, task.getStatus());
+        tasksById.remove(task.getId());
+        recordUndo(() -> {
+            stats.added(task);
+            tasksById.put(task.getId(), task);
+        });
+    }
+
+    /**
+     * Gets the tasks with the given ids in list order, which is the order of their ids. Costs one step per
+     * word of the bitmap and one per task, the list is not scanned. Ids of deleted tasks are skipped.
+     *
+     * @param ids ids of tasks, such as those under some tags.
+     * @return the tasks in list order.
+     */
+    public List<Task> getTasksById(BitSet ids) {
+        List<Task> found = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            Task task = tasksById.get(id);
+            if (task != null) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the number of tasks that can be looked up by id, which is the number of live tasks.
+     */
+    int getIdLookupSize() {
+        return tasksById.size();
+    }
+
+    /**
+     * Gets the tasks with the given ids lazily, in list order, from the list as it is now. Unlike getTasksById
+     * only the tasks taken are looked up, so a page costs about as much as the tasks on it.
+     *
+     * @param ids ids of tasks, such as those under some tags, must not change afterwards.
+     * @return the tasks with those ids.
+     */
+    public TaskMatches getMatchesById(BitSet ids) {
+        return TaskMatches.withIds(userTasks, ids);
+    }
+
+    /**
+     * Gets the running counts of the list: totals, done, overdue, by type, completions this week and the
+     * largest tags. Nothing is scanned, so it is cheap enough to refresh after every command.
+     *
+     * @param tagList the tags of the list.
+     * @return the counts as they are now.
+     */
+    public TaskSummary getSummary(TagList tagList) {
+        return new TaskSummary(userTasks.bitmaps(), stats, tagList.getLargestTags(SUMMARY_TAGS));
+    }
+
+    /**
+     * Drops a deleted task from the tags it carried, so it no longer shows up under findtag.
+     */
+    private void untagAll(Task task, int index) {
+        for (Tag tag : task.getTagSet()) {
+            recordUndo(() -> tag.tagTask(task));
+            tag.untagTask(task);
+            if (changes.isObserved()) {
+                changes.emit(ChangeEvent.untagged(task, index, tag.getTagName()));
+            }
+        }
     }
 
     /**
@@ -170,18 +636,150 @@ public class TaskList {
     }
 
     /**
-     * Returns an ArrayList of Task Objects matching the keywords.
+     * Finds the tasks whose description contains the keywords, lazily, in the list as it is now.
+     * The list is only searched as far as the result is read.
      *
      * @param keywords is a string of keywords that should appear in task description.
-     * @return ArrayList with only Task that have the keywords in description.
+     * @return the matching tasks.
      */
-    public ArrayList<Task> findTasks(String keywords) {
+    public TaskMatches find(String keywords) {
         assert userTasks != null;
+        return TaskMatches.matching(userTasks, containing(keywords));
+    }
+
+    /**
+     * Finds the tasks whose description contains the keywords as find does, answering a search repeated since
+     * the last change from the search cache. Descriptions show the names of the tags, so a change to the tags
+     * makes the cached results stale too. A search is cached once its result has been read to the end.
+     *
+     * @param keywords is a string of keywords that should appear in task description.
+     * @param tagList the tags of the tasks.
+     * @return the matching tasks.
+     */
+    public TaskMatches find(String keywords, TagList tagList) {
+        TaskSnapshot tasks = userTasks;
+        String key = "find " + keywords;
+        long taskVersion = tasks.getVersion();
+        long tagVersion = tagList.getVersion();
+        BitSet ids = searchCache.get(key, taskVersion, tagVersion);
+        if (ids != null) {
+            return TaskMatches.withIds(tasks, ids);
+        }
+        return TaskMatches.matching(tasks, containing(keywords),
+                found -> searchCache.put(key, taskVersion, tagVersion, found));
+    }
+
+    /**
+     * Finds the tasks under a tag or any tag below it, as findtag does, answering a search repeated since the
+     * last change from the search cache.
+     *
+     * @param tagName normalised name of the tag at the top.
+     * @param tagList the tags of the tasks.
+     * @return the tasks under the tag, or null if there is no such tag nor any tag below it.
+     */
+    public TaskMatches findTagged(String tagName, TagList tagList) {
+        TaskSnapshot tasks = userTasks;
+        String key = "findtag " + tagName;
+        long taskVersion = tasks.getVersion();
+        long tagVersion = tagList.getVersion();
+        BitSet ids = searchCache.get(key, taskVersion, tagVersion);
+        if (ids == null) {
+            ids = tagList.getTaskIdsUnder(tagName);
+            if (ids == null) {
+                return null;
+            }
+            searchCache.put(key, taskVersion, tagVersion, ids);
+        }
+        return TaskMatches.withIds(tasks, ids);
+    }
+
+    /**
+     * Gets the number of find and findtag searches answered from the search cache.
+     *
+     * @return number of cache hits.
+     */
+    public long getSearchCacheHits() {
+        return searchCache.getHits();
+    }
+
+    /**
+     * Gets the number of find and findtag searches that had to be run.
+     *
+     * @return number of cache misses.
+     */
+    public long getSearchCacheMisses() {
+        return searchCache.getMisses();
+    }
+
+    private static Predicate<Task> containing(String keywords) {
+        return task -> task.getDescription().contains(keywords);
+    }
+
+    /**
+     * Returns a List of Task Objects matching the keywords.
+     *
+     * @param keywords is a string of keywords that should appear in task description.
+     * @return List with only Task that have the keywords in description.
+     */
+    public List<Task> findTasks(String keywords) {
+        return find(keywords).toList();
+    }
 
-        return userTasks.stream()
-                .filter(task -> task.getDescription().contains(keywords))
-                .collect(Collectors.toCollection(ArrayList::new));
+    /**
+     * Returns the indices of a page of tasks matching the keywords, stopping once the page is filled.
+     *
+     * @param keywords is a string of keywords that should appear in task description.
+     * @param offset number of matches to skip.
+     * @param limit maximum number of indices to return.
+     * @return zero-based indices of matching tasks in list order.
+     */
+    public int[] findTaskIndices(String keywords, int offset, int limit) {
+        assert offset >= 0 && limit >= 0;
+        TaskSnapshot tasks = userTasks;
+        TaskCursor cursor = TaskCursor.matching(tasks, containing(keywords)).skip(offset).limit(limit);
+        int[] page = new int[Math.min(limit, tasks.size())];
+        int found = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            page[found++] = cursor.getPosition();
+        }
+        return found == page.length ? page : Arrays.copyOf(page, found);
+    }
 
+    /**
+     * Runs a query, finding the candidates through whichever index the query can use that is estimated to
+     * hand over the fewest tasks, or a scan if none is.
+     *
+     * @param query the query.
+     * @param tagList the tags of the tasks.
+     * @return the page of results asked for, with the plan used.
+     */
+    public QueryResult query(Query query, TagList tagList) {
+        return QueryExecutor.run(query, userTasks, tasksById, queryIndexes(), tagList);
+    }
+
+    /**
+     * Gets the query indexes, building them on first use. Readers may get here together under a shared lock,
+     * so the build is synchronized. The writer only adds to indexes already built.
+     */
+    private synchronized QueryIndexes queryIndexes() {
+        if (queryIndexes == null) {
+            queryIndexes = QueryIndexes.of(userTasks);
+        }
+        return queryIndexes;
+    }
+
+    /**
+     * Stops a long scan if the thread running it has been interrupted.
+     * Only every CANCEL_CHECK_INTERVAL-th call looks at the interrupt flag, so it is cheap to call per element.
+     *
+     * @param scanned number of elements scanned so far.
+     * @throws CancellationException if the current thread was interrupted.
+     */
+    public static void checkCancelled(int scanned) {
+        if (scanned % CANCEL_CHECK_INTERVAL == 0 && Thread.interrupted()) {
+            throw new CancellationException("Scan cancelled");
+        }
     }
 
     /**
@@ -191,9 +789,82 @@ public class TaskList {
      *
      */
     public void tagTask(int index, Tag tag) {
-        this.userTasks.get(index).addTag(tag);
-        tag.tagTask(this.userTasks.get(index));
+        Task task = this.userTasks.get(index);
+        boolean isNew = !tag.isTagged(task);
+        if (isNew) {
+            recordUndo(() -> {
+                task.removeTag(tag);
+                tag.untagTask(task);
+            });
+        }
+        task.addTag(tag);
+        tag.tagTask(task);
+        publishChange();
+        if (isNew && changes.isObserved()) {
+            changes.emit(ChangeEvent.tagged(task, index, tag.getTagName()));
+        }
     }
 
+    /**
+     * Tags every task at the given indices, publishing a single change.
+     *
+     * @param indices zero-based indices of tasks to tag.
+     * @param tag the Tag object to add.
+     * @return number of tasks that did not already carry the tag.
+     */
+    public int tagTasks(int[] indices, Tag tag) {
+        TaskSnapshot tasks = userTasks;
+        int tagged = 0;
+        for (int index : indices) {
+            Task task = tasks.get(index);
+            if (tag.isTagged(task)) {
+                continue;
+            }
+            recordUndo(() -> {
+                task.removeTag(tag);
+                tag.untagTask(task);
+            });
+            task.addTag(tag);
+            tag.tagTask(task);
+            tagged++;
+            if (changes.isObserved()) {
+                changes.emit(ChangeEvent.tagged(task, index, tag.getTagName()));
+            }
+        }
+        publishChange();
+        return tagged;
+    }
+
+    /**
+     * Removes a tag from the task at index.
+     *
+     * @param index of the task to untag.
+     * @param tag is the Tag object to remove from the task.
+     */
+    public void untagTask(int index, Tag tag) {
+        Task task = this.userTasks.get(index);
+        boolean wasTagged = tag.isTagged(task);
+        if (wasTagged) {
+            recordUndo(() -> {
+                task.addTag(tag);
+                tag.tagTask(task);
+            });
+        }
+        task.removeTag(tag);
+        tag.untagTask(task);
+        publishChange();
+        if (wasTagged && changes.isObserved()) {
+            changes.emit(ChangeEvent.untagged(task, index, tag.getTagName()));
+        }
+    }
+
+    /**
+     * Gets the modification version of the task list, incremented on every change.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return userTasks.getVersion();
+    }
 
 }
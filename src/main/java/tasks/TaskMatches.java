@@ -0,0 +1,100 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Result of a search, the tasks of a snapshot that match, found lazily.
+ * Nothing is searched until a cursor is opened, and each cursor only reads as far as it is taken, so showing
+ * the first page of matches costs about as much as finding that page.
+ * The snapshot never changes, but tasks do, so a result is read under the lock it was found under.
+ */
+public final class TaskMatches implements Iterable<Task> {
+    private final TaskSnapshot tasks;
+    private final Predicate<Task> condition;
+    private final BitSet ids;
+    private final Consumer<BitSet> onComplete;
+
+    private TaskMatches(TaskSnapshot tasks, Predicate<Task> condition, BitSet ids, Consumer<BitSet> onComplete) {
+        this.tasks = tasks;
+        this.condition = condition;
+        this.ids = ids;
+        this.onComplete = onComplete;
+    }
+
+    static TaskMatches matching(TaskSnapshot tasks, Predicate<Task> condition) {
+        return new TaskMatches(tasks, condition, null, null);
+    }
+
+    /**
+     * Creates a result whose cursors hand the ids of every match to onComplete whenever one reads to the end.
+     */
+    static TaskMatches matching(TaskSnapshot tasks, Predicate<Task> condition, Consumer<BitSet> onComplete) {
+        return new TaskMatches(tasks, condition, null, onComplete);
+    }
+
+    static TaskMatches withIds(TaskSnapshot tasks, BitSet ids) {
+        return new TaskMatches(tasks, null, ids, null);
+    }
+
+    /**
+     * Opens a new cursor at the first match.
+     *
+     * @return the cursor.
+     */
+    @Override
+    public TaskCursor iterator() {
+        return condition != null
+                ? TaskCursor.matching(tasks, condition, onComplete)
+                : TaskCursor.withIds(tasks, ids);
+    }
+
+    /**
+     * Gets a page of matches, reading no further than its end.
+     *
+     * @param offset number of matches to skip.
+     * @param limit most matches to return.
+     * @return the matches on the page, in list order.
+     */
+    public List<Task> page(int offset, int limit) {
+        return iterator().skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Reads a page of matches, capturing each as a row, and then at most one match more to tell if the page is
+     * the last. The rest of the list is left unread.
+     *
+     * @param offset number of matches to skip.
+     * @param limit most matches to return.
+     * @return the page, which can be read after the lock is released.
+     */
+    public TaskPage readPage(int offset, int limit) {
+        assert offset >= 0 && limit >= 0;
+        TaskCursor cursor = iterator().skip(offset);
+        List<TaskRow> rows = new ArrayList<>(Math.min(limit, 64));
+        int[] positions = new int[Math.min(limit, 64)];
+        while (rows.size() < limit && cursor.hasNext()) {
+            Task task = cursor.next();
+            if (rows.size() == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[rows.size()] = cursor.getPosition();
+            rows.add(TaskRow.of(task));
+        }
+        boolean hasMore = cursor.hasNext();
+        return new TaskPage(rows, Arrays.copyOf(positions, rows.size()), offset, hasMore, cursor.getExamined());
+    }
+
+    /**
+     * Gets every match.
+     *
+     * @return the matches in list order.
+     */
+    public List<Task> toList() {
+        return iterator().toList();
+    }
+}
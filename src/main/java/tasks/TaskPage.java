@@ -0,0 +1,72 @@
+package tasks;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of the matches of a search, read no further than one match past its end.
+ * Holds the rows of the tasks on the page as they were when it was read, where each task sits in the list, and
+ * whether any match comes after the page, so it can be shown after the lock is released.
+ */
+public final class TaskPage {
+    private final List<TaskRow> rows;
+    private final int[] positions;
+    private final int offset;
+    private final boolean hasMore;
+    private final int examined;
+
+    TaskPage(List<TaskRow> rows, int[] positions, int offset, boolean hasMore, int examined) {
+        assert rows.size() == positions.length;
+        this.rows = Collections.unmodifiableList(rows);
+        this.positions = positions;
+        this.offset = offset;
+        this.hasMore = hasMore;
+        this.examined = examined;
+    }
+
+    /**
+     * Gets the matches on the page as they were when it was read.
+     *
+     * @return unmodifiable list of rows, in list order.
+     */
+    public List<TaskRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets where a match on the page sits in the list.
+     *
+     * @param index position on the page.
+     * @return zero-based position in the task list.
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets the number of matches before this page.
+     *
+     * @return number of matches skipped.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Checks if more tasks match after this page.
+     *
+     * @return true if the page did not reach the last match.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Gets the number of tasks looked at to read the page, for seeing that a page stops the search early.
+     *
+     * @return number of tasks read.
+     */
+    public int getExamined() {
+        return examined;
+    }
+}
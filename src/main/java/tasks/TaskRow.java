@@ -0,0 +1,132 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import tags.Tag;
+
+/**
+ * A task as it was at one moment: its status, its description with tags and its tag names.
+ * Rows are immutable, so a row captured while the task could not change can be read later on any thread, such as
+ * when a reply is rendered after the lock is released or when the task panel redraws a cell. Replacing a row with
+ * a new one is what tells the task panel to redraw that one cell.
+ */
+public final class TaskRow {
+    private final Task task;
+    private final String text;
+    private final boolean isDone;
+    private final List<String> tagNames;
+
+    private TaskRow(Task task, String text, boolean isDone, List<String> tagNames) {
+        this.task = task;
+        this.text = text;
+        this.isDone = isDone;
+        this.tagNames = tagNames;
+    }
+
+    /**
+     * Captures a task as it is now. Must be called while the task cannot change, such as under the lock or by
+     * a change listener.
+     *
+     * @param task the task.
+     * @return its row.
+     */
+    public static TaskRow of(Task task) {
+        Set<Tag> tags = task.getTagSet();
+        List<String> tagNames = List.of();
+        if (!tags.isEmpty()) {
+            String[] names = new String[tags.size()];
+            int i = 0;
+            for (Tag tag : tags) {
+                names[i++] = tag.getTagName();
+            }
+            tagNames = List.of(names);
+        }
+        return new TaskRow(task, task.getDescription(), task.getStatus(), tagNames);
+    }
+
+    /**
+     * Captures every task of a list as a row.
+     *
+     * @param tasks the tasks in list order.
+     * @return the rows.
+     */
+    public static List<TaskRow> rowsOf(List<Task> tasks) {
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            TaskList.checkCancelled(rows.size());
+            rows.add(of(task));
+        }
+        return rows;
+    }
+
+    /**
+     * Walks tasks as rows, capturing each one only as it is reached, so a long list can be written out without
+     * holding a row for every task. Each row is as the task is when it is reached.
+     *
+     * @param tasks the tasks in list order.
+     * @return the rows, read once in list order.
+     */
+    public static Iterable<TaskRow> rowsWhenRead(Iterable<Task> tasks) {
+        return () -> new Iterator<>() {
+            private final Iterator<Task> it = tasks.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public TaskRow next() {
+                return of(it.next());
+            }
+        };
+    }
+
+    public int getId() {
+        return task.getId();
+    }
+
+    public String getTaskSymbol() {
+        return task.getTaskSymbol();
+    }
+
+    /**
+     * Gets the full description, including dates and tags.
+     *
+     * @return the description as shown in lists.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the description without tags. Only what never changes in a task goes into it, so it is read from the
+     * task itself.
+     *
+     * @return the description with its dates but without tags.
+     */
+    public String getPlainText() {
+        return task.descNoTags();
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Gets the names the task's tags had.
+     *
+     * @return unmodifiable list of tag names, in the order the tags were added.
+     */
+    public List<String> getTagNames() {
+        return tagNames;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
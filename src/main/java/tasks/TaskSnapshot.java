@@ -0,0 +1,144 @@
+package tasks;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Immutable view of a TaskList as it was at one moment.
+ * Taking a snapshot is O(1) and it stays valid while the list keeps changing, so it can be read on
+ * another thread without holding any lock.
+ * Tasks sit in slots that never move until a compaction, deleted slots are left empty, and positions in
+ * the list are mapped to slots through a SlotIndex in O(log n). The snapshot also keeps the status and type
+ * bitmaps of the slots as they were when it was taken.
+ */
+public class TaskSnapshot extends AbstractList<Task> implements RandomAccess {
+    private final PersistentVector<Task> slots;
+    private final TaskBitmaps bitmaps;
+    private final SlotIndex live;
+    private final long version;
+
+    TaskSnapshot(PersistentVector<Task> slots, TaskBitmaps bitmaps, long version) {
+        this.slots = slots;
+        this.bitmaps = bitmaps;
+        this.live = bitmaps.live;
+        this.version = version;
+    }
+
+    @Override
+    public Task get(int index) {
+        return slots.get(live.select(index));
+    }
+
+    @Override
+    public int size() {
+        return live.size();
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        Iterator<Task> it = slots.iterator();
+        return new Iterator<>() {
+            private Task next = advance();
+
+            private Task advance() {
+                while (it.hasNext()) {
+                    Task task = it.next();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Task current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Gets the slot holding the task at a position.
+     *
+     * @param index zero-based position in the list.
+     * @return the slot.
+     */
+    int slotOf(int index) {
+        return live.select(index);
+    }
+
+    /**
+     * Gets the position in the list of the task in a slot.
+     *
+     * @param slot a live slot.
+     * @return zero-based position in the list.
+     */
+    int indexOfSlot(int slot) {
+        return live.rank(slot);
+    }
+
+    /**
+     * Gets the number of slots, including the empty ones left by deleted tasks.
+     *
+     * @return number of slots.
+     */
+    int slotCount() {
+        return slots.size();
+    }
+
+    PersistentVector<Task> slots() {
+        return slots;
+    }
+
+    SlotIndex liveSlots() {
+        return live;
+    }
+
+    TaskBitmaps bitmaps() {
+        return bitmaps;
+    }
+
+    /**
+     * Gets which tasks were done when the snapshot was taken. Tasks themselves can be marked again later, while
+     * the done bitmap of the snapshot stays as it was, so a reader that must not see later changes, such as a
+     * save made after the lock is released, takes each status from here.
+     *
+     * @return the positions in the list of the done tasks.
+     */
+    public BitSet getDonePositions() {
+        BitSet positions = new BitSet(size());
+        int position = 0;
+        int words = TaskBitmaps.wordCount(slots.size());
+        for (int word = 0; word < words; word++) {
+            int liveWord = live.word(word);
+            for (int bits = bitmaps.done.word(word); bits != 0; bits &= bits - 1) {
+                int bit = Integer.numberOfTrailingZeros(bits);
+                positions.set(position + Integer.bitCount(liveWord & ((1 << bit) - 1)));
+            }
+            position += Integer.bitCount(liveWord);
+        }
+        return positions;
+    }
+
+    /**
+     * Gets the version of the TaskList this snapshot was taken at.
+     *
+     * @return the TaskList version.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,91 @@
+package tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import tags.Tag;
+
+/**
+ * Sort key of one task, worked out once before sorting so comparisons never format dates or descriptions.
+ * Keys compare by rank, which puts tasks lacking the sorted field last, then by number or text,
+ * then by list position so equal keys keep list order.
+ */
+final class TaskSortKey implements Comparable<TaskSortKey> {
+    private static final int HAS_KEY = 0;
+    private static final int TEXT_DATE = 1;
+    private static final int NO_KEY = 2;
+
+    final Task task;
+    final int position;
+    private final int rank;
+    private final long number;
+    private final String text;
+
+    private TaskSortKey(Task task, int position, int rank, long number, String text) {
+        this.task = task;
+        this.position = position;
+        this.rank = rank;
+        this.number = number;
+        this.text = text;
+    }
+
+    /**
+     * Works out the key of a task for a sort order.
+     *
+     * @param task the task.
+     * @param position zero-based position of the task in the list.
+     * @param sort the order being sorted by, other than list order.
+     * @return the key.
+     */
+    static TaskSortKey of(Task task, int position, ListOptions.Sort sort) {
+        switch (sort) {
+        case DUE:
+            if (task instanceof Deadline) {
+                return ofDate(task, position, ((Deadline) task).getDueDateObj());
+            }
+            return new TaskSortKey(task, position, NO_KEY, 0, null);
+        case START:
+            if (task instanceof Event) {
+                return ofDate(task, position, ((Event) task).getStartDateObj());
+            }
+            return new TaskSortKey(task, position, NO_KEY, 0, null);
+        case DESCRIPTION:
+            return new TaskSortKey(task, position, HAS_KEY, 0, task.getDesc().toLowerCase());
+        case TAG:
+            String first = null;
+            for (Tag tag : task.getTagSet()) {
+                String name = tag.getTagName();
+                if (first == null || name.compareTo(first) < 0) {
+                    first = name;
+                }
+            }
+            return new TaskSortKey(task, position, first == null ? NO_KEY : HAS_KEY, 0, first);
+        default:
+            return new TaskSortKey(task, position, HAS_KEY, 0, null);
+        }
+    }
+
+    private static TaskSortKey ofDate(Task task, int position, LocalDateTime date) {
+        if (date == null) {
+            return new TaskSortKey(task, position, TEXT_DATE, 0, null);
+        }
+        return new TaskSortKey(task, position, HAS_KEY, date.toEpochSecond(ZoneOffset.UTC), null);
+    }
+
+    @Override
+    public int compareTo(TaskSortKey other) {
+        if (rank != other.rank) {
+            return Integer.compare(rank, other.rank);
+        }
+        if (number != other.number) {
+            return Long.compare(number, other.number);
+        }
+        if (text != null && other.text != null) {
+            int byText = text.compareTo(other.text);
+            if (byText != 0) {
+                return byText;
+            }
+        }
+        return Integer.compare(position, other.position);
+    }
+}
@@ -0,0 +1,153 @@
+package tasks;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Running statistics that depend on time, kept up to date by the TaskList as tasks are added, marked,
+ * unmarked and deleted, so nothing has to scan the list to report them.
+ * Undone deadlines with a date are held by due time until they fall due, then folded into an overdue count,
+ * so each deadline costs O(log n) once however often the count is read.
+ * Completions are counted per calendar week, starting on Monday, and are not kept across restarts.
+ * Methods are synchronized because reading the overdue count moves deadlines that have just fallen due.
+ */
+final class TaskStats {
+    private final Clock clock;
+
+    /** Number of undone deadlines due at each epoch second, for those not yet overdue at the last check. */
+    private final TreeMap<Long, Integer> upcoming = new TreeMap<>();
+
+    /** Number of undone deadlines due before the last check. */
+    private int overdue;
+
+    /** Epoch second of the last check, deadlines due before it are counted in overdue. */
+    private long checkedAt = Long.MIN_VALUE;
+
+    /** Ids of tasks marked done this week and not unmarked since. */
+    private final Set<Integer> completedThisWeek = new HashSet<>();
+    private LocalDate weekStart;
+
+    TaskStats(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Counts a task newly in the list.
+     *
+     * @param task the task.
+     */
+    synchronized void added(Task task) {
+        if (!task.getStatus()) {
+            addDeadline(task);
+        }
+    }
+
+    /**
+     * Stops counting a task taken out of the list. A completion this week stays counted.
+     *
+     * @param task the task.
+     * @param isDone status of the task when it was taken out.
+     */
+    synchronized void removed(Task task, boolean isDone) {
+        if (!isDone) {
+            removeDeadline(task);
+        }
+    }
+
+    /**
+     * Counts a task changing status.
+     *
+     * @param task the task.
+     * @param wasDone status before the change.
+     * @param isDone status after the change.
+     */
+    synchronized void statusChanged(Task task, boolean wasDone, boolean isDone) {
+        if (wasDone == isDone) {
+            return;
+        }
+        rollWeek();
+        if (isDone) {
+            removeDeadline(task);
+            completedThisWeek.add(task.getId());
+        } else {
+            addDeadline(task);
+            completedThisWeek.remove(task.getId());
+        }
+    }
+
+    /**
+     * Gets the number of undone deadlines whose due date has passed.
+     *
+     * @return number of overdue tasks.
+     */
+    synchronized int getOverdue() {
+        long now = clock.instant().getEpochSecond();
+        if (now > checkedAt) {
+            Iterator<Map.Entry<Long, Integer>> due = upcoming.headMap(now, false).entrySet().iterator();
+            while (due.hasNext()) {
+                overdue += due.next().getValue();
+                due.remove();
+            }
+            checkedAt = now;
+        }
+        return overdue;
+    }
+
+    /**
+     * Gets the number of tasks marked done since the start of the week.
+     *
+     * @return number of completions this week.
+     */
+    synchronized int getCompletedThisWeek() {
+        rollWeek();
+        return completedThisWeek.size();
+    }
+
+    private void rollWeek() {
+        LocalDate start = LocalDate.now(clock).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        if (!start.equals(weekStart)) {
+            weekStart = start;
+            completedThisWeek.clear();
+        }
+    }
+
+    private long dueSecond(Task task) {
+        if (!(task instanceof Deadline)) {
+            return Long.MIN_VALUE;
+        }
+        LocalDateTime due = ((Deadline) task).getDueDateObj();
+        return due == null ? Long.MIN_VALUE : due.atZone(clock.getZone()).toEpochSecond();
+    }
+
+    private void addDeadline(Task task) {
+        long due = dueSecond(task);
+        if (due == Long.MIN_VALUE) {
+            return;
+        }
+        if (due < checkedAt) {
+            overdue++;
+        } else {
+            upcoming.merge(due, 1, Integer::sum);
+        }
+    }
+
+    private void removeDeadline(Task task) {
+        long due = dueSecond(task);
+        if (due == Long.MIN_VALUE) {
+            return;
+        }
+        if (due < checkedAt) {
+            overdue--;
+        } else {
+            upcoming.computeIfPresent(due, (second, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
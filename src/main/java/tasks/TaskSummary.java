@@ -0,0 +1,88 @@
+package tasks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import tags.Tag;
+
+/**
+ * Counts describing the task list at one moment, read from the running statistics rather than a scan.
+ */
+public class TaskSummary {
+    private final int total;
+    private final int done;
+    private final int overdue;
+    private final int todos;
+    private final int deadlines;
+    private final int events;
+    private final int completedThisWeek;
+    private final Map<String, Integer> largestTags;
+
+    TaskSummary(TaskBitmaps bitmaps, TaskStats stats, List<Tag> largestTags) {
+        this.total = bitmaps.count(null, TaskBitmaps.ANY_TYPE);
+        this.done = bitmaps.count(true, TaskBitmaps.ANY_TYPE);
+        this.todos = bitmaps.count(null, TaskBitmaps.typeOf("T"));
+        this.deadlines = bitmaps.count(null, TaskBitmaps.typeOf("D"));
+        this.events = bitmaps.count(null, TaskBitmaps.typeOf("E"));
+        this.overdue = stats.getOverdue();
+        this.completedThisWeek = stats.getCompletedThisWeek();
+        Map<String, Integer> tags = new LinkedHashMap<>();
+        for (Tag tag : largestTags) {
+            tags.put(tag.getTagName(), tag.size());
+        }
+        this.largestTags = Collections.unmodifiableMap(tags);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    public int getRemaining() {
+        return total - done;
+    }
+
+    /**
+     * Gets the number of undone deadlines whose due date has passed.
+     *
+     * @return number of overdue tasks.
+     */
+    public int getOverdue() {
+        return overdue;
+    }
+
+    public int getTodos() {
+        return todos;
+    }
+
+    public int getDeadlines() {
+        return deadlines;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the number of tasks marked done since Monday.
+     *
+     * @return number of completions this week.
+     */
+    public int getCompletedThisWeek() {
+        return completedThisWeek;
+    }
+
+    /**
+     * Gets the number of tasks under each of the largest tags.
+     *
+     * @return unmodifiable map of tag name to task count, largest first.
+     */
+    public Map<String, Integer> getLargestTags() {
+        return largestTags;
+    }
+}
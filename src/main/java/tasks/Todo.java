@@ -24,12 +24,12 @@ public class Todo extends Task {
     }
 
     @Override
-    public String getDescription() {
-        return super.getDescription() + this.getTags();
+    protected String describe() {
+        return super.describe() + this.getTags();
     }
 
     @Override
     public String descNoTags() {
-        return super.getDescription();
+        return super.describe();
     }
 }
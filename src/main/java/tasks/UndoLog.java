@@ -0,0 +1,47 @@
+package tasks;
+
+import java.util.ArrayDeque;
+
+/**
+ * Records how to reverse each change made during a transaction, so the whole transaction can be undone.
+ * Changes are undone in the reverse of the order they were made.
+ */
+public class UndoLog {
+    private final ArrayDeque<Runnable> undoActions = new ArrayDeque<>();
+    private boolean isRollingBack;
+
+    /**
+     * Records the action that reverses a change that is about to be made.
+     * Changes made while rolling back are not recorded.
+     *
+     * @param undo action restoring the state before the change.
+     */
+    public void record(Runnable undo) {
+        if (!isRollingBack) {
+            undoActions.push(undo);
+        }
+    }
+
+    /**
+     * Reverses every recorded change, most recent first, and clears the log.
+     */
+    public void rollback() {
+        isRollingBack = true;
+        try {
+            while (!undoActions.isEmpty()) {
+                undoActions.pop().run();
+            }
+        } finally {
+            isRollingBack = false;
+        }
+    }
+
+    /**
+     * Gets the number of changes that would be reversed by a rollback.
+     *
+     * @return number of recorded changes.
+     */
+    public int size() {
+        return undoActions.size();
+    }
+}
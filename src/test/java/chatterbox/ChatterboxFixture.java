@@ -0,0 +1,35 @@
+package chatterbox;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds ChatterboxGui instances for tests, each with its own empty history file under the test's temporary
+ * directory, so nothing is left behind once the test ends.
+ */
+public final class ChatterboxFixture {
+
+    private ChatterboxFixture() {
+    }
+
+    /**
+     * Creates an empty history file.
+     *
+     * @param dir the test's temporary directory.
+     * @return path of the new file.
+     */
+    public static String newHistory(Path dir) throws IOException {
+        return Files.createTempFile(dir, "chatterbox", ".txt").toString();
+    }
+
+    /**
+     * Creates and starts a chatterbox with no tasks.
+     *
+     * @param dir the test's temporary directory.
+     * @return the started chatterbox, to be shut down by the test.
+     */
+    public static ChatterboxGui startEmpty(Path dir) throws IOException {
+        return new ChatterboxGui(newHistory(dir)).start();
+    }
+}
@@ -0,0 +1,201 @@
+package chatterbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import command.Response;
+
+public class ChatterboxGuiTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void processInput_multiCommand_appliedTogether() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        Response response = chatterbox.processInput("todo read; todo write\ntag /i 1-2 /t work");
+        assertEquals(Response.Status.OK, response.getStatus());
+        assertEquals(2, chatterbox.getTaskList().size());
+        assertEquals(2, chatterbox.getTagList().getTag("work").size());
+        assertEquals(0, chatterbox.getPendingChanges());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_multiCommandError_everythingRolledBack() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo keep; tag /i 1 /t old");
+        Response response = chatterbox.processInput(
+                "mark 1; removetag /i 1 /t old; tag /i 1 /t new; delete 1; todo added; deadline no date");
+        assertEquals(Response.Status.ERROR, response.getStatus());
+        assertEquals(1, chatterbox.getTaskList().size());
+        assertFalse(chatterbox.getTaskList().getTask(0).getStatus());
+        assertTrue(chatterbox.getTagList().getTag("old").isTagged(chatterbox.getTaskList().getTask(0)));
+        assertFalse(chatterbox.getTagList().containsTag("new"));
+        assertEquals("keep /tags: old ", chatterbox.getTaskList().getTaskDescription(0));
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_delete_dropsTagsLeftEmpty() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo a; todo b; todo c; todo d; tag /i 1 /t solo; tag /i 2-4 /t shared; "
+                + "tag /i 3-4 /t pair");
+        chatterbox.processInput("delete 1");
+        assertFalse(chatterbox.getTagList().containsTag("solo"));
+        chatterbox.processInput("delete 2-3");
+        assertFalse(chatterbox.getTagList().containsTag("pair"));
+        assertEquals(1, chatterbox.getTagList().getTag("shared").size());
+        assertEquals(1, chatterbox.getTagList().size());
+        assertFalse(chatterbox.processInput("alltags").getText().contains("(0)"));
+
+        Response failed = chatterbox.processInput("delete 1; delete 5");
+        assertEquals(Response.Status.ERROR, failed.getStatus());
+        assertEquals(1, chatterbox.getTagList().getTag("shared").size());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_multiCommand_listShowsStateAtItsStep() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read");
+        Response response = chatterbox.processInput("list; mark 1");
+        assertEquals(Response.Status.OK, response.getStatus());
+        assertTrue(response.getText().contains("[T][ ] read"), response.getText());
+        assertTrue(chatterbox.getTaskList().getTask(0).getStatus());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_multiCommandBadIndex_everythingRolledBack() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        Response response = chatterbox.processInput("todo keep; mark 5; todo after");
+        assertEquals(Response.Status.ERROR, response.getStatus());
+        assertEquals(0, chatterbox.getTaskList().size());
+
+        assertEquals(Response.Status.ERROR, chatterbox.processInput("delete 1").getStatus());
+        assertEquals(Response.Status.ERROR, chatterbox.processInput("tag /i 1 /t work").getStatus());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_unknownCommand_nothingRun() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        Response response = chatterbox.processInput("todo first; dance");
+        assertEquals(Response.Status.ERROR, response.getStatus());
+        assertEquals(0, chatterbox.getTaskList().size());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_bye_exitResponse() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        Response response = chatterbox.processInput("bye");
+        assertEquals(Response.Status.EXIT, response.getStatus());
+        assertEquals(chatterbox.getGoodbye(), response.getText());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_find_carriesMatches() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read book; todo write essay");
+        Response response = chatterbox.processInput("find book");
+        assertTrue(response.hasTasks());
+        assertEquals(1, response.getTasks().size());
+        assertEquals(chatterbox.getTaskList().getTask(0).getId(), response.getTasks().get(0).getId());
+        assertEquals("read book", response.getTasks().get(0).getPlainText().trim());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_findPage_showsOnlyThatPage() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        StringBuilder input = new StringBuilder("todo read 0");
+        for (int i = 1; i < 30; i++) {
+            input.append("; todo read ").append(i);
+        }
+        chatterbox.processInput(input.toString());
+        Response first = chatterbox.processInput("find read /page 1");
+        assertEquals(20, first.getTasks().size());
+        assertTrue(first.getText().contains("add /page 2"), first.getText());
+        Response second = chatterbox.processInput("find read /page 2");
+        assertEquals("read 20", second.getTasks().get(0).getPlainText().trim());
+        assertEquals(30, chatterbox.processInput("find read").getTasks().size());
+        assertTrue(chatterbox.processInput("find read /page 0").isError());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_find_replyKeepsStateWhenRun() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read book");
+        Response response = chatterbox.processInput("find book");
+        chatterbox.processInput("mark 1");
+        assertTrue(response.getText().contains("[T][ ] read book"), response.getText());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void processInput_list_renderedLaterAsWhenRun() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read book; tag /i 1 /t school");
+        Response list = chatterbox.processInput("list");
+        Response found = chatterbox.processInput("findtag school");
+        chatterbox.processInput("mark 1; renametag school uni");
+        assertTrue(list.getText().contains("1. [T][ ] read book /tags: school"), list.getText());
+        assertTrue(found.getText().contains("[T][ ] read book /tags: school"), found.getText());
+        assertEquals(List.of("school"), found.getTasks().get(0).getTagNames());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void submit_afterShutdown_rejected() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> chatterbox.submit("todo late"));
+        assertThrows(RejectedExecutionException.class, () -> chatterbox.processInput("todo late"));
+        assertEquals(0, chatterbox.getTaskList().size());
+    }
+
+    @Test
+    public void submit_beforeStart_rejected() throws IOException {
+        ChatterboxGui chatterbox = new ChatterboxGui(ChatterboxFixture.newHistory(tempDir));
+        assertThrows(IllegalStateException.class, () -> chatterbox.processInput("todo early"));
+        assertEquals(Response.Status.OK, chatterbox.processInput("list").getStatus());
+        chatterbox.start();
+        assertEquals(Response.Status.OK, chatterbox.processInput("todo now").getStatus());
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void submit_errorInBatch_writerKeepsRunning() throws Exception {
+        ChatterboxGui chatterbox = new ChatterboxGui(ChatterboxFixture.newHistory(tempDir)) {
+            @Override
+            void applyBatch(List<CommandPipeline.PendingCommand> batch) {
+                if (batch.get(0).input.equals("todo boom")) {
+                    throw new StackOverflowError();
+                }
+                super.applyBatch(batch);
+            }
+        }.start();
+        CompletableFuture<Response> failed = chatterbox.submit("todo boom");
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(e.getCause() instanceof StackOverflowError);
+        assertEquals(Response.Status.OK, chatterbox.submit("todo fine").get().getStatus());
+        assertEquals(1, chatterbox.getTaskList().size());
+        chatterbox.shutdown();
+    }
+}
@@ -0,0 +1,53 @@
+package chatterbox;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChatterboxMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void register_attributesReadThroughServer() throws Exception {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read; todo write; todo sleep\nmark 1\ntag /i 1-2 /t work\ndelete 3");
+        ChatterboxMetrics.register(chatterbox);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ChatterboxMetrics.OBJECT_NAME);
+        assertEquals(2, server.getAttribute(name, "TaskCount"));
+        assertEquals(1, server.getAttribute(name, "RemainingTaskCount"));
+        assertEquals(1, server.getAttribute(name, "TagCount"));
+        assertArrayEquals(new String[] {"work=2"}, (String[]) server.getAttribute(name, "LargestTags"));
+        assertEquals(0L, server.getAttribute(name, "CommandErrors"));
+
+        server.invoke(name, "forceSave", null, null);
+        assertTrue((Long) server.getAttribute(name, "HistoryFileSize") > 0);
+        chatterbox.shutdown();
+    }
+
+    @Test
+    public void register_replacesEarlierRegistration() throws Exception {
+        ChatterboxGui first = ChatterboxFixture.startEmpty(tempDir);
+        first.processInput("todo read");
+        ChatterboxMetrics.register(first);
+        ChatterboxGui second = ChatterboxFixture.startEmpty(tempDir);
+        ChatterboxMetrics.register(second);
+
+        ObjectName name = new ObjectName(ChatterboxMetrics.OBJECT_NAME);
+        assertEquals(0, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "TaskCount"));
+        first.shutdown();
+        second.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package chatterbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void capacity_roundedUpToPowerOfTwo() {
+        assertEquals(8, new RingBuffer<Integer>(5).capacity());
+        assertEquals(8, new RingBuffer<Integer>(8).capacity());
+    }
+
+    @Test
+    public void offer_full_rejected() {
+        RingBuffer<Integer> ring = new RingBuffer<>(2);
+        assertTrue(ring.offer(1));
+        assertTrue(ring.offer(2));
+        assertFalse(ring.offer(3));
+        assertEquals(1, ring.poll());
+        assertTrue(ring.offer(3));
+    }
+
+    @Test
+    public void poll_fifoOrder() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int round = 0; round < 10; round++) {
+            ring.offer(round);
+            ring.offer(round + 100);
+            assertEquals(round, ring.poll());
+            assertEquals(round + 100, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void drainTo_manyProducers_nothingLostPerProducerOrderKept() throws InterruptedException {
+        RingBuffer<Integer> ring = new RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(producer * perProducer + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        List<Integer> batch = new ArrayList<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            batch.clear();
+            received += ring.drainTo(batch, 16);
+            for (int value : batch) {
+                int producer = value / perProducer;
+                assertTrue(value % perProducer > lastSeen[producer]);
+                lastSeen[producer] = value % perProducer;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(ring.isEmpty());
+        for (int last : lastSeen) {
+            assertEquals(perProducer - 1, last);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.Tag;
+import tags.TagList;
+import tasks.Deadline;
+import tasks.Task;
+import tasks.TaskList;
+import tasks.TaskRow;
+import tasks.Todo;
+
+public class GuiResponsesTest {
+
+    @Test
+    public void writeTaskList_sameAsListTaskMsg() throws ChatterboxExceptions.ChatterBoxNoInput, IOException {
+        Task read = new Todo("read book");
+        Task submit = new Deadline("submit", "monday");
+        submit.setStatus(true);
+        submit.addTag(new Tag("100%"));
+        GuiResponses responses = new GuiResponses();
+
+        StringWriter out = new StringWriter();
+        List<TaskRow> rows = TaskRow.rowsOf(List.of(read, submit));
+        responses.writeTaskList(2, rows, out);
+        assertEquals(responses.listTaskMsg(rows), out.toString());
+        assertEquals("You have 2 Tasks in List: \n"
+                + "1. [T][ ] read book \n"
+                + "2. [D][X] submit ( by monday ) /tags: 100% \n"
+                + "You have fewer than 5 tasks. It seems the load is manageable for now.\nKeep going!",
+                out.toString());
+    }
+
+    @Test
+    public void getTaggedTasks_rowsUnnumbered() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tags = new TagList();
+        tasks.addTodo("read book");
+        tasks.tagTask(0, tags.addTagFromString("school"));
+        assertEquals("Here are the tasks that have been tagged:\n[T][ ] read book /tags: school \n",
+                new GuiResponses().getTaggedTasks(tasks.findTagged("school", tags).readPage(0, 10)));
+    }
+
+    @Test
+    public void getSearchList_pageNumberedFromOffset() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 45; i++) {
+            tasks.addTodo("read " + i);
+        }
+        GuiResponses responses = new GuiResponses();
+        String second = responses.getSearchList(tasks.find("read").readPage(20, 20));
+        assertTrue(second.startsWith("Here are the tasks that align with your search:\n21. [T][ ] read 20 \n"),
+                second);
+        assertTrue(second.endsWith("40. [T][ ] read 39 \nThere are more matches, add /page 3 to see them.\n"),
+                second);
+        String last = responses.getSearchList(tasks.find("read").readPage(40, 20));
+        assertTrue(last.endsWith("45. [T][ ] read 44 \n"), last);
+        assertTrue(responses.getSearchList(tasks.find("read").readPage(60, 20)).contains("does not reach"));
+    }
+}
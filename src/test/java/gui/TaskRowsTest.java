@@ -0,0 +1,73 @@
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.TagList;
+import tasks.TaskList;
+import tasks.TaskRow;
+
+public class TaskRowsTest {
+
+    @Test
+    public void patches_keepRowsInStep() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tags = new TagList();
+        tags.setChangeFeed(tasks.getChangeFeed());
+        tasks.addTodo("read");
+        tasks.addTodo("write");
+        List<TaskRow> rows = TaskRow.rowsOf(tasks.getTasks());
+        TaskRow untouched = rows.get(0);
+        tasks.getChangeFeed().addListener(changes ->
+                TaskRows.apply(rows, TaskRows.patchesFor(changes, tasks.snapshot())));
+
+        TaskRow before = rows.get(1);
+        tasks.markTask(1);
+        assertNotSame(before, rows.get(1));
+        assertTrue(rows.get(1).isDone());
+        assertSame(untouched, rows.get(0));
+
+        tasks.addTodo("sleep");
+        tasks.tagTask(2, tags.addTagFromString("home"));
+        tasks.deleteTasks(new int[] {0, 1});
+        tasks.addTodo("eat");
+        assertEquals(List.of("sleep /tags: home ", "eat "), texts(rows));
+
+        tags.moveTags("home", "house/home");
+        assertEquals(List.of("sleep /tags: house/home ", "eat "), texts(rows));
+    }
+
+    @Test
+    public void frameBatcher_schedulesOneDrainUntilItRuns() {
+        List<Runnable> scheduled = new ArrayList<>();
+        List<List<Integer>> applied = new ArrayList<>();
+        FrameBatcher<Integer> batcher = new FrameBatcher<>(scheduled::add, applied::add);
+        batcher.add(1);
+        batcher.add(2);
+        batcher.add(3);
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+        assertEquals(List.of(List.of(1, 2, 3)), applied);
+
+        batcher.add(4);
+        assertEquals(2, scheduled.size());
+        scheduled.get(1).run();
+        assertEquals(List.of(4), applied.get(1));
+    }
+
+    private static List<String> texts(List<TaskRow> rows) {
+        List<String> texts = new ArrayList<>();
+        for (TaskRow row : rows) {
+            texts.add(row.getText());
+        }
+        return texts;
+    }
+}
@@ -2,13 +2,24 @@ package parser;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import chatterboxexceptions.ChatterboxExceptions;
 import command.ByeCommand;
 import command.DeadlineCommand;
+import command.MergeTagsCommand;
+import command.MoveTagCommand;
+import command.RenameTagCommand;
+import command.TagCommand;
+import command.TagsCommand;
 import command.TodoCommand;
+import tasks.ListOptions;
+import tasks.Query;
 
 
 
@@ -36,6 +47,49 @@ public class ParserTest {
 
     }
 
+    @Test
+    public void parseCommand_tagsCommand() {
+        assertEquals(new TagsCommand(), testParser.parseCommandType("tags Wor"));
+        assertEquals(new TagCommand(), testParser.parseCommandType("tag /i 1 /t work"));
+        assertEquals("wor", testParser.parseTagsPrefix("tags Wor "));
+    }
+
+    @Test
+    public void parseQuery_readsEveryTerm() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        Query query = testParser.parseQuery(
+                "query undone deadline tag:Work/ due<2025-01-01 text:\"Quarterly Report\" order by due limit 20");
+        assertEquals(false, query.getStatus());
+        assertEquals("D", query.getTaskSymbol());
+        assertEquals(List.of("work"), query.getTags());
+        assertEquals(List.of("quarterly report"), query.getTexts());
+        assertEquals("before 2025-01-01T00:00", query.getDue().toString());
+        assertEquals(ListOptions.Sort.DUE, query.getSort());
+        assertEquals(20, query.getLimit());
+        assertEquals(false, query.isExplain());
+
+        query = testParser.parseQuery("query explain due<=2025-01-01 due>12-12-2024 offset 5");
+        assertTrue(query.isExplain());
+        assertEquals("from 2024-12-13T00:00 and before 2025-01-02T00:00", query.getDue().toString());
+        assertEquals(5, query.getOffset());
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () ->
+                testParser.parseQuery("query text:\"open"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () ->
+                testParser.parseQuery("query soon"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () ->
+                testParser.parseQuery("query due<tomorrow"));
+    }
+
+    @Test
+    public void parseCommand_moveTagCommand() throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        assertEquals(new MoveTagCommand(), testParser.parseCommandType("movetag work/a archive/a"));
+        assertArrayEquals(new String[] {"work/a", "archive/a"},
+                testParser.parseTagPair("movetag  work/a   archive/a ", "movetag"));
+        assertThrows(ChatterboxExceptions.ChatterBoxMissingParameter.class, () ->
+                testParser.parseTagPair("movetag a", "movetag"));
+        assertEquals(new RenameTagCommand(), testParser.parseCommandType("renametag a b"));
+        assertEquals(new MergeTagsCommand(), testParser.parseCommandType("mergetags a b"));
+    }
+
 
 
 
@@ -71,6 +125,68 @@ public class ParserTest {
         }
     }
 
+    @Test
+    public void extractIndices_listAndRanges() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        IndexRanges numbers = testParser.extractIndices("delete 3,7, 9-12");
+        assertArrayEquals(new int[] {2, 6, 8, 9, 10, 11}, numbers.toZeroBasedArray());
+        assertEquals(3, numbers.first());
+        assertEquals(12, numbers.last());
+    }
+
+    @Test
+    public void extractIndices_overlappingRangesMerged() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        IndexRanges numbers = testParser.extractIndices("mark 5-8,1-500,7");
+        assertEquals(500L, numbers.size());
+        assertEquals(1, numbers.first());
+        assertEquals(500, numbers.last());
+    }
+
+    @Test
+    public void extractIndices_singleNumber() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        assertTrue(testParser.extractIndices("unmark sadf43").isSingle());
+        assertEquals(43, testParser.extractIndices("unmark sadf43").first());
+    }
+
+    @Test
+    public void extractIndices_invalid_exceptionThrown() {
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.extractIndices("mark 9-3"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.extractIndices("mark -3"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.extractIndices("mark 4-"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.extractIndices("mark"));
+    }
+
+    @Test
+    public void tagCommandParseTaskIndices_range() throws ChatterboxExceptions.ChatterBoxError {
+        IndexRanges numbers = testParser.tagCommandParseTaskIndices("tag /i 1-50 /t work");
+        assertEquals(50L, numbers.size());
+        assertEquals(50, numbers.last());
+    }
+
+    @Test
+    public void splitCommands_newlinesAndSemicolons() {
+        assertEquals(List.of("todo a", "mark 1", "list"), testParser.splitCommands("todo a;\nmark 1 ;; list\n"));
+    }
+
+    @Test
+    public void tokenize_flagSlicesPointIntoInput() throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        String input = "event  team sync /from 1/2/2024 1400 /to 1/2/2024 1500 ";
+        ArgumentTokenizer args = testParser.tokenizeEvent(input);
+        assertEquals("team sync", args.body());
+        assertEquals("1/2/2024 1400", input.substring(args.start(ArgumentTokenizer.Flag.FROM),
+                args.end(ArgumentTokenizer.Flag.FROM)));
+        assertEquals("1/2/2024 1500", args.value(ArgumentTokenizer.Flag.TO));
+    }
+
+    @Test
+    public void tokenize_intValueReadInPlace() throws ChatterboxExceptions.ChatterBoxMissingParameter {
+        assertEquals(12, testParser.parseRemoveTagIndex("removetag /i 12 /t work"));
+        assertThrows(ChatterboxExceptions.ChatterBoxMissingParameter.class, () ->
+                testParser.parseRemoveTagIndex("removetag /i 1a /t work"));
+        assertThrows(ChatterboxExceptions.ChatterBoxMissingParameter.class, () ->
+                testParser.parseRemoveTagIndex("removetag /t work /i 1"));
+        assertEquals("work", testParser.parseRemoveTagName("removetag /i 12 /t work "));
+    }
+
     @Test
     public void parseTodo_todoText() {
 
@@ -151,4 +267,26 @@ public class ParserTest {
             System.out.println("error" + e.getMessage());
         }
     }
+
+    @Test
+    public void parseListOptions_pageAndSort() throws ChatterboxExceptions.ChatterBoxInvalidInput {
+        assertTrue(testParser.parseListOptions("list").isAll());
+        ListOptions options = testParser.parseListOptions("list undone deadlines by due page 3");
+        assertEquals(ListOptions.Sort.DUE, options.getSort());
+        assertEquals(2 * ListOptions.PAGE_SIZE, options.getOffset());
+        assertEquals(ListOptions.PAGE_SIZE, options.getLimit());
+
+        ListOptions range = testParser.parseListOptions("list 100-200");
+        assertEquals(99, range.getOffset());
+        assertEquals(101, range.getLimit());
+    }
+
+    @Test
+    public void parseListOptions_invalid_exceptionThrown() {
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.parseListOptions("list by"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.parseListOptions("list 5-2"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class,
+                () -> testParser.parseListOptions("list page 0"));
+        assertThrows(ChatterboxExceptions.ChatterBoxInvalidInput.class, () -> testParser.parseListOptions("list soon"));
+    }
 }
@@ -0,0 +1,168 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbox.ChatterboxFixture;
+import chatterbox.ChatterboxGui;
+
+public class ApiServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Starts a server for the chatterbox on a free loopback port.
+     */
+    private static ApiServer startServer(ChatterboxGui chatterbox) throws IOException {
+        ApiServer server = new ApiServer(chatterbox, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        return server;
+    }
+
+    private ChatterboxGui newChatterbox() throws IOException {
+        ChatterboxGui chatterbox = ChatterboxFixture.startEmpty(tempDir);
+        chatterbox.processInput("todo read book; todo write essay; todo read paper");
+        return chatterbox;
+    }
+
+    private HttpResponse<String> get(ApiServer server, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(server, path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(ApiServer server, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(server, path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(ApiServer server, String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Test
+    public void list_streamsEveryTask() throws Exception {
+        ChatterboxGui chatterbox = newChatterbox();
+        ApiServer server = startServer(chatterbox);
+        try {
+            HttpResponse<String> response = get(server, "/api/list");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+            String body = response.body();
+            assertTrue(body.startsWith("You have 3 Tasks in List"), body);
+            assertTrue(body.indexOf("read book") < body.indexOf("write essay"), body);
+            assertTrue(body.indexOf("write essay") < body.indexOf("read paper"), body);
+        } finally {
+            server.stop();
+            chatterbox.shutdown();
+        }
+    }
+
+    @Test
+    public void find_pagesMatches() throws Exception {
+        ChatterboxGui chatterbox = newChatterbox();
+        ApiServer server = startServer(chatterbox);
+        try {
+            HttpResponse<String> response = get(server, "/api/find?q=read&limit=1");
+            assertEquals(200, response.statusCode());
+            String body = response.body();
+            assertTrue(body.contains("\"hasMore\":true"), body);
+            assertTrue(body.contains("\"index\":1"), body);
+            assertTrue(body.contains("\"description\":\"read book\""), body);
+
+            body = get(server, "/api/find?q=read&offset=1").body();
+            assertTrue(body.contains("\"hasMore\":false"), body);
+            assertTrue(body.contains("\"index\":3"), body);
+            assertTrue(!body.contains("write essay"), body);
+        } finally {
+            server.stop();
+            chatterbox.shutdown();
+        }
+    }
+
+    @Test
+    public void findTag_pagesWithListIndices() throws Exception {
+        ChatterboxGui chatterbox = newChatterbox();
+        chatterbox.processInput("tag /i 1,3 /t reading");
+        ApiServer server = startServer(chatterbox);
+        try {
+            String body = get(server, "/api/findtag?tag=reading&limit=1").body();
+            assertTrue(body.contains("\"total\":2"), body);
+            assertTrue(body.contains("\"hasMore\":true"), body);
+            assertTrue(body.contains("{\"index\":1,"), body);
+
+            body = get(server, "/api/findtag?tag=reading&offset=1").body();
+            assertTrue(body.contains("\"hasMore\":false"), body);
+            assertTrue(body.contains("{\"index\":3,\"type\":\"T\",\"done\":false,\"description\":\"read paper\""),
+                    body);
+        } finally {
+            server.stop();
+            chatterbox.shutdown();
+        }
+    }
+
+    @Test
+    public void command_appliesMutation() throws Exception {
+        ChatterboxGui chatterbox = newChatterbox();
+        ApiServer server = startServer(chatterbox);
+        try {
+            HttpResponse<String> response = post(server, "/api/command", "{\"input\":\"mark 2\"}");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().startsWith("{\"type\":\"OK\""), response.body());
+            assertTrue(chatterbox.getTaskList().getTask(1).getStatus());
+
+            response = post(server, "/api/command", "todo from api");
+            assertEquals(200, response.statusCode());
+            String body = get(server, "/api/tasks").body();
+            assertTrue(body.contains("\"total\":4"), body);
+            assertTrue(body.contains("\"done\":true,\"description\":\"write essay\""), body);
+            assertTrue(body.contains("\"description\":\"from api\""), body);
+        } finally {
+            server.stop();
+            chatterbox.shutdown();
+        }
+    }
+
+    @Test
+    public void badRequests_rejectedWithClientError() throws Exception {
+        ChatterboxGui chatterbox = newChatterbox();
+        ApiServer server = startServer(chatterbox);
+        try {
+            assertEquals(400, get(server, "/api/find").statusCode());
+            assertEquals(400, get(server, "/api/tasks?limit=abc").statusCode());
+            assertEquals(400, get(server, "/api/tasks?offset=-1").statusCode());
+            assertEquals(400, post(server, "/api/command", "  ").statusCode());
+            assertEquals(400, post(server, "/api/command", "{\"other\":\"list\"}").statusCode());
+            HttpResponse<String> malformed = post(server, "/api/command", "{\"input\":\"todo \\u00zz\"}");
+            assertEquals(400, malformed.statusCode());
+            assertTrue(malformed.body().contains("Bad \\\\u escape"), malformed.body());
+            assertEquals(400, post(server, "/api/command", "{\"input\":\"todo \\u+041\"}").statusCode());
+            assertEquals(400, post(server, "/api/command", "{\"input\":\"todo \\u04").statusCode());
+            assertEquals(200, post(server, "/api/command", "{\"input\":\"list \\u0041\"}").statusCode());
+
+            HttpResponse<String> response = post(server, "/api/list", "");
+            assertEquals(405, response.statusCode());
+            assertTrue(response.body().startsWith("{\"error\":"), response.body());
+            assertEquals(405, get(server, "/api/command").statusCode());
+            assertEquals(3, chatterbox.getTaskList().size());
+        } finally {
+            server.stop();
+            chatterbox.shutdown();
+        }
+    }
+}
@@ -19,6 +19,8 @@ import tags.TagList;
 import tasks.Deadline;
 import tasks.Event;
 import tasks.Task;
+import tasks.TaskList;
+import tasks.TaskSnapshot;
 import tasks.Todo;
 
 
@@ -211,4 +213,26 @@ public class StorageTest {
     }
 
 
+
+    @Test
+    public void saveHistory_snapshot_statusAsWhenTaken() throws Exception {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 40; i++) {
+            tasks.addTodo("task " + i);
+        }
+        tasks.markTask(35);
+        tasks.deleteTask(3);
+        tasks.markTask(0);
+        TaskSnapshot snapshot = tasks.snapshot();
+        tasks.unmarkTask(0);
+        tasks.markTask(1);
+
+        testStorage.saveHistory(snapshot);
+        List<String> lines = Files.readAllLines(Paths.get(testStorage.getHistFilePath()));
+        assertEquals(39, lines.size());
+        assertEquals("T | X | task 0 ", lines.get(0));
+        assertEquals("T |   | task 1 ", lines.get(1));
+        assertEquals("T | X | task 35 ", lines.get(34));
+        assertEquals(2, lines.stream().filter(line -> line.startsWith("T | X")).count());
+    }
 }
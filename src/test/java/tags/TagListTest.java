@@ -1,9 +1,22 @@
 package tags;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import org.junit.jupiter.api.Test;
 
+import chatterboxexceptions.ChatterboxExceptions;
+import tasks.Task;
+import tasks.TaskList;
+import tasks.Todo;
+import tasks.UndoLog;
+
 
 public class TagListTest {
     @Test
@@ -48,4 +61,267 @@ public class TagListTest {
         assertEquals(tag, tagList.getTag("tag1"));
     }
 
+    @Test
+    public void getTagsWithPrefix_sortedWithCounts() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TagList tagList = new TagList();
+        for (String name : List.of("work", "home", "workout", "weekend", "wor", "w")) {
+            tagList.addTagFromString(name);
+        }
+        Task task = new Todo("run");
+        tagList.getTag("workout").tagTask(task);
+        tagList.getTag("work").tagTask(task);
+        tagList.getTag("work").tagTask(new Todo("write"));
+
+        assertEquals(List.of("home", "w", "weekend", "wor", "work", "workout"), names(tagList.getTagsWithPrefix("")));
+        assertEquals(List.of("wor", "work", "workout"), names(tagList.getTagsWithPrefix("wor")));
+        assertEquals(List.of(), names(tagList.getTagsWithPrefix("works")));
+        assertEquals(3, tagList.countTaggedWithPrefix("wor"));
+        assertEquals(1, tagList.countTaggedWithPrefix("worko"));
+        assertEquals("workout", tagList.completeTagName("worko"));
+        assertEquals("w", tagList.completeTagName("w"));
+        assertNull(tagList.completeTagName("x"));
+
+        tagList.getTag("work").untagTask(task);
+        tagList.removeTag("workout");
+        assertEquals(1, tagList.countTaggedWithPrefix("w"));
+        assertEquals(List.of("wor", "work"), names(tagList.getTagsWithPrefix("wo")));
+        tagList.removeTag("wor");
+        assertEquals("work", tagList.completeTagName("wo"));
+    }
+
+    @Test
+    public void countTasksUnder_countsEachTaskOnce() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        tasks.addTodo("run");
+        tasks.addTodo("write");
+        tasks.tagTask(0, tagList.addTagFromString("work"));
+        tasks.tagTask(0, tagList.addTagFromString("workout"));
+        tasks.tagTask(1, tagList.getTag("work"));
+
+        assertEquals(3, tagList.countTaggedWithPrefix("wor"));
+        assertEquals(2, TagList.countTasksUnder(tagList.getTagsWithPrefix("wor")));
+        assertEquals(1, TagList.countTasksUnder(tagList.getTagsWithPrefix("worko")));
+        assertEquals(0, TagList.countTasksUnder(List.of()));
+    }
+
+    @Test
+    public void normalise_trimsSlashesAndEmptyLevels() {
+        assertEquals("work/proja/backend", Tag.normalise(" /Work//projA/backend/ "));
+        assertEquals("work", Tag.normalise("work"));
+        assertEquals("", Tag.normalise("//"));
+        assertEquals(true, Tag.isUnder("work/proja", "work"));
+        assertEquals(true, Tag.isUnder("work", "work"));
+        assertEquals(false, Tag.isUnder("workout", "work"));
+    }
+
+    @Test
+    public void getTaskIdsUnder_unionsSubtreeInListOrder() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        for (String name : List.of("a", "b", "c", "d")) {
+            tasks.addTodo(name);
+        }
+        tasks.tagTask(3, tagList.addTagFromString("work"));
+        tasks.tagTask(1, tagList.addTagFromString("work/proja"));
+        tasks.tagTask(3, tagList.getTag("work/proja"));
+        tasks.tagTask(0, tagList.addTagFromString("work/proja/backend"));
+        tasks.tagTask(2, tagList.addTagFromString("workout"));
+
+        assertEquals(List.of("work", "work/proja", "work/proja/backend"), names(tagList.getSubtree("work")));
+        assertEquals(List.of("work/proja/backend"), names(tagList.getSubtree("work/proja/backend")));
+        assertEquals(List.of("a", "b", "d"), descriptions(tasks.getTasksById(tagList.getTaskIdsUnder("work"))));
+        assertEquals(List.of("a", "b", "d"), descriptions(tasks.getTasksById(tagList.getTaskIdsUnder("work/proja"))));
+        assertNull(tagList.getTaskIdsUnder("work/projb"));
+
+        tasks.deleteTask(1);
+        assertEquals(List.of("a", "d"), descriptions(tasks.getTasksById(tagList.getTaskIdsUnder("work"))));
+    }
+
+    @Test
+    public void moveTags_renamesSubtreeWithoutTouchingTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        tasks.addTodo("a");
+        Tag backend = tagList.addTagFromString("work/proja/backend");
+        tasks.tagTask(0, backend);
+        tagList.addTagFromString("work/proja");
+        tagList.addTagFromString("work/projb");
+        tagList.addTagFromString("archive/projb");
+        assertEquals("a /tags: work/proja/backend ", tasks.getTask(0).getDescription());
+
+        assertEquals("archive/projb", tagList.getMoveConflict("work/projb", "archive/projb"));
+        assertNull(tagList.getMoveConflict("work/proja", "archive/proja"));
+        assertEquals(2, tagList.moveTags("work/proja", "archive/proja"));
+        assertSame(backend, tagList.getTag("archive/proja/backend"));
+        assertEquals(false, tagList.containsTag("work/proja"));
+        assertEquals(List.of("archive/proja", "archive/proja/backend", "archive/projb"),
+                names(tagList.getSubtree("archive")));
+        assertEquals(1, tagList.countTaggedWithPrefix("archive/"));
+        assertEquals(0, tagList.countTaggedWithPrefix("work/"));
+        assertEquals("a /tags: archive/proja/backend ", tasks.getTask(0).getDescription());
+
+        // moving a tag under itself is allowed, the tags it displaces are moved too
+        assertNull(tagList.getMoveConflict("archive", "archive/old"));
+        assertEquals(3, tagList.moveTags("archive", "archive/old"));
+        assertEquals("a /tags: archive/old/proja/backend ", tasks.getTask(0).getDescription());
+    }
+
+    @Test
+    public void moveTags_rolledBack_restoresNames() {
+        TagList tagList = new TagList();
+        Tag top = tagList.addTagFromString("work");
+        tagList.addTagFromString("work/proja");
+        UndoLog log = new UndoLog();
+        tagList.beginTransaction(log);
+        tagList.moveTags("work", "job");
+        assertSame(top, tagList.getTag("job"));
+        log.rollback();
+        tagList.endTransaction();
+        assertSame(top, tagList.getTag("work"));
+        assertEquals(List.of("work", "work/proja"), names(tagList.getTagsWithPrefix("")));
+        assertEquals(false, tagList.containsTag("job"));
+    }
+
+    @Test
+    public void renameTag_keepsTagAndTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        tasks.addTodo("a");
+        Tag work = tagList.addTagFromString("work");
+        tagList.addTagFromString("work/proja");
+        tasks.tagTask(0, work);
+
+        tagList.renameTag("work", "job");
+        assertSame(work, tagList.getTag("job"));
+        assertEquals(List.of("job", "work/proja"), names(tagList.getTagsWithPrefix("")));
+        assertEquals(1, tagList.getLargestTags(1).get(0).size());
+        assertEquals("a /tags: job ", tasks.getTask(0).getDescription());
+    }
+
+    @Test
+    public void renameTag_staleOnlyForItsOwnTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        tasks.addTodo("a");
+        tasks.addTodo("b");
+        Tag work = tagList.addTagFromString("work");
+        tasks.tagTask(0, work);
+        tasks.tagTask(1, tagList.addTagFromString("home"));
+        String other = tasks.getTask(1).getDescription();
+
+        tagList.renameTag("work", "job");
+        assertSame(other, tasks.getTask(1).getDescription());
+        assertEquals("a /tags: job ", tasks.getTask(0).getDescription());
+
+        // the task's set was hashed under the old name, untagging must still find the tag
+        tasks.untagTask(0, work);
+        assertEquals("a ", tasks.getTask(0).getDescription());
+        assertEquals(0, work.size());
+    }
+
+    @Test
+    public void mergeTags_movesSmallerSetEitherWay() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        for (String name : List.of("a", "b", "c")) {
+            tasks.addTodo(name);
+        }
+        Tag big = tagList.addTagFromString("big");
+        Tag small = tagList.addTagFromString("small");
+        tasks.tagTasks(new int[] {0, 1}, big);
+        tasks.tagTasks(new int[] {1, 2}, tagList.getTag("small"));
+        tasks.tagTask(2, small);
+
+        // the larger tag is merged, so it survives under the other name
+        tagList.addTagFromString("one");
+        tasks.tagTask(0, tagList.getTag("one"));
+        assertEquals(1, tagList.mergeTags("big", "one"));
+        assertSame(big, tagList.getTag("one"));
+        assertEquals(false, tagList.containsTag("big"));
+        assertEquals(2, big.size());
+        assertEquals("a /tags: one ", tasks.getTask(0).getDescription());
+
+        assertEquals(1, tagList.mergeTags("small", "one"));
+        assertSame(big, tagList.getTag("one"));
+        assertEquals(3, big.size());
+        assertEquals(List.of("one"), names(tagList.getTagsWithPrefix("")));
+        assertEquals("c /tags: one ", tasks.getTask(2).getDescription());
+        assertEquals(List.of("a", "b", "c"), descriptions(tasks.getTasksById(tagList.getTaskIdsUnder("one"))));
+    }
+
+    @Test
+    public void mergeTags_rolledBack_restoresBothTags() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tagList = new TagList();
+        tasks.addTodo("a");
+        tasks.addTodo("b");
+        Tag big = tagList.addTagFromString("big");
+        Tag small = tagList.addTagFromString("small");
+        tasks.tagTasks(new int[] {0, 1}, big);
+        tasks.tagTask(1, small);
+
+        UndoLog log = new UndoLog();
+        tagList.beginTransaction(log);
+        tagList.mergeTags("big", "small");
+        log.rollback();
+        tagList.endTransaction();
+        assertSame(big, tagList.getTag("big"));
+        assertSame(small, tagList.getTag("small"));
+        assertEquals(2, big.size());
+        assertEquals(1, small.size());
+        assertEquals(true, tasks.getTask(1).getTagSet().contains(small));
+        assertEquals(List.of("big", "small"), names(tagList.getLargestTags(2)));
+    }
+
+    @Test
+    public void getTagsWithPrefix_matchesSortedSetAfterRandomChanges() {
+        TagList tagList = new TagList();
+        TreeSet<String> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            String name = randomName(random);
+            if (random.nextInt(3) == 0) {
+                tagList.removeTag(name);
+                expected.remove(name);
+            } else {
+                tagList.addTagFromString(name);
+                expected.add(name);
+            }
+        }
+        assertEquals(new ArrayList<>(expected), names(tagList.getTagsWithPrefix("")));
+        for (int i = 0; i < 100; i++) {
+            String prefix = randomName(random);
+            List<String> withPrefix = new ArrayList<>();
+            for (String name : expected.subSet(prefix, prefix + Character.MAX_VALUE)) {
+                withPrefix.add(name);
+            }
+            assertEquals(withPrefix, names(tagList.getTagsWithPrefix(prefix)));
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return name.toString();
+    }
+
+    private static List<String> names(List<Tag> tags) {
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tags) {
+            names.add(tag.getTagName());
+        }
+        return names;
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.descNoTags().trim());
+        }
+        return descriptions;
+    }
 }
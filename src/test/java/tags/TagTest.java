@@ -29,6 +29,7 @@ public class TagTest {
         Tag tag = new Tag("tag");
         Tag tag2 = new Tag("tag");
         assertEquals(true, tag.equals(tag2));
+        assertEquals(tag.hashCode(), tag2.hashCode());
     }
 
     @Test
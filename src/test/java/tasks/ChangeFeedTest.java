@@ -0,0 +1,109 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.Tag;
+import tags.TagList;
+
+public class ChangeFeedTest {
+
+    @Test
+    public void changes_carryIdsAndPositions() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tags = new TagList();
+        tags.setChangeFeed(tasks.getChangeFeed());
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        tasks.getChangeFeed().addListener(batches::add);
+
+        tasks.addTodo("read");
+        tasks.addTodo("write");
+        Tag home = tags.addTagFromString("home");
+        tasks.tagTask(1, home);
+        tasks.markTask(1);
+        tasks.markTask(1);
+        tasks.deleteTask(0);
+
+        assertEquals(List.of("ADDED(id 0 at 0)", "ADDED(id 1 at 1)", "TAG_CREATED(id -1 at -1, home)",
+                "TAGGED(id 1 at 1, home)", "STATUS_CHANGED(id 1 at 1)", "REMOVED(id 0 at 0)"), describe(batches));
+        assertTrue(batches.get(4).get(0).isDone());
+    }
+
+    @Test
+    public void deleteTasks_positionsStayValidInOrder() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            tasks.addTodo("task " + i);
+        }
+        List<Task> copy = new ArrayList<>(tasks.getTasks());
+        tasks.getChangeFeed().addListener(changes -> {
+            for (ChangeEvent change : changes) {
+                assertEquals(change.getTask(), copy.remove(change.getPosition()));
+            }
+        });
+        tasks.deleteTasks(new int[] {1, 3, 4});
+        assertEquals(tasks.getTasks(), copy);
+    }
+
+    @Test
+    public void batch_deliversOnceAndRollbackDiscards() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tags = new TagList();
+        ChangeFeed feed = tasks.getChangeFeed();
+        tags.setChangeFeed(feed);
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        List<Runnable> queued = new ArrayList<>();
+        feed.addListener(batches::add, queued::add);
+
+        feed.beginBatch();
+        tasks.addTodo("read");
+        tasks.addTodo("write");
+        UndoLog log = new UndoLog();
+        tasks.beginTransaction(log);
+        tags.beginTransaction(log);
+        tasks.markTask(0);
+        tasks.tagTask(1, tags.addTagFromString("home"));
+        log.rollback();
+        tasks.endTransaction();
+        tags.endTransaction();
+        assertTrue(queued.isEmpty());
+        feed.endBatch();
+
+        assertEquals(1, queued.size());
+        assertTrue(batches.isEmpty());
+        queued.get(0).run();
+        assertEquals(List.of("ADDED(id 0 at 0)", "ADDED(id 1 at 1)"), describe(batches));
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void listener_failureDoesNotStopOthers() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        List<ChangeEvent> seen = new ArrayList<>();
+        ChangeListener failing = changes -> {
+            throw new IllegalStateException("listener failed");
+        };
+        tasks.getChangeFeed().addListener(failing);
+        tasks.getChangeFeed().addListener(seen::addAll);
+        tasks.addTodo("read");
+        tasks.getChangeFeed().removeListener(failing);
+        tasks.addTodo("write");
+        assertEquals(2, seen.size());
+    }
+
+    private static List<String> describe(List<List<ChangeEvent>> batches) {
+        List<String> described = new ArrayList<>();
+        for (List<ChangeEvent> batch : batches) {
+            for (ChangeEvent change : batch) {
+                described.add(change.toString());
+            }
+        }
+        return described;
+    }
+}
@@ -0,0 +1,115 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.Tag;
+import tags.TagList;
+
+public class IncrementalSearchTest {
+
+    private static TaskList sampleTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 2000; i++) {
+            tasks.addTodo((i % 10 == 0 ? "read book " : "write essay ") + i);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void find_narrowsWhileQueryGrows() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TagList tags = new TagList();
+        IncrementalSearch search = new IncrementalSearch();
+
+        ListView found = search.find(tasks, tags, "read", 5);
+        assertEquals(200, found.getMatching());
+        assertEquals(2000, search.getScanned());
+        assertEquals(List.of(0, 10, 20, 30, 40), positions(found));
+
+        found = search.find(tasks, tags, "read book 19", 5);
+        assertEquals(200, search.getScanned());
+        assertEquals(tasks.findTasks("read book 19").size(), found.getMatching());
+        assertEquals(List.of(190, 1900, 1910, 1920, 1930), positions(found));
+    }
+
+    @Test
+    public void find_rescansAfterChangeOrShorterQuery() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TagList tags = new TagList();
+        IncrementalSearch search = new IncrementalSearch();
+        search.find(tasks, tags, "read", 5);
+
+        tasks.addTodo("read again");
+        assertEquals(201, search.find(tasks, tags, "read", 5).getMatching());
+        assertEquals(2001, search.getScanned());
+
+        search.find(tasks, tags, "rea", 5);
+        assertEquals(2001, search.getScanned());
+    }
+
+    @Test
+    public void find_rescansAfterTagRename() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TagList tags = new TagList();
+        tasks.tagTask(1, tags.addTagFromString("chores"));
+        IncrementalSearch search = new IncrementalSearch();
+        assertEquals(200, search.find(tasks, tags, "read", 5).getMatching());
+
+        tags.renameTag("chores", "reading");
+        ListView found = search.find(tasks, tags, "readi", 5);
+        assertEquals(2000, search.getScanned());
+        assertEquals(List.of(1), positions(found));
+    }
+
+    @Test
+    public void find_cancelledKeepsLastMatches() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TagList tags = new TagList();
+        IncrementalSearch search = new IncrementalSearch();
+        search.find(tasks, tags, "read", 5);
+
+        Thread.currentThread().interrupt();
+        assertThrows(CancellationException.class, () -> search.find(tasks, tags, "write", 5));
+        assertEquals(111, search.find(tasks, tags, "read book 1", 5).getMatching());
+        assertEquals(200, search.getScanned());
+    }
+
+    @Test
+    public void findTags_sortedAndNarrowed() {
+        TagList tags = new TagList();
+        tags.addTagFromString("work");
+        tags.addTagFromString("home");
+        tags.addTagFromString("workout");
+        tags.addTagFromString("weekend");
+        IncrementalSearch search = new IncrementalSearch();
+
+        assertEquals(List.of("weekend", "work", "workout"), names(search.findTags(tags, "w")));
+        assertEquals(List.of("work", "workout"), names(search.findTags(tags, "wor")));
+        tags.addTagFromString("worry");
+        assertEquals(List.of("work", "workout", "worry"), names(search.findTags(tags, "wor")));
+    }
+
+    private static List<Integer> positions(ListView view) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < view.getTasks().size(); i++) {
+            positions.add(view.getPosition(i));
+        }
+        return positions;
+    }
+
+    private static List<String> names(List<Tag> tags) {
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tags) {
+            names.add(tag.getTagName());
+        }
+        return names;
+    }
+}
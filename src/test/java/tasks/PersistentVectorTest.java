@@ -0,0 +1,110 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistentVectorTest {
+
+    private static void assertSameElements(List<Integer> expected, PersistentVector<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+        Iterator<Integer> it = actual.iterator();
+        for (Integer value : expected) {
+            assertEquals(value, it.next());
+        }
+    }
+
+    @Test
+    public void append_acrossSeveralTrieLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            vector = vector.append(i);
+            expected.add(i);
+        }
+        assertSameElements(expected, vector);
+    }
+
+    @Test
+    public void copyOf_matchesAppendedVector() {
+        for (int size : new int[] {0, 1, 31, 32, 33, 1024, 1056, 1057, 33_000}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                expected.add(i);
+            }
+            PersistentVector<Integer> vector = PersistentVector.copyOf(expected);
+            assertSameElements(expected, vector);
+            vector = vector.append(-1);
+            expected.add(-1);
+            assertSameElements(expected, vector);
+        }
+    }
+
+    @Test
+    public void updates_leaveOlderVersionsUnchanged() {
+        PersistentVector<Integer> original = PersistentVector.empty();
+        for (int i = 0; i < 100; i++) {
+            original = original.append(i);
+        }
+        PersistentVector<Integer> changed = original.set(5, -5).remove(0).append(100);
+        assertEquals(5, original.get(5));
+        assertEquals(100, original.size());
+        assertEquals(-5, changed.get(4));
+        assertEquals(100, changed.get(99));
+    }
+
+    @Test
+    public void randomOperations_matchArrayList() {
+        Random random = new Random(42);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 5_000; step++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                vector = vector.append(step);
+                expected.add(step);
+            } else if (op < 8) {
+                int index = random.nextInt(expected.size());
+                vector = vector.set(index, -step);
+                expected.set(index, -step);
+            } else {
+                int index = random.nextInt(expected.size());
+                vector = vector.remove(index);
+                expected.remove(index);
+            }
+        }
+        assertSameElements(expected, vector);
+    }
+
+    @Test
+    public void removeAll_compactsInOnePass() {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            expected.add(i);
+        }
+        PersistentVector<Integer> vector = PersistentVector.copyOf(expected);
+        int[] removed = {0, 31, 32, 500, 501, 502, 1999};
+        for (int i = removed.length - 1; i >= 0; i--) {
+            expected.remove(removed[i]);
+        }
+        assertSameElements(expected, vector.removeAll(removed));
+        assertThrows(IllegalArgumentException.class, () ->
+                PersistentVector.copyOf(expected).removeAll(new int[] {5, 5}));
+    }
+
+    @Test
+    public void get_outOfBounds_exceptionThrown() {
+        PersistentVector<Integer> vector = PersistentVector.<Integer>empty().append(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(-1));
+    }
+}
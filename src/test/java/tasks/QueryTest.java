@@ -0,0 +1,182 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.TagList;
+
+public class QueryTest {
+    private static final LocalDateTime NEW_YEAR = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final TaskList tasks = new TaskList(new ArrayList<>());
+    private final TagList tags = new TagList();
+
+    /**
+     * Adds 300 tasks: every third a deadline due on a day of December 2024 or January 2025, every fifth
+     * mentioning a report, every tenth done, and a few tagged.
+     */
+    private void addSampleTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        for (int i = 0; i < 300; i++) {
+            String desc = (i % 5 == 0 ? "Write Report " : "call bob ") + i;
+            if (i % 3 == 0) {
+                tasks.addDeadline(desc, NEW_YEAR.plusDays(i % 60 - 30));
+            } else if (i % 3 == 1) {
+                tasks.addEvent(desc, NEW_YEAR.plusDays(i % 7), NEW_YEAR.plusDays(i % 7 + 1));
+            } else {
+                tasks.addTodo(desc);
+            }
+            if (i % 10 == 0) {
+                tasks.markTask(i);
+            }
+        }
+        tasks.tagTask(3, tags.addTagFromString("work"));
+        tasks.tagTask(15, tags.addTagFromString("work/proja"));
+        tasks.tagTask(30, tags.getTag("work/proja"));
+        tasks.tagTask(31, tags.addTagFromString("workout"));
+    }
+
+    private static Query query(Boolean status, String symbol, List<String> tagNames, List<String> texts,
+                               Query.DateRange due, ListOptions.Sort sort, int limit) {
+        return new Query(status, symbol, tagNames, texts, due, Query.DateRange.ALL, sort, 0, limit, false);
+    }
+
+    private List<Task> bruteForce(Query query) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks.snapshot()) {
+            if (query.matches(task)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    @Test
+    public void tagCondition_usesTagIndex() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query query = query(null, null, List.of("work"), List.of("report"), Query.DateRange.ALL,
+                ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+        QueryResult result = tasks.query(query, tags);
+        assertTrue(result.getPlan().startsWith("tag index on 'work'"), result.getPlan());
+        assertEquals(3, result.getExamined());
+        assertEquals(bruteForce(query), result.getTasks());
+        assertEquals(List.of(15, 30), ids(result.getTasks()));
+    }
+
+    @Test
+    public void textCondition_usesTrigramsIgnoringCase() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query query = query(false, null, List.of(), List.of("report 29"), Query.DateRange.ALL,
+                ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+        QueryResult result = tasks.query(query, tags);
+        assertTrue(result.getPlan().startsWith("text index"), result.getPlan());
+        assertEquals(List.of(295), ids(result.getTasks()));
+
+        // too short for trigrams, so the bitmaps of undone tasks are scanned
+        Query shortText = query(false, null, List.of(), List.of("29"), Query.DateRange.ALL,
+                ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+        result = tasks.query(shortText, tags);
+        assertTrue(result.getPlan().startsWith("scan of the undone tasks"), result.getPlan());
+        assertEquals(270, result.getExamined());
+        assertEquals(bruteForce(shortText), result.getTasks());
+    }
+
+    @Test
+    public void dueRange_usesDateIndexAndSorts() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query.DateRange lastWeek = Query.DateRange.from(NEW_YEAR.minusDays(3)).and(Query.DateRange.before(NEW_YEAR));
+        Query query = query(null, "D", List.of(), List.of(), lastWeek, ListOptions.Sort.DUE, 4);
+        QueryResult result = tasks.query(query, tags);
+        assertTrue(result.getPlan().startsWith("due date index"), result.getPlan());
+        assertEquals(5, result.getExamined());
+        assertTrue(result.hasMore());
+        // only the deadlines 27 + 60k fall in the range, all due on Dec 29, so they stay in list order
+        assertEquals(List.of(27, 87, 147, 207), ids(result.getTasks()));
+    }
+
+    @Test
+    public void noIndexedCondition_scanStopsAfterPage() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query query = query(null, null, List.of(), List.of(), Query.DateRange.ALL, ListOptions.Sort.LIST_ORDER, 5);
+        QueryResult result = tasks.query(query, tags);
+        assertEquals("scan of every task (~300 tasks)", result.getPlan());
+        assertEquals(6, result.getExamined());
+        assertTrue(result.hasMore());
+        assertEquals(List.of(0, 1, 2, 3, 4), ids(result.getTasks()));
+    }
+
+    @Test
+    public void indexes_followAddsDeletesAndCompaction() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query reports = query(null, null, List.of(), List.of("write report"), Query.DateRange.ALL,
+                ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+        assertEquals(60, tasks.query(reports, tags).getTasks().size());
+
+        tasks.deleteTask(0);
+        tasks.addTodo("write report again");
+        List<Task> found = tasks.query(reports, tags).getTasks();
+        assertEquals(60, found.size());
+        assertEquals("write report again", found.get(59).getDesc());
+
+        tasks.compact();
+        assertEquals(bruteForce(reports), tasks.query(reports, tags).getTasks());
+    }
+
+    @Test
+    public void indexes_rolledBackAddsDropped() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Query zzz = query(null, null, List.of(), List.of("zzz"), Query.DateRange.ALL,
+                ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+        assertEquals("text index on \"zzz\" (~0 tasks)", tasks.query(zzz, tags).getPlan());
+
+        UndoLog log = new UndoLog();
+        tasks.beginTransaction(log);
+        tasks.addTodo("zzz");
+        assertEquals(1, tasks.query(zzz, tags).getTasks().size());
+        log.rollback();
+        tasks.endTransaction();
+
+        QueryResult result = tasks.query(zzz, tags);
+        assertEquals("text index on \"zzz\" (~0 tasks)", result.getPlan());
+        assertTrue(result.getTasks().isEmpty());
+    }
+
+    @Test
+    public void randomQueries_matchBruteForce() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        Random random = new Random(48);
+        String[] texts = {"report", "bob 1", "ll b", "xyz", "rt 2"};
+        String[] symbols = {null, "T", "D", "E"};
+        Boolean[] statuses = {null, true, false};
+        ListOptions.Sort[] sorts = ListOptions.Sort.values();
+        for (int i = 0; i < 200; i++) {
+            List<String> tagNames = random.nextInt(4) == 0 ? List.of("work") : List.of();
+            List<String> text = random.nextBoolean() ? List.of(texts[random.nextInt(texts.length)]) : List.of();
+            Query.DateRange due = random.nextBoolean()
+                    ? Query.DateRange.before(NEW_YEAR.plusDays(random.nextInt(60) - 30))
+                    : Query.DateRange.ALL;
+            Query query = query(statuses[random.nextInt(3)], symbols[random.nextInt(4)], tagNames, text, due,
+                    ListOptions.Sort.LIST_ORDER, Integer.MAX_VALUE);
+            assertEquals(bruteForce(query), tasks.query(query, tags).getTasks(), query.getTexts().toString());
+
+            Query sorted = query(query.getStatus(), query.getTaskSymbol(), tagNames, text, due,
+                    sorts[random.nextInt(sorts.length)], 10);
+            assertEquals(Math.min(10, bruteForce(sorted).size()), tasks.query(sorted, tags).getTasks().size());
+        }
+    }
+
+    private static List<Integer> ids(List<Task> found) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : found) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,84 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.TagList;
+
+public class SearchCacheTest {
+    private final TaskList tasks = new TaskList(new ArrayList<>());
+    private final TagList tags = new TagList();
+
+    private void addSampleTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        for (int i = 0; i < 100; i++) {
+            tasks.addTodo((i % 10 == 0 ? "read book " : "write essay ") + i);
+        }
+        tasks.tagTask(0, tags.addTagFromString("school"));
+        tasks.tagTask(5, tags.getTag("school"));
+    }
+
+    @Test
+    public void find_repeatedSearchIsHitOnceRead() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        List<Task> first = tasks.find("read", tags).toList();
+        assertEquals(10, first.size());
+        assertEquals(0, tasks.getSearchCacheHits());
+        assertEquals(1, tasks.getSearchCacheMisses());
+
+        assertEquals(first, tasks.find("read", tags).toList());
+        assertEquals(1, tasks.getSearchCacheHits());
+    }
+
+    @Test
+    public void find_partlyReadIsNotCached() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        assertEquals(2, tasks.find("read", tags).page(0, 2).size());
+        tasks.find("read", tags).toList();
+        assertEquals(0, tasks.getSearchCacheHits());
+        assertEquals(2, tasks.getSearchCacheMisses());
+    }
+
+    @Test
+    public void anyChange_invalidates() throws ChatterboxExceptions.ChatterBoxNoInput {
+        addSampleTasks();
+        tasks.find("school", tags).toList();
+        tasks.findTagged("school", tags);
+
+        tasks.tagTask(7, tags.getTag("school"));
+        assertEquals(3, tasks.find("school", tags).toList().size());
+        assertEquals(3, tasks.findTagged("school", tags).toList().size());
+        assertEquals(0, tasks.getSearchCacheHits());
+
+        // descriptions show tag names, so renaming a tag changes what find matches
+        tags.renameTag("school", "uni");
+        assertEquals(0, tasks.find("school", tags).toList().size());
+        assertNull(tasks.findTagged("school", tags));
+        assertEquals(3, tasks.findTagged("uni", tags).toList().size());
+        assertEquals(3, tasks.findTagged("uni", tags).toList().size());
+        assertEquals(1, tasks.getSearchCacheHits());
+    }
+
+    @Test
+    public void put_staleOrOverflowingIsDropped() {
+        SearchCache cache = new SearchCache();
+        assertNull(cache.get("find a", 1, 1));
+        cache.put("find a", 0, 1, new BitSet());
+        assertNull(cache.get("find a", 1, 1));
+
+        for (int i = 0; i <= SearchCache.MAX_ENTRIES; i++) {
+            cache.put("find " + i, 1, 1, new BitSet());
+        }
+        assertEquals(SearchCache.MAX_ENTRIES, cache.size());
+        assertNull(cache.get("find 0", 1, 1));
+        assertEquals(new BitSet(), cache.get("find 1", 1, 1));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+}
@@ -0,0 +1,99 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+
+public class SlotIndexTest {
+
+    @Test
+    public void randomUpdates_matchBitSet() {
+        Random random = new Random(7);
+        BitSet expected = new BitSet();
+        SlotIndex index = SlotIndex.empty();
+        for (int step = 0; step < 20_000; step++) {
+            int slot = random.nextInt(step < 10_000 ? 2_000 : 70_000);
+            boolean isLive = random.nextInt(3) != 0;
+            expected.set(slot, isLive);
+            index = index.set(slot, isLive);
+        }
+        assertEquals(expected.cardinality(), index.size());
+        int position = 0;
+        for (int slot = expected.nextSetBit(0); slot >= 0; slot = expected.nextSetBit(slot + 1)) {
+            assertEquals(slot, index.select(position));
+            assertEquals(position, index.rank(slot));
+            position++;
+        }
+        assertEquals(index.size(), index.rank(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void ofLive_firstSlotsLive() {
+        SlotIndex index = SlotIndex.ofLive(40_000);
+        assertEquals(40_000, index.size());
+        assertEquals(39_999, index.select(39_999));
+        assertEquals(true, index.isLive(39_999));
+        assertEquals(false, index.isLive(40_000));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.select(40_000));
+    }
+
+    @Test
+    public void ofWords_matchesUpdates() {
+        Random random = new Random(11);
+        int[] words = new int[3_000];
+        SlotIndex expected = SlotIndex.empty();
+        for (int slot = 0; slot < words.length * 32; slot++) {
+            if (random.nextInt(5) == 0) {
+                words[slot >>> 5] |= 1 << slot;
+                expected = expected.set(slot, true);
+            }
+        }
+        SlotIndex index = SlotIndex.ofWords(words);
+        assertEquals(expected.size(), index.size());
+        for (int word = 0; word < words.length; word++) {
+            assertEquals(words[word], index.word(word));
+            assertEquals(expected.word(word), index.word(word));
+        }
+        assertEquals(0, index.word(words.length + 40_000));
+    }
+
+    @Test
+    public void deleteTask_positionsStayCompact() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            tasks.addTodo("task " + i);
+            expected.add("task " + i + " ");
+        }
+        int firstId = tasks.getTask(1).getId();
+        tasks.deleteTask(0);
+        expected.remove(0);
+        tasks.deleteTasks(new int[] {10, 11, 500});
+        expected.remove(500);
+        expected.remove(11);
+        expected.remove(10);
+        assertEquals(4, tasks.getDeletedSlots());
+        assertEquals(firstId, tasks.getTask(0).getId());
+        for (int i = 0; i < 3_000; i++) {
+            tasks.deleteTask(1_000);
+            expected.remove(1_000);
+        }
+        assertTrue(tasks.getDeletedSlots() < tasks.size());
+        tasks.compact();
+        assertEquals(0, tasks.getDeletedSlots());
+        assertEquals(expected.size(), tasks.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tasks.getTaskDescription(i));
+        }
+        assertEquals(firstId, tasks.getTask(0).getId());
+    }
+}
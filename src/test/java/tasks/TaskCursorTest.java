@@ -0,0 +1,133 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+
+public class TaskCursorTest {
+
+    private static TaskList sampleTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 0; i < 2000; i++) {
+            tasks.addTodo((i % 10 == 0 ? "read book " : "write essay ") + i);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void find_firstPageStopsEarly() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TaskCursor cursor = tasks.find("read").iterator().limit(3);
+        List<Integer> positions = new ArrayList<>();
+        while (cursor.hasNext()) {
+            cursor.next();
+            positions.add(cursor.getPosition());
+        }
+        assertEquals(List.of(0, 10, 20), positions);
+        assertEquals(21, cursor.getExamined());
+
+        cursor = tasks.find("read").iterator().skip(2).limit(2);
+        assertEquals("read book 20", cursor.next().getDesc());
+        assertEquals("read book 30", cursor.next().getDesc());
+        assertFalse(cursor.hasNext());
+        assertEquals(31, cursor.getExamined());
+    }
+
+    @Test
+    public void readPage_firstPageStopsScanningEarly() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TaskPage first = tasks.find("read").readPage(0, 3);
+        assertEquals(3, first.getRows().size());
+        assertTrue(first.hasMore());
+        // the three matches at 0, 10 and 20, then only as far as the next one at 30
+        assertEquals(31, first.getExamined());
+        assertEquals(20, first.getPosition(2));
+        assertEquals("read book 20 ", first.getRows().get(2).getText());
+
+        TaskPage last = tasks.find("read").readPage(198, 5);
+        assertEquals(2, last.getRows().size());
+        assertFalse(last.hasMore());
+        assertEquals(1990, last.getPosition(1));
+    }
+
+    @Test
+    public void find_readsSnapshotOfWhenSearched() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        TaskMatches matches = tasks.find("read");
+        tasks.addTodo("read again");
+        tasks.deleteTask(0);
+        assertEquals(200, matches.toList().size());
+        assertEquals(200, tasks.findTasks("read").size());
+        assertEquals("read book 0", matches.page(0, 1).get(0).getDesc());
+        assertTrue(matches.page(500, 10).isEmpty());
+    }
+
+    @Test
+    public void withIds_skipsDeletedAndMatchesIdLookup() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        Random random = new Random(49);
+        for (int i = 0; i < 300; i++) {
+            tasks.deleteTask(random.nextInt(tasks.size()));
+        }
+        for (int round = 0; round < 50; round++) {
+            BitSet ids = new BitSet();
+            int count = random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                ids.set(random.nextInt(2000));
+            }
+            List<Task> expected = tasks.getTasksById(ids);
+            TaskCursor cursor = tasks.getMatchesById(ids).iterator();
+            for (Task task : expected) {
+                assertEquals(task, cursor.next());
+                assertEquals(task, tasks.getTasks().get(cursor.getPosition()));
+            }
+            assertFalse(cursor.hasNext());
+            assertEquals(expected.subList(Math.min(3, expected.size()), Math.min(5, expected.size())),
+                    tasks.getMatchesById(ids).page(3, 2));
+        }
+    }
+
+    @Test
+    public void idLookup_onlyHoldsLiveTasks() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        for (int round = 0; round < 5; round++) {
+            tasks.deleteTasks(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+            for (int i = 0; i < 10; i++) {
+                tasks.addTodo("read again " + i);
+            }
+        }
+        assertEquals(2000, tasks.getIdLookupSize());
+
+        UndoLog log = new UndoLog();
+        tasks.beginTransaction(log);
+        tasks.addTodo("read later");
+        tasks.deleteTask(0);
+        log.rollback();
+        tasks.endTransaction();
+        assertEquals(2000, tasks.getIdLookupSize());
+
+        BitSet ids = new BitSet();
+        ids.set(0, 2100);
+        assertEquals(tasks.getTasks(), tasks.getTasksById(ids));
+    }
+
+    @Test
+    public void withIds_gallopsInsteadOfReading() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = sampleTasks();
+        BitSet ids = new BitSet();
+        ids.set(1500);
+        ids.set(1999);
+        TaskCursor cursor = tasks.getMatchesById(ids).iterator();
+        assertEquals(2, cursor.toList().size());
+        assertTrue(cursor.getExamined() < 60, "examined " + cursor.getExamined());
+    }
+}
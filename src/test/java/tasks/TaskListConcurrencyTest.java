@@ -0,0 +1,95 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.Tag;
+
+public class TaskListConcurrencyTest {
+
+    @Test
+    public void snapshot_unchangedByLaterWrites() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        tasks.addTodo("first");
+        TaskSnapshot before = tasks.snapshot();
+        tasks.addTodo("second");
+        tasks.deleteTask(0);
+        assertEquals(1, before.size());
+        assertEquals("first ", before.get(0).getDescription());
+        assertEquals("second ", tasks.getTask(0).getDescription());
+        assertTrue(tasks.getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void stress_readersIterateSnapshotsWhileWriterMutates() throws InterruptedException {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        Tag tag = new Tag("stress");
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong tasksRead = new AtomicLong();
+
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20_000; i++) {
+                    tasks.addTodo("task " + i);
+                    if (i % 3 == 0) {
+                        tasks.markTask(tasks.size() - 1);
+                    }
+                    if (i % 5 == 0) {
+                        tasks.tagTask(tasks.size() - 1, tag);
+                    }
+                    if (i % 7 == 0) {
+                        tasks.deleteTask(i % tasks.size());
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                isWriting.set(false);
+            }
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (isWriting.get()) {
+                        TaskSnapshot snapshot = tasks.snapshot();
+                        int size = snapshot.size();
+                        int seen = 0;
+                        for (Task task : snapshot) {
+                            assertTrue(task.getDescription().startsWith("task "));
+                            task.getStatus();
+                            seen++;
+                        }
+                        assertEquals(size, seen);
+                        assertEquals(size, snapshot.size());
+                        tasksRead.addAndGet(seen);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(null, failure.get());
+        assertTrue(tasksRead.get() > 0);
+        assertEquals(20_000 - (20_000 + 6) / 7, tasks.size());
+    }
+}
@@ -0,0 +1,109 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+
+public class TaskListViewTest {
+
+    private static TaskList newTaskList(int deadlines) throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < deadlines; i++) {
+            tasks.addTodo("todo " + i);
+            // Due dates run backwards, so the last deadline added is due first.
+            tasks.addDeadline("deadline " + i, start.plusDays(deadlines - i));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void view_pageInListOrder() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = newTaskList(50);
+        tasks.markTask(3);
+        ListView view = tasks.view(new ListOptions(false, "D", ListOptions.Sort.LIST_ORDER, 20, 20));
+        assertEquals(49, view.getMatching());
+        assertEquals(20, view.getTasks().size());
+        assertEquals("deadline 21", view.getTasks().get(0).getDesc());
+        assertEquals(43, view.getPosition(0));
+    }
+
+    @Test
+    public void view_firstByDue_sameAsFullSort() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = newTaskList(500);
+        tasks.addDeadline("no date", "someday");
+        ListView first = tasks.view(new ListOptions(null, null, ListOptions.Sort.DUE, 10, 5));
+        ListView all = tasks.view(new ListOptions(null, null, ListOptions.Sort.DUE, 0, Integer.MAX_VALUE));
+        assertEquals(1001, first.getMatching());
+        assertEquals(1001, all.getMatching());
+        assertEquals("deadline 499", all.getTasks().get(0).getDesc());
+        assertEquals("no date", all.getTasks().get(500).getDesc());
+        assertEquals("todo 0", all.getTasks().get(501).getDesc());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(all.getTasks().get(10 + i), first.getTasks().get(i));
+            assertEquals(all.getPosition(10 + i), first.getPosition(i));
+        }
+    }
+
+    @Test
+    public void bitmaps_followMarkDeleteCompactAndRollback() throws ChatterboxExceptions.ChatterBoxNoInput {
+        Random random = new Random(3);
+        TaskList tasks = newTaskList(2_000);
+        for (int step = 0; step < 3_000; step++) {
+            int index = random.nextInt(tasks.size());
+            switch (random.nextInt(4)) {
+            case 0:
+                tasks.markTask(index);
+                break;
+            case 1:
+                tasks.unmarkTask(index);
+                break;
+            case 2:
+                tasks.deleteTask(index);
+                break;
+            default:
+                tasks.addEvent("event " + step, "now", "later");
+            }
+        }
+        UndoLog log = new UndoLog();
+        tasks.beginTransaction(log);
+        tasks.markTasks(new int[] {0, 1, 2});
+        tasks.deleteTasks(new int[] {3, 4});
+        log.rollback();
+        tasks.endTransaction();
+        assertMatchesScan(tasks);
+        tasks.compact();
+        assertMatchesScan(tasks);
+    }
+
+    private static void assertMatchesScan(TaskList tasks) {
+        for (Boolean status : new Boolean[] {null, true, false}) {
+            for (String symbol : new String[] {null, "T", "D", "E"}) {
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < tasks.size(); i++) {
+                    Task task = tasks.getTask(i);
+                    if ((status == null || status.equals(task.getStatus()))
+                            && (symbol == null || symbol.equals(task.getTaskSymbol()))) {
+                        expected.add(i);
+                    }
+                }
+                assertEquals(expected.size(), tasks.count(status, symbol));
+                ListView view = tasks.view(new ListOptions(status, symbol, ListOptions.Sort.LIST_ORDER, 7, 300));
+                assertEquals(expected.size(), view.getMatching());
+                assertEquals(Math.min(300, Math.max(0, expected.size() - 7)), view.getTasks().size());
+                for (int i = 0; i < view.getTasks().size(); i++) {
+                    assertEquals((int) expected.get(7 + i), view.getPosition(i));
+                    assertEquals(tasks.getTask(view.getPosition(i)), view.getTasks().get(i));
+                }
+            }
+        }
+        assertEquals(tasks.count(false, null), tasks.getRemainingCount());
+    }
+}
@@ -0,0 +1,105 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import chatterboxexceptions.ChatterboxExceptions;
+import tags.TagList;
+
+public class TaskStatsTest {
+
+    @Test
+    public void getSummary_followsChangesAndRollback() throws ChatterboxExceptions.ChatterBoxNoInput {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        TagList tags = new TagList();
+        tasks.addDeadline("late", LocalDateTime.of(2001, 1, 1, 0, 0));
+        tasks.addDeadline("later", LocalDateTime.of(2002, 1, 1, 0, 0));
+        tasks.addDeadline("future", LocalDateTime.of(2999, 1, 1, 0, 0));
+        tasks.addTodo("todo");
+        tasks.addEvent("event", "now", "later");
+        tasks.tagTask(3, tags.addTagFromString("home"));
+        assertEquals(2, tasks.getSummary(tags).getOverdue());
+
+        tasks.markTask(0);
+        tasks.deleteTask(1);
+        TaskSummary summary = tasks.getSummary(tags);
+        assertEquals(4, summary.getTotal());
+        assertEquals(1, summary.getDone());
+        assertEquals(0, summary.getOverdue());
+        assertEquals(1, summary.getCompletedThisWeek());
+        assertEquals(2, summary.getDeadlines());
+        assertEquals(1, summary.getLargestTags().get("home"));
+
+        UndoLog log = new UndoLog();
+        tasks.beginTransaction(log);
+        tasks.unmarkTask(0);
+        tasks.addDeadline("also late", LocalDateTime.of(2003, 1, 1, 0, 0));
+        tasks.markTask(1);
+        tasks.deleteTask(1);
+        assertEquals(2, tasks.getSummary(tags).getOverdue());
+        log.rollback();
+        tasks.endTransaction();
+        summary = tasks.getSummary(tags);
+        assertEquals(0, summary.getOverdue());
+        assertEquals(1, summary.getDone());
+        assertEquals(4, summary.getTotal());
+    }
+
+    @Test
+    public void overdue_deadlinesFallDueAsTimePasses() throws ChatterboxExceptions.ChatterBoxNoInput {
+        Instant start = LocalDateTime.of(2025, 3, 3, 9, 0).toInstant(ZoneOffset.UTC);
+        MovingClock clock = new MovingClock(start);
+        TaskStats stats = new TaskStats(clock);
+        Deadline soon = new Deadline("soon", LocalDateTime.of(2025, 3, 3, 10, 0));
+        Deadline later = new Deadline("later", LocalDateTime.of(2025, 3, 5, 10, 0));
+        stats.added(soon);
+        stats.added(later);
+        assertEquals(0, stats.getOverdue());
+
+        clock.now = start.plusSeconds(2 * 3600);
+        assertEquals(1, stats.getOverdue());
+        stats.statusChanged(soon, false, true);
+        assertEquals(0, stats.getOverdue());
+        assertEquals(1, stats.getCompletedThisWeek());
+
+        clock.now = start.plusSeconds(7 * 24 * 3600);
+        assertEquals(1, stats.getOverdue());
+        assertEquals(0, stats.getCompletedThisWeek());
+        stats.removed(later, false);
+        assertEquals(0, stats.getOverdue());
+    }
+
+    /**
+     * Clock in UTC that a test can move forward.
+     */
+    private static class MovingClock extends Clock {
+        private Instant now;
+
+        MovingClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}